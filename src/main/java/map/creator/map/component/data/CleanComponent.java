@@ -1,18 +1,46 @@
 package map.creator.map.component.data;
 
+import com.badlogic.gdx.utils.Pool;
 import map.creator.map.component.ObjectComponent;
 
 /// Used to clear the contactDataComponents in class {@link map.creator.map.system.MapContactListener}
 /// @see map.creator.map.system.MapContactListener
-public class CleanComponent extends ObjectComponent {
+public class CleanComponent extends ObjectComponent implements Pool.Poolable {
 
     /**
-     * if this value is true, then entity, which stores this component, will be deleting {@link map.creator.map.system.MapContactListener}.
+     * if this value is true, then entity, which stores this component, will be deleting {@link map.creator.map.system.MapContactListener}
+     * after the entity is removed from {@link com.badlogic.ashley.core.Engine}.
      */
     public boolean isMustBeDelete = false;
 
+    /**
+     * Key of the pair of contacting fixtures in {@link map.creator.map.system.MapContactListener}.
+     */
+    public long key;
+
     public CleanComponent() {
         super("clean-data", "data", null);
     }
 
+    public CleanComponent(long key) {
+        this();
+        this.key = key;
+    }
+
+    /**
+     * Sets the state of the component for a new contact (the component is reused with its pooled entity).
+     * @return this component
+     */
+    public CleanComponent set(long key) {
+        this.key = key;
+        isMustBeDelete = false;
+        return this;
+    }
+
+    @Override
+    public void reset() {
+        isMustBeDelete = false;
+        key = 0;
+    }
+
 }
@@ -1,49 +1,77 @@
 package map.creator.map.component.data;
 
 import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.utils.Pool;
 import map.creator.map.component.ObjectComponent;
 import map.creator.map.entity.ObjectEntity;
 import map.creator.map.factory.body.UserData;
 
-/// A class that contains the state of a contact
+/// A class that contains the state of a contact.
+/// The component is reused with its pooled entity, so it mustn't be kept after the end of contact.
 /// @see ContactType
-public class ContactDataComponent extends ObjectComponent {
+public class ContactDataComponent extends ObjectComponent implements Pool.Poolable {
 
     /**
-     * Current contact.
+     * Current contact. Null for events of {@link map.creator.map.system.contact.ContactEventQueue} -
+     * the world reuses the {@link Contact} of callbacks, so the queue doesn't keep it.
      * @see Contact
      */
-    public final Contact contact;
+    public Contact contact;
 
     /**
      * First {@link ObjectEntity}, which contains {@link com.badlogic.gdx.physics.box2d.Fixture} participating in contact.
      */
-    public final ObjectEntity AEntity;
+    public ObjectEntity AEntity;
 
     /**
      * Second {@link ObjectEntity}, which contains {@link com.badlogic.gdx.physics.box2d.Fixture} participating in contact.
      */
-    public final ObjectEntity BEntity;
+    public ObjectEntity BEntity;
 
     /**
      * The user data of the first {@link com.badlogic.gdx.physics.box2d.Fixture} participating in contact.
      * @see UserData
      */
-    public final UserData AFixtureData;
+    public UserData AFixtureData;
 
     /**
      * The user data of the second {@link com.badlogic.gdx.physics.box2d.Fixture} participating in contact.
      * @see UserData
      */
-    public final UserData BFixtureData;
+    public UserData BFixtureData;
 
-    public ContactDataComponent(Contact contact, ObjectEntity AEntity, ObjectEntity BEntity, UserData AFixtureData, UserData BFixtureData) {
+    public ContactDataComponent() {
         super("contact-data", "data", null);
+    }
+
+    public ContactDataComponent(Contact contact, ObjectEntity AEntity, ObjectEntity BEntity, UserData AFixtureData, UserData BFixtureData) {
+        this();
+        set(contact, AEntity, BEntity, AFixtureData, BFixtureData);
+    }
+
+    /**
+     * Sets the state of the component for a new contact.
+     * @return this component
+     */
+    public ContactDataComponent set(Contact contact, ObjectEntity AEntity, ObjectEntity BEntity, UserData AFixtureData, UserData BFixtureData) {
         this.contact = contact;
         this.AEntity = AEntity;
         this.BEntity = BEntity;
         this.AFixtureData = AFixtureData;
         this.BFixtureData = BFixtureData;
+        return this;
+    }
+
+    /**
+     * Clears references, so the pooled component doesn't keep the {@link Contact} (Box2D reuses it) and entities of the map.
+     */
+    @Override
+    public void reset() {
+        contact = null;
+        AEntity = null;
+        BEntity = null;
+        AFixtureData = null;
+        BFixtureData = null;
     }
 
 }
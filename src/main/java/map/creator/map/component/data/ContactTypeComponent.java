@@ -1,10 +1,11 @@
 package map.creator.map.component.data;
 
+import com.badlogic.gdx.utils.Pool;
 import map.creator.map.component.ObjectComponent;
 
 /// Contains type contact between two {@link com.badlogic.gdx.physics.box2d.Fixture}'s.
 /// @see ContactType
-public class ContactTypeComponent extends ObjectComponent {
+public class ContactTypeComponent extends ObjectComponent implements Pool.Poolable {
 
     /**
      * Contact type between two objects.
@@ -12,8 +13,17 @@ public class ContactTypeComponent extends ObjectComponent {
      */
     public ContactType type;
 
+    public ContactTypeComponent() {
+        this(null);
+    }
+
     public ContactTypeComponent(ContactType type) {
         super("contact-type-data", "data", null);
         this.type = type;
     }
+
+    @Override
+    public void reset() {
+        type = null;
+    }
 }
@@ -0,0 +1,199 @@
+package map.creator.map.controller;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Shape2D;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid over anchor points - the core of {@link MapObjectIndex} and of the index of {@link CompiledMap}.
+ * Queries give indices of points, so the grid doesn't need objects themselves.
+ *
+ * <p>The grid is stored in compact form: one offset per cell and one array of indices of points sorted by cells.
+ * Found indices are sorted, so results are in order of points (the order of the layer) whatever the size of cell is.</p>
+ *
+ * <p>The count of cells is bounded by {@value #CELLS_PER_POINT} cells per point: if points are spread wider
+ * (for example, one object is placed far outside the map), the size of cell is doubled until the grid fits.</p>
+ */
+class AnchorGrid {
+
+    /**
+     * Max count of cells per point of the grid.
+     */
+    static final int CELLS_PER_POINT = 4;
+
+    /**
+     * Anchor points: x on even index, y on odd index.
+     */
+    private final float[] anchors;
+
+    /**
+     * Start of every cell in {@link #cellPoints}, the last element is the count of points.
+     */
+    private final int[] cellOffsets;
+
+    /**
+     * Indices of points sorted by cells.
+     */
+    private final int[] cellPoints;
+
+    private final float cellSize;
+    private final float originX;
+    private final float originY;
+
+    /**
+     * The right-top corner of bounds of points (the left-bottom one is the origin).
+     */
+    private final float maxX;
+    private final float maxY;
+    private final int columns;
+    private final int rows;
+
+    /**
+     * @param anchors anchor points: x on even index, y on odd index (the array is not copied).
+     * @param count count of points.
+     * @param cellSize size of one cell (it may be grown, see {@link #getCellSize()}).
+     * @throws IllegalArgumentException if cellSize is not positive.
+     */
+    AnchorGrid(float[] anchors, int count, float cellSize) {
+        if (cellSize <= 0) throw new IllegalArgumentException("Size of cell must be positive!");
+        this.anchors = anchors;
+
+        if (count == 0) {
+            originX = originY = maxX = maxY = 0;
+            columns = rows = 1;
+            this.cellSize = cellSize;
+        } else {
+            float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+            float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                minX = Math.min(minX, anchors[i * 2]);
+                minY = Math.min(minY, anchors[i * 2 + 1]);
+                maxX = Math.max(maxX, anchors[i * 2]);
+                maxY = Math.max(maxY, anchors[i * 2 + 1]);
+            }
+
+            // extents in double, so far points don't overflow them
+            double width = (double) maxX - minX, height = (double) maxY - minY;
+            double size = cellSize;
+            long maxCells = (long) CELLS_PER_POINT * count + 1;
+            while ((Math.floor(width / size) + 1) * (Math.floor(height / size) + 1) > maxCells) size *= 2;
+
+            originX = minX;
+            originY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.cellSize = (float) size;
+            columns = (int) (width / size) + 1;
+            rows = (int) (height / size) + 1;
+        }
+
+        cellOffsets = new int[columns * rows + 1];
+        cellPoints = new int[count];
+
+        int[] cells = new int[count];
+        for (int i = 0; i < count; i++) {
+            cells[i] = getCell(anchors[i * 2], anchors[i * 2 + 1]);
+            cellOffsets[cells[i] + 1]++;
+        }
+        for (int i = 1; i < cellOffsets.length; i++) {
+            cellOffsets[i] += cellOffsets[i - 1];
+        }
+
+        int[] cursor = new int[columns * rows];
+        for (int i = 0; i < count; i++) {
+            cellPoints[cellOffsets[cells[i]] + cursor[cells[i]]++] = i;
+        }
+    }
+
+    /**
+     * Finds all points contained in zone. Only the cells overlapping the bounding rectangle of the zone are visited.
+     * @param zone the zone.
+     * @param out array for indices of found points (appended in order of points).
+     */
+    void query(Shape2D zone, IntArray out) {
+        int start = out.size;
+        Rectangle aabb = MapObjectIndex.getBoundingRectangle(zone);
+        if (aabb == null) {
+            for (int i = 0; i < cellPoints.length; i++) {
+                if (zone.contains(anchors[i * 2], anchors[i * 2 + 1])) out.add(i);
+            }
+            return;
+        }
+
+        int startColumn = Math.max(0, (int) Math.floor((aabb.x - originX) / cellSize));
+        int startRow = Math.max(0, (int) Math.floor((aabb.y - originY) / cellSize));
+        int endColumn = Math.min(columns - 1, (int) Math.floor((aabb.x + aabb.width - originX) / cellSize));
+        int endRow = Math.min(rows - 1, (int) Math.floor((aabb.y + aabb.height - originY) / cellSize));
+
+        for (int row = startRow; row <= endRow; row++) {
+            for (int column = startColumn; column <= endColumn; column++) {
+                int cell = row * columns + column;
+
+                for (int i = cellOffsets[cell]; i < cellOffsets[cell + 1]; i++) {
+                    int index = cellPoints[i];
+                    if (zone.contains(anchors[index * 2], anchors[index * 2 + 1])) out.add(index);
+                }
+            }
+        }
+
+        Arrays.sort(out.items, start, out.size);
+    }
+
+    /**
+     * Finds all points located in the half-open rectangle [x, x + width) x [y, y + height).
+     * @param out array for indices of found points (appended in order of points).
+     */
+    void queryRange(float x, float y, float width, float height, IntArray out) {
+        int start = out.size;
+        int startColumn = Math.max(0, (int) Math.floor((x - originX) / cellSize));
+        int startRow = Math.max(0, (int) Math.floor((y - originY) / cellSize));
+        int endColumn = Math.min(columns - 1, (int) Math.floor((x + width - originX) / cellSize));
+        int endRow = Math.min(rows - 1, (int) Math.floor((y + height - originY) / cellSize));
+
+        for (int row = startRow; row <= endRow; row++) {
+            for (int column = startColumn; column <= endColumn; column++) {
+                int cell = row * columns + column;
+
+                for (int i = cellOffsets[cell]; i < cellOffsets[cell + 1]; i++) {
+                    int index = cellPoints[i];
+                    float anchorX = anchors[index * 2];
+                    float anchorY = anchors[index * 2 + 1];
+
+                    if (anchorX >= x && anchorX < x + width && anchorY >= y && anchorY < y + height) out.add(index);
+                }
+            }
+        }
+
+        Arrays.sort(out.items, start, out.size);
+    }
+
+    /**
+     * @return count of points.
+     */
+    int size() {
+        return cellPoints.length;
+    }
+
+    /**
+     * @return bounds of all points, or null if there are no points.
+     */
+    Rectangle getBounds() {
+        if (cellPoints.length == 0) return null;
+        return new Rectangle(originX, originY, maxX - originX, maxY - originY);
+    }
+
+    /**
+     * @return size of one cell - the requested one, or bigger if the count of cells was bounded.
+     */
+    float getCellSize() {
+        return cellSize;
+    }
+
+    private int getCell(float x, float y) {
+        int column = Math.min(columns - 1, Math.max(0, (int) ((x - originX) / cellSize)));
+        int row = Math.min(rows - 1, Math.max(0, (int) ((y - originY) / cellSize)));
+        return row * columns + column;
+    }
+}
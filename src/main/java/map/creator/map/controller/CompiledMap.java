@@ -0,0 +1,471 @@
+package map.creator.map.controller;
+
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.math.Circle;
+import com.badlogic.gdx.math.Ellipse;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Polyline;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Shape2D;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import map.creator.map.factory.body.FormBody;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Map compiled by {@link map.creator.map.factory.object.MapCompiler} - objects of selected layers in a compact binary form.
+ * Loading of it doesn't parse XML and doesn't resolve types and forms of objects again, so it is much faster than loading of .tmx file.
+ *
+ * <p>Shapes of objects are in pixels - like shapes of the source .tmx file, so {@link map.creator.map.factory.object.ObjectCreator}'s
+ * get the same bounds from both kinds of maps. They are scaled by {@link #UNIT_SCALE} on creation of bodies.
+ * Rotation and scale of polygons and polylines are already applied to their vertices.</p>
+ *
+ * <p><b>Format</b> (big-endian):</p>
+ * <pre>
+ * int MAGIC, int VERSION, float PPM, float MAP_WIDTH_METERS, float MAP_HEIGHT_METERS
+ * int countStrings, then for every string: int length, UTF-8 bytes
+ * int countLayers, then for every layer: int name, int countData, int countObjects, int length of records,
+ *         int offsets of objects (countObjects, from the start of records), records
+ * record: int name (-1 if null), int type (-1 if data), byte form (-1 if data), byte shape,
+ *         float anchorX, float anchorY, shape (all in pixels), short countProperties, properties
+ * property: int key, byte tag, value
+ * </pre>
+ * Strings are stored once in the string table, records refer to them by index. Data objects of a layer go before other objects.
+ *
+ * <p>Objects are decoded lazily: the map keeps only the mapped buffer, the string table and - after the first zone query of a layer -
+ * the grid over anchor points of the layer (see {@link #getObjects(String, Shape2D)}). A record is decoded only when a query touches it,
+ * so objects, which are never loaded, don't occupy the heap.</p>
+ *
+ * @see map.creator.map.factory.object.MapCompiler
+ * @see map.creator.map.factory.MapFactory#createCompiledMap
+ */
+public class CompiledMap {
+
+    public static final int MAGIC = 0x4D434D50;
+    public static final int VERSION = 3;
+
+    public static final byte SHAPE_NONE = 0;
+    public static final byte SHAPE_RECTANGLE = 1;
+    public static final byte SHAPE_CIRCLE = 2;
+    public static final byte SHAPE_ELLIPSE = 3;
+    public static final byte SHAPE_POLYGON = 4;
+    public static final byte SHAPE_POLYLINE = 5;
+
+    public static final byte PROPERTY_STRING = 0;
+    public static final byte PROPERTY_BOOLEAN = 1;
+    public static final byte PROPERTY_INTEGER = 2;
+    public static final byte PROPERTY_FLOAT = 3;
+    public static final byte PROPERTY_LONG = 4;
+    public static final byte PROPERTY_DOUBLE = 5;
+
+    /**
+     * Size tiles (the same as {@link MapContainer#PPM} of the source map).
+     */
+    public final float PPM;
+
+    /**
+     * Scale pixels-to-meters of the source map (1 / PPM).
+     */
+    public final float UNIT_SCALE;
+
+    /**
+     * This is the number of tiles horizontally.
+     */
+    public final float MAP_WIDTH_METERS;
+
+    /**
+     * This is the number of tiles vertical.
+     */
+    public final float MAP_HEIGHT_METERS;
+
+    private final ByteBuffer buffer;
+
+    private final String[] strings;
+
+    /**
+     * Layers by name.
+     */
+    private final Map<String, Layer> layers = new HashMap<>();
+
+    /**
+     * Size of one cell of grids of layers in tiles.
+     */
+    private int indexCellTiles = 8;
+
+    /**
+     * @param buffer content of the compiled map.
+     * @throws IllegalArgumentException if buffer doesn't contain a compiled map or if version of format is not supported.
+     */
+    public CompiledMap(ByteBuffer buffer) {
+        this.buffer = buffer;
+
+        int position = 0;
+        if (buffer.getInt(position) != MAGIC) throw new IllegalArgumentException("It is not compiled map!");
+        if (buffer.getInt(position + 4) != VERSION) throw new IllegalArgumentException("Unsupported version of compiled map - " + buffer.getInt(position + 4) + "!");
+
+        PPM = buffer.getFloat(position + 8);
+        UNIT_SCALE = 1f / PPM;
+        MAP_WIDTH_METERS = buffer.getFloat(position + 12);
+        MAP_HEIGHT_METERS = buffer.getFloat(position + 16);
+        position += 20;
+
+        strings = new String[buffer.getInt(position)];
+        position += 4;
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[buffer.getInt(position)];
+            position += 4;
+
+            ByteBuffer view = buffer.duplicate();
+            view.position(position);
+            view.get(bytes);
+            position += bytes.length;
+
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int countLayers = buffer.getInt(position);
+        position += 4;
+        for (int i = 0; i < countLayers; i++) {
+            int countObjects = buffer.getInt(position + 8);
+            Layer layer = new Layer(buffer.getInt(position + 4), countObjects, position + 16, position + 16 + countObjects * 4);
+            layers.put(strings[buffer.getInt(position)], layer);
+
+            position = layer.start + buffer.getInt(position + 12);
+        }
+    }
+
+    /**
+     * Loads the compiled map. Local and absolute files are mapped in memory through {@link FileChannel},
+     * other files (for example - internal files on Android) are read fully.
+     *
+     * @param file the compiled map.
+     * @return loaded map.
+     * @throws GdxRuntimeException if file couldn't be read.
+     */
+    public static CompiledMap load(FileHandle file) {
+        if (file.type() == Files.FileType.Classpath || (file.type() == Files.FileType.Internal && !file.file().exists())) {
+            return new CompiledMap(ByteBuffer.wrap(file.readBytes()));
+        }
+
+        try (FileChannel channel = FileChannel.open(file.file().toPath(), StandardOpenOption.READ)) {
+            return new CompiledMap(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't read compiled map - " + file, e);
+        }
+    }
+
+    /**
+     * @return names of all compiled layers.
+     */
+    public Set<String> getNamesLayers() {
+        return Collections.unmodifiableSet(layers.keySet());
+    }
+
+    /**
+     * Decodes all data objects of the layer.
+     * @param nameLayer The name layer.
+     * @return data objects of the layer.
+     * @throws IllegalArgumentException if layer was not compiled.
+     */
+    public List<CompiledObject> getDataObjects(String nameLayer) {
+        Layer layer = getLayer(nameLayer);
+
+        List<CompiledObject> result = new ArrayList<>(layer.countData);
+        int[] position = {layer.start};
+        for (int i = 0; i < layer.countData; i++) {
+            result.add(readObject(position));
+        }
+
+        return result;
+    }
+
+    /**
+     * Decodes objects of the layer, which are located in zone (their anchor point in pixels is contained in zone). Data objects are not included.
+     * Objects are found through the grid of the layer - other records are not touched.
+     *
+     * @param nameLayer The name layer.
+     * @param zoneLoad zone in pixels (if null, then all objects of layer will be given).
+     * @return objects of the layer.
+     * @throws IllegalArgumentException if layer was not compiled.
+     */
+    public List<CompiledObject> getObjects(String nameLayer, Shape2D zoneLoad) {
+        Layer layer = getLayer(nameLayer);
+
+        if (zoneLoad == null) {
+            List<CompiledObject> result = new ArrayList<>(layer.countObjects);
+            for (int i = 0; i < layer.countObjects; i++) {
+                result.add(readObject(layer, i));
+            }
+            return result;
+        }
+
+        IntArray found = new IntArray();
+        getGrid(layer).query(zoneLoad, found);
+
+        return readObjects(layer, found);
+    }
+
+    /**
+     * Decodes objects of the layer, whose anchor point is located in the half-open rectangle [x, x + width) x [y, y + height) in pixels.
+     * Adjacent rectangles never give the same object twice, so it is used for loading the map by chunks. Data objects are not included.
+     *
+     * @param nameLayer The name layer.
+     * @return objects located in rectangle.
+     * @throws IllegalArgumentException if layer was not compiled.
+     */
+    public List<CompiledObject> getObjectsInRange(String nameLayer, float x, float y, float width, float height) {
+        Layer layer = getLayer(nameLayer);
+
+        IntArray found = new IntArray();
+        getGrid(layer).queryRange(x, y, width, height, found);
+
+        return readObjects(layer, found);
+    }
+
+    /**
+     * @param nameLayer The name layer.
+     * @return count of objects of the layer (without data objects).
+     * @throws IllegalArgumentException if layer was not compiled.
+     */
+    public int getCountObjects(String nameLayer) {
+        return getLayer(nameLayer).countObjects;
+    }
+
+    /**
+     * Sets size of one cell of grids of layers in tiles. Already built grids will be rebuilt on next query.
+     * @param indexCellTiles size of cell in tiles (8 by default).
+     * @throws IllegalArgumentException if indexCellTiles is not positive.
+     */
+    public synchronized void setIndexCellTiles(int indexCellTiles) {
+        if (indexCellTiles <= 0) throw new IllegalArgumentException("Size of cell must be positive!");
+        this.indexCellTiles = indexCellTiles;
+
+        for (Layer layer : layers.values()) {
+            layer.grid = null;
+        }
+    }
+
+    /**
+     * Gives the grid of the layer. The grid is built once - on first query of the layer, only anchor points of records are read for it.
+     */
+    private synchronized AnchorGrid getGrid(Layer layer) {
+        if (layer.grid == null) {
+            float[] anchors = new float[layer.countObjects * 2];
+            for (int i = 0; i < layer.countObjects; i++) {
+                int record = getRecord(layer, i);
+                anchors[i * 2] = buffer.getFloat(record + 10);
+                anchors[i * 2 + 1] = buffer.getFloat(record + 14);
+            }
+
+            layer.grid = new AnchorGrid(anchors, layer.countObjects, indexCellTiles * PPM);
+        }
+
+        return layer.grid;
+    }
+
+    private List<CompiledObject> readObjects(Layer layer, IntArray indices) {
+        List<CompiledObject> result = new ArrayList<>(indices.size);
+        for (int i = 0; i < indices.size; i++) {
+            result.add(readObject(layer, indices.get(i)));
+        }
+
+        return result;
+    }
+
+    private CompiledObject readObject(Layer layer, int index) {
+        return readObject(new int[]{getRecord(layer, index)});
+    }
+
+    /**
+     * @return position of record of object in buffer.
+     */
+    private int getRecord(Layer layer, int index) {
+        return layer.start + buffer.getInt(layer.offsets + index * 4);
+    }
+
+    private Layer getLayer(String nameLayer) {
+        Layer layer = layers.get(nameLayer);
+        if (layer == null) throw new IllegalArgumentException("Layer " + nameLayer + " - not compiled!");
+
+        return layer;
+    }
+
+    /**
+     * Decodes the record and moves position to the next record.
+     */
+    private CompiledObject readObject(int[] position) {
+        int p = position[0];
+
+        String name = getString(buffer.getInt(p));
+        String type = getString(buffer.getInt(p + 4));
+        byte form = buffer.get(p + 8);
+        byte shape = buffer.get(p + 9);
+        float anchorX = buffer.getFloat(p + 10);
+        float anchorY = buffer.getFloat(p + 14);
+        p += 18;
+
+        Shape2D bounds;
+        switch (shape) {
+            case SHAPE_RECTANGLE:
+                bounds = new Rectangle(buffer.getFloat(p), buffer.getFloat(p + 4), buffer.getFloat(p + 8), buffer.getFloat(p + 12));
+                p += 16;
+                break;
+            case SHAPE_CIRCLE:
+                bounds = new Circle(buffer.getFloat(p), buffer.getFloat(p + 4), buffer.getFloat(p + 8));
+                p += 12;
+                break;
+            case SHAPE_ELLIPSE:
+                bounds = new Ellipse(buffer.getFloat(p), buffer.getFloat(p + 4), buffer.getFloat(p + 8), buffer.getFloat(p + 12));
+                p += 16;
+                break;
+            case SHAPE_POLYGON:
+            case SHAPE_POLYLINE: {
+                float x = buffer.getFloat(p);
+                float y = buffer.getFloat(p + 4);
+                float[] vertices = new float[buffer.getInt(p + 8)];
+                p += 12;
+                for (int i = 0; i < vertices.length; i++, p += 4) {
+                    vertices[i] = buffer.getFloat(p);
+                }
+
+                if (shape == SHAPE_POLYGON) {
+                    Polygon polygon = new Polygon(vertices);
+                    polygon.setPosition(x, y);
+                    bounds = polygon;
+                } else {
+                    Polyline polyline = new Polyline(vertices);
+                    polyline.setPosition(x, y);
+                    bounds = polyline;
+                }
+                break;
+            }
+            default:
+                bounds = null;
+        }
+
+        MapProperties properties = new MapProperties();
+        short countProperties = buffer.getShort(p);
+        p += 2;
+        for (int i = 0; i < countProperties; i++) {
+            String key = strings[buffer.getInt(p)];
+            byte tag = buffer.get(p + 4);
+            p += 5;
+
+            switch (tag) {
+                case PROPERTY_STRING:
+                    properties.put(key, strings[buffer.getInt(p)]);
+                    p += 4;
+                    break;
+                case PROPERTY_BOOLEAN:
+                    properties.put(key, buffer.get(p) != 0);
+                    p += 1;
+                    break;
+                case PROPERTY_INTEGER:
+                    properties.put(key, buffer.getInt(p));
+                    p += 4;
+                    break;
+                case PROPERTY_FLOAT:
+                    properties.put(key, buffer.getFloat(p));
+                    p += 4;
+                    break;
+                case PROPERTY_LONG:
+                    properties.put(key, buffer.getLong(p));
+                    p += 8;
+                    break;
+                case PROPERTY_DOUBLE:
+                    properties.put(key, buffer.getDouble(p));
+                    p += 8;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown tag of property - " + tag + "!");
+            }
+        }
+
+        position[0] = p;
+        return new CompiledObject(name, type, form < 0 ? null : FormBody.values()[form], anchorX, anchorY, bounds, properties);
+    }
+
+    private String getString(int index) {
+        return index < 0 ? null : strings[index];
+    }
+
+    /**
+     * Location of layer in buffer.
+     */
+    private static class Layer {
+        final int countData;
+        final int countObjects;
+
+        /**
+         * Position of the table of offsets of objects.
+         */
+        final int offsets;
+
+        /**
+         * Position of the first record.
+         */
+        final int start;
+
+        /**
+         * Grid over anchor points of objects, built on first query.
+         */
+        AnchorGrid grid;
+
+        Layer(int countData, int countObjects, int offsets, int start) {
+            this.countData = countData;
+            this.countObjects = countObjects;
+            this.offsets = offsets;
+            this.start = start;
+        }
+    }
+
+    /// Decoded object of the compiled map.
+    public static class CompiledObject {
+
+        /// Name of object (may be null).
+        public final String name;
+
+        /// Type of object - the key of {@link map.creator.map.factory.object.ObjectCreator}, null for data objects.
+        public final String type;
+
+        /// Resolved form body, null for data objects.
+        public final FormBody formBody;
+
+        /// Anchor point of object in pixels - by it object is found in zone.
+        public final float anchorX, anchorY;
+
+        /// Bounds of object in pixels, null for data objects.
+        public final Shape2D bounds;
+
+        /// Properties of object.
+        public final MapProperties properties;
+
+        public CompiledObject(String name, String type, FormBody formBody, float anchorX, float anchorY, Shape2D bounds, MapProperties properties) {
+            this.name = name;
+            this.type = type;
+            this.formBody = formBody;
+            this.anchorX = anchorX;
+            this.anchorY = anchorY;
+            this.bounds = bounds;
+            this.properties = properties;
+        }
+
+        /// @return true if it is data object (it will not be created on the map).
+        public boolean isData() {
+            return type == null;
+        }
+    }
+}
@@ -4,9 +4,13 @@ import com.badlogic.gdx.maps.MapLayer;
 import com.badlogic.gdx.maps.MapObject;
 import com.badlogic.gdx.maps.MapObjects;
 import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.maps.tiled.TiledMapTileSets;
 import com.badlogic.gdx.utils.Disposable;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * This is a container for TileMap, which creates additional parameters and more convenient manipulation of the map.
  * Used in {@link MapController}.
@@ -53,6 +57,17 @@ public class MapContainer implements Disposable {
      */
     private final TiledMap map;
 
+    /**
+     * Spatial indices of object layers, built on first request of the layer.
+     * @see MapObjectIndex
+     */
+    private final Map<String, MapObjectIndex> objectIndices = new HashMap<>();
+
+    /**
+     * Size of one cell of {@link MapObjectIndex} in tiles.
+     */
+    private int indexCellTiles = 8;
+
     /**
      * @param map Represents a tiled map
      * @throws IllegalArgumentException If tileWidth and tileHeight was be different then will happen exception
@@ -99,6 +114,18 @@ public class MapContainer implements Disposable {
         return layer;
     }
 
+    /**
+     * @param nameLayer The name tile layer.
+     * @throws IllegalArgumentException if won't be found MapLayer or if it is not {@link TiledMapTileLayer}.
+     * @return The {@link TiledMapTileLayer} on name.
+     */
+    public TiledMapTileLayer getTileLayer(String nameLayer){
+        MapLayer layer = getLayer(nameLayer);
+        if (!(layer instanceof TiledMapTileLayer)) throw new IllegalArgumentException("Layer " + nameLayer + " - is not tile layer!");
+
+        return (TiledMapTileLayer) layer;
+    }
+
     /**
      * @param nameLayer The name layer.
      * @return All {@link MapObjects}, which contains in layer.
@@ -109,6 +136,32 @@ public class MapContainer implements Disposable {
         return objects;
     }
 
+    /**
+     * Gives the spatial index of objects of the layer. The index is built once - on first call for the layer.
+     * @param nameLayer The name layer.
+     * @return {@link MapObjectIndex} of the layer.
+     */
+    public synchronized MapObjectIndex getObjectIndex(String nameLayer){
+        MapObjectIndex index = objectIndices.get(nameLayer);
+        if (index == null) {
+            index = new MapObjectIndex(getMapObjects(nameLayer), indexCellTiles * PPM);
+            objectIndices.put(nameLayer, index);
+        }
+
+        return index;
+    }
+
+    /**
+     * Sets size of one cell of {@link MapObjectIndex} in tiles. Already built indices will be rebuilt on next request.
+     * @param indexCellTiles size of cell in tiles (8 by default).
+     * @throws IllegalArgumentException if indexCellTiles is not positive.
+     */
+    public synchronized void setIndexCellTiles(int indexCellTiles) {
+        if (indexCellTiles <= 0) throw new IllegalArgumentException("Size of cell must be positive!");
+        this.indexCellTiles = indexCellTiles;
+        objectIndices.clear();
+    }
+
     /**
      * Gives the index of the layer by its name. Needed for separate drawing of layers.
      * @param nameLayer The name layer.
@@ -139,6 +192,7 @@ public class MapContainer implements Disposable {
      */
     @Override
     public void dispose(){
+        objectIndices.clear();
         map.dispose();
     }
 }
@@ -0,0 +1,197 @@
+package map.creator.map.controller;
+
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.MapObjects;
+import com.badlogic.gdx.maps.objects.CircleMapObject;
+import com.badlogic.gdx.maps.objects.EllipseMapObject;
+import com.badlogic.gdx.maps.objects.PolygonMapObject;
+import com.badlogic.gdx.maps.objects.PolylineMapObject;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.math.Circle;
+import com.badlogic.gdx.math.Ellipse;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Polyline;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Shape2D;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Uniform grid over the objects of one layer, used to find the objects located in a zone
+ * without walking the whole layer.
+ *
+ * <p>Every object is indexed by its anchor point (x and y of its bounds - the same point, by which
+ * {@link map.creator.map.factory.object.ObjectFactory} decides whether the object is located in a zone).
+ * The grid itself is {@link AnchorGrid}.</p>
+ *
+ * <p>Built once per layer in {@link MapContainer#getObjectIndex(String)}.</p>
+ *
+ * @see MapContainer
+ */
+public class MapObjectIndex {
+
+    /**
+     * All indexed objects of the layer (objects without known shape are not indexed).
+     */
+    private final MapObject[] objects;
+
+    private final AnchorGrid grid;
+
+    /**
+     * @param mapObjects objects of the layer.
+     * @param cellSize size of one cell in pixels.
+     * @throws IllegalArgumentException if cellSize is not positive.
+     */
+    public MapObjectIndex(MapObjects mapObjects, float cellSize) {
+        List<MapObject> indexed = new ArrayList<>(mapObjects.getCount());
+        float[] anchors = new float[mapObjects.getCount() * 2];
+
+        for (MapObject object : mapObjects) {
+            if (getAnchor(object, anchors, indexed.size() * 2)) indexed.add(object);
+        }
+
+        objects = indexed.toArray(new MapObject[0]);
+        grid = new AnchorGrid(anchors, objects.length, cellSize);
+    }
+
+    /**
+     * Finds all objects whose anchor point is contained in zone.
+     * Only the cells overlapping the bounding rectangle of the zone are visited.
+     *
+     * @param zoneLoad the zone.
+     * @return objects located in zone (in order of the layer).
+     */
+    public List<MapObject> query(Shape2D zoneLoad) {
+        IntArray found = new IntArray();
+        grid.query(zoneLoad, found);
+
+        return toObjects(found);
+    }
+
+    /**
+     * Finds all objects whose anchor point is located in the half-open rectangle [x, x + width) x [y, y + height).
+     * Adjacent rectangles never give the same object twice, so it is used for loading the map by chunks.
+     *
+     * @param x left edge of rectangle.
+     * @param y bottom edge of rectangle.
+     * @param width width of rectangle.
+     * @param height height of rectangle.
+     * @return objects located in rectangle (in order of the layer).
+     */
+    public List<MapObject> queryRange(float x, float y, float width, float height) {
+        IntArray found = new IntArray();
+        grid.queryRange(x, y, width, height, found);
+
+        return toObjects(found);
+    }
+
+    /**
+     * @return count of indexed objects.
+     */
+    public int size() {
+        return objects.length;
+    }
+
+    /**
+     * Gives bounds of anchor points of all indexed objects. They may be outside the map - objects placed outside it are indexed too.
+     * @return bounds in pixels, or null if the layer has no indexed objects.
+     */
+    public Rectangle getAnchorBounds() {
+        return grid.getBounds();
+    }
+
+    /**
+     * @return size of one cell in pixels - the requested one, or bigger if objects are spread too wide (see {@link AnchorGrid}).
+     */
+    public float getCellSize() {
+        return grid.getCellSize();
+    }
+
+    private List<MapObject> toObjects(IntArray indices) {
+        List<MapObject> result = new ArrayList<>(indices.size);
+        for (int i = 0; i < indices.size; i++) {
+            result.add(objects[indices.get(i)]);
+        }
+
+        return result;
+    }
+
+    /**
+     * Writes the anchor point of object in array.
+     * @param object the map object.
+     * @param out array for anchor point.
+     * @param index index of x in array.
+     * @return false if shape of object is unknown.
+     */
+    public static boolean getAnchor(MapObject object, float[] out, int index) {
+        if (object instanceof RectangleMapObject) {
+            Rectangle bounds = ((RectangleMapObject) object).getRectangle();
+            out[index] = bounds.x;
+            out[index + 1] = bounds.y;
+
+        } else if (object instanceof CircleMapObject) {
+            Circle bounds = ((CircleMapObject) object).getCircle();
+            out[index] = bounds.x;
+            out[index + 1] = bounds.y;
+
+        } else if (object instanceof EllipseMapObject) {
+            Ellipse bounds = ((EllipseMapObject) object).getEllipse();
+            out[index] = bounds.x;
+            out[index + 1] = bounds.y;
+
+        } else if (object instanceof PolylineMapObject) {
+            Polyline bounds = ((PolylineMapObject) object).getPolyline();
+            out[index] = bounds.getX();
+            out[index + 1] = bounds.getY();
+
+        } else if (object instanceof PolygonMapObject) {
+            Polygon bounds = ((PolygonMapObject) object).getPolygon();
+            out[index] = bounds.getX();
+            out[index + 1] = bounds.getY();
+
+        } else {
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Gives the bounding rectangle of zone.
+     * @param zone the zone.
+     * @return bounding rectangle, or null if the shape of zone is unknown.
+     */
+    public static Rectangle getBoundingRectangle(Shape2D zone) {
+        if (zone instanceof Rectangle) {
+            return (Rectangle) zone;
+
+        } else if (zone instanceof Circle) {
+            Circle circle = (Circle) zone;
+            return new Rectangle(circle.x - circle.radius, circle.y - circle.radius, circle.radius * 2, circle.radius * 2);
+
+        } else if (zone instanceof Ellipse) {
+            Ellipse ellipse = (Ellipse) zone;
+            return new Rectangle(ellipse.x - ellipse.width / 2, ellipse.y - ellipse.height / 2, ellipse.width, ellipse.height);
+
+        } else if (zone instanceof Polygon) {
+            return ((Polygon) zone).getBoundingRectangle();
+
+        } else if (zone instanceof Polyline) {
+            float[] vertices = ((Polyline) zone).getTransformedVertices();
+            if (vertices.length < 2) return null;
+
+            float minX = vertices[0], minY = vertices[1], maxX = vertices[0], maxY = vertices[1];
+            for (int i = 2; i < vertices.length; i += 2) {
+                minX = Math.min(minX, vertices[i]);
+                minY = Math.min(minY, vertices[i + 1]);
+                maxX = Math.max(maxX, vertices[i]);
+                maxY = Math.max(maxY, vertices[i + 1]);
+            }
+            return new Rectangle(minX, minY, maxX - minX, maxY - minY);
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,51 @@
+package map.creator.map.entity;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of types of {@link ObjectEntity}: every type gets its own bit of long mask,
+ * so sets of types are checked by one AND (see {@link map.creator.map.system.ObjectEntityFilter}).
+ *
+ * <p>Only the first 64 registered types get a bit. Other types get 0 - they are checked by strings.</p>
+ */
+public final class EntityTypeRegistry {
+
+    /**
+     * Max count of types with bit.
+     */
+    public static final int MAX_TYPES = Long.SIZE;
+
+    private static final Map<String, Integer> TYPE_INDICES = new ConcurrentHashMap<>();
+    private static final AtomicInteger COUNT_TYPES = new AtomicInteger();
+
+    private EntityTypeRegistry() {
+    }
+
+    /**
+     * Gives the bit of type, the type is registered on the first call.
+     * @param type type of entity
+     * @return bit of type, or 0 if type is null or there are already {@link #MAX_TYPES} types.
+     */
+    public static long getBit(String type) {
+        if (type == null) return 0;
+
+        int index = TYPE_INDICES.computeIfAbsent(type, key -> COUNT_TYPES.getAndIncrement());
+        return index < MAX_TYPES ? 1L << index : 0;
+    }
+
+    /**
+     * Gives the mask of types (types without bit are skipped).
+     * @param types types of entities
+     * @return mask of types
+     */
+    public static long getMask(Iterable<String> types) {
+        long mask = 0;
+        for (String type : types) {
+            mask |= getBit(type);
+        }
+
+        return mask;
+    }
+}
@@ -19,9 +19,20 @@ public class ObjectEntity extends Entity implements GameObject {
      */
     protected final String type;
 
+    /**
+     * Bit of {@link #type} in {@link EntityTypeRegistry}.
+     */
+    protected final long typeBit;
+
+    /**
+     * Id of entity in {@link map.creator.map.factory.object.ObjectCache}, -1 if the entity isn't put in cache.
+     */
+    protected int id = -1;
+
     public ObjectEntity(String name, String type) {
         this.name = name;
         this.type = type;
+        this.typeBit = EntityTypeRegistry.getBit(type);
     }
 
     @Override
@@ -34,4 +45,25 @@ public class ObjectEntity extends Entity implements GameObject {
         return type;
     }
 
+    /**
+     * @return bit of type in {@link EntityTypeRegistry}, 0 if type hasn't bit.
+     */
+    public long getTypeBit() {
+        return typeBit;
+    }
+
+    /**
+     * @return id of entity in {@link map.creator.map.factory.object.ObjectCache}, -1 if the entity isn't put in cache.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Called by {@link map.creator.map.factory.object.ObjectCache} - mustn't be called by user.
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
 }
@@ -0,0 +1,273 @@
+package map.creator.map.factory;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Disposable;
+import map.creator.map.controller.MapContainer;
+import map.creator.map.entity.ObjectEntity;
+import map.creator.map.factory.object.ObjectFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming loader of the map: splits the map into square chunks of fixed size and keeps instantiated
+ * only the chunks located near the focus point (camera, player...).
+ *
+ * <p>Chunks entering the load radius get Box2D bodies and Ashley entities,
+ * chunks leaving the unload radius are destroyed - without rebooting the world.
+ * The unload radius is bigger than the load radius, so a focus moving on the border of a chunk doesn't reload it every frame.</p>
+ *
+ * <p><b>Example of use:</b></p>
+ * <pre>
+ * {@code
+ * MapChunkLoader chunkLoader = factory.createStreaming(map, 16, 40, "objects", "collisions");
+ *
+ * // In the render method (on the thread of Box2D World)
+ * chunkLoader.update(camera.position.x, camera.position.y);
+ * }
+ * </pre>
+ *
+ * <p>Coordinates of the focus, chunk size and radii are in meters (the same units as in Box2D World).
+ * Objects placed outside the map (for example, with negative coordinates) are streamed too - chunks cover the map and anchor points
+ * of all objects of the layers (see {@link map.creator.map.controller.MapObjectIndex#getAnchorBounds()}).</p>
+ *
+ * @see MapFactory#createStreaming(MapContainer, float, float, String...)
+ * @see map.creator.map.controller.MapObjectIndex
+ */
+public class MapChunkLoader implements Disposable {
+
+    private final MapContainer map;
+    private final ObjectFactory objectFactory;
+    private final Engine engine;
+    private final String[] namesLayers;
+
+    private final float chunkSize;
+
+    /**
+     * Range of chunks covering the map and anchor points of all objects of layers (objects may be placed outside the map).
+     * Chunks outside it are never loaded.
+     */
+    private final int minColumn;
+    private final int minRow;
+    private final int maxColumn;
+    private final int maxRow;
+    private float loadRadius;
+    private float unloadRadius;
+    private int maxLoadsPerUpdate = Integer.MAX_VALUE;
+
+    /**
+     * Loaded chunks by their key (see {@link #getKey(int, int)}) - entities created for the chunk.
+     */
+    private final Map<Long, List<ObjectEntity>> loadedChunks = new HashMap<>();
+
+    private final Rectangle chunkBounds = new Rectangle();
+
+    /**
+     * @param map container map
+     * @param objectFactory factory, which will create objects of chunks
+     * @param engine the engine, where entities of chunks will be added
+     * @param chunkSize size of one chunk in meters
+     * @param loadRadius chunks closer to the focus than this radius (in meters) will be loaded. The unload radius is loadRadius + chunkSize.
+     * @param namesLayers the names of the layers to be processed
+     * @throws IllegalArgumentException if namesLayers is empty or null, or if chunkSize or loadRadius are not positive
+     */
+    public MapChunkLoader(MapContainer map, ObjectFactory objectFactory, Engine engine, float chunkSize, float loadRadius, String... namesLayers) {
+        if (namesLayers == null || namesLayers.length == 0) {
+            throw new IllegalArgumentException("\"namesLayers\" mustn't be empty! Please - write name layer, where contains some objects!");
+        }
+        if (chunkSize <= 0 || loadRadius <= 0) throw new IllegalArgumentException("Size of chunk and load radius must be positive!");
+
+        this.map = map;
+        this.objectFactory = objectFactory;
+        this.engine = engine;
+        this.namesLayers = namesLayers;
+        this.chunkSize = chunkSize;
+        this.loadRadius = loadRadius;
+        this.unloadRadius = loadRadius + chunkSize;
+
+        // chunks covering the map
+        int minColumn = 0, minRow = 0;
+        int maxColumn = Math.max(0, (int) Math.ceil(map.MAP_WIDTH_METERS / chunkSize) - 1);
+        int maxRow = Math.max(0, (int) Math.ceil(map.MAP_HEIGHT_METERS / chunkSize) - 1);
+
+        for (String nameLayer : namesLayers) {
+            objectFactory.loadDataObjects(map, nameLayer);
+
+            // chunks containing anchors of objects (a point on the right or top edge of chunk belongs to the next one)
+            Rectangle anchors = map.getObjectIndex(nameLayer).getAnchorBounds();
+            if (anchors == null) continue;
+
+            minColumn = Math.min(minColumn, (int) Math.floor(anchors.x / map.PPM / chunkSize));
+            minRow = Math.min(minRow, (int) Math.floor(anchors.y / map.PPM / chunkSize));
+            maxColumn = Math.max(maxColumn, (int) Math.floor((anchors.x + anchors.width) / map.PPM / chunkSize));
+            maxRow = Math.max(maxRow, (int) Math.floor((anchors.y + anchors.height) / map.PPM / chunkSize));
+        }
+
+        this.minColumn = minColumn;
+        this.minRow = minRow;
+        this.maxColumn = maxColumn;
+        this.maxRow = maxRow;
+    }
+
+    /**
+     * Loads chunks entered the load radius and destroys chunks left the unload radius.
+     * Must be called on the thread, which steps Box2D World (and never during the step).
+     *
+     * @param focusX the x coordinate of focus in meters
+     * @param focusY the y coordinate of focus in meters
+     */
+    public void update(float focusX, float focusY) {
+        unloadFarChunks(focusX, focusY);
+        loadNearChunks(focusX, focusY);
+    }
+
+    private void loadNearChunks(float focusX, float focusY) {
+        int startColumn = Math.max(minColumn, (int) Math.floor((focusX - loadRadius) / chunkSize));
+        int startRow = Math.max(minRow, (int) Math.floor((focusY - loadRadius) / chunkSize));
+        int endColumn = Math.min(maxColumn, (int) Math.floor((focusX + loadRadius) / chunkSize));
+        int endRow = Math.min(maxRow, (int) Math.floor((focusY + loadRadius) / chunkSize));
+
+        List<Long> candidates = new ArrayList<>();
+        for (int row = startRow; row <= endRow; row++) {
+            for (int column = startColumn; column <= endColumn; column++) {
+                long key = getKey(column, row);
+                if (loadedChunks.containsKey(key)) continue;
+
+                if (getDistanceToChunk(column, row, focusX, focusY) <= loadRadius) candidates.add(key);
+            }
+        }
+
+        if (candidates.size() > maxLoadsPerUpdate) {
+            candidates.sort((a, b) -> Float.compare(
+                getDistanceToChunk((int) (a >> 32), a.intValue(), focusX, focusY),
+                getDistanceToChunk((int) (b >> 32), b.intValue(), focusX, focusY)
+            ));
+        }
+
+        int loads = Math.min(candidates.size(), maxLoadsPerUpdate);
+        for (int i = 0; i < loads; i++) {
+            long key = candidates.get(i);
+            loadChunk((int) (key >> 32), (int) key);
+        }
+    }
+
+    private void unloadFarChunks(float focusX, float focusY) {
+        Iterator<Map.Entry<Long, List<ObjectEntity>>> iterator = loadedChunks.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, List<ObjectEntity>> entry = iterator.next();
+            long key = entry.getKey();
+
+            if (getDistanceToChunk((int) (key >> 32), (int) key, focusX, focusY) > unloadRadius) {
+                destroyEntities(entry.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    private void loadChunk(int column, int row) {
+        float chunkSizePixels = chunkSize * map.PPM;
+        chunkBounds.set(column * chunkSizePixels, row * chunkSizePixels, chunkSizePixels, chunkSizePixels);
+
+        List<ObjectEntity> entities = new ArrayList<>();
+        for (String nameLayer : namesLayers) {
+            entities.addAll(objectFactory.createObjectsOnChunk(map, nameLayer, chunkBounds));
+        }
+
+        for (ObjectEntity entity : entities) {
+            engine.addEntity(entity);
+        }
+
+        loadedChunks.put(getKey(column, row), entities);
+    }
+
+    private void destroyEntities(List<ObjectEntity> entities) {
+        for (ObjectEntity entity : entities) {
+            objectFactory.destroyObject(entity);
+        }
+    }
+
+    /**
+     * Distance from the focus to the nearest point of chunk (0 if the focus is inside of chunk).
+     */
+    private float getDistanceToChunk(int column, int row, float focusX, float focusY) {
+        float minX = column * chunkSize;
+        float minY = row * chunkSize;
+
+        float dx = Math.max(0, Math.max(minX - focusX, focusX - (minX + chunkSize)));
+        float dy = Math.max(0, Math.max(minY - focusY, focusY - (minY + chunkSize)));
+
+        return (float) Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private static long getKey(int column, int row) {
+        return ((long) column << 32) | (row & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Checks whether the chunk containing the point is loaded.
+     * @param x the x coordinate in meters
+     * @param y the y coordinate in meters
+     * @return true if the chunk is loaded.
+     */
+    public boolean isLoaded(float x, float y) {
+        return loadedChunks.containsKey(getKey((int) Math.floor(x / chunkSize), (int) Math.floor(y / chunkSize)));
+    }
+
+    /**
+     * @return count of loaded chunks.
+     */
+    public int getCountLoadedChunks() {
+        return loadedChunks.size();
+    }
+
+    public float getChunkSize() {
+        return chunkSize;
+    }
+
+    public float getLoadRadius() {
+        return loadRadius;
+    }
+
+    public float getUnloadRadius() {
+        return unloadRadius;
+    }
+
+    /**
+     * Sets the radii of loading and unloading.
+     * @param loadRadius chunks closer to the focus than this radius (in meters) will be loaded
+     * @param unloadRadius chunks further from the focus than this radius (in meters) will be destroyed
+     * @throws IllegalArgumentException if loadRadius is not positive or unloadRadius is less than loadRadius
+     */
+    public void setRadii(float loadRadius, float unloadRadius) {
+        if (loadRadius <= 0 || unloadRadius < loadRadius) {
+            throw new IllegalArgumentException("Load radius must be positive and unload radius mustn't be less than load radius!");
+        }
+        this.loadRadius = loadRadius;
+        this.unloadRadius = unloadRadius;
+    }
+
+    /**
+     * Limits the count of chunks loaded in one {@link #update(float, float)} - the nearest chunks are loaded first.
+     * @param maxLoadsPerUpdate maximum count of chunks loaded per update (unlimited by default)
+     * @throws IllegalArgumentException if maxLoadsPerUpdate is not positive
+     */
+    public void setMaxLoadsPerUpdate(int maxLoadsPerUpdate) {
+        if (maxLoadsPerUpdate <= 0) throw new IllegalArgumentException("maxLoadsPerUpdate must be positive!");
+        this.maxLoadsPerUpdate = maxLoadsPerUpdate;
+    }
+
+    /**
+     * Destroys all loaded chunks.
+     */
+    @Override
+    public void dispose() {
+        for (List<ObjectEntity> entities : loadedChunks.values()) {
+            destroyEntities(entities);
+        }
+        loadedChunks.clear();
+    }
+}
@@ -2,20 +2,35 @@ package map.creator.map.factory;
 
 import com.badlogic.ashley.core.Engine;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TmxMapLoader;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.physics.box2d.World;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.GdxRuntimeException;
+import map.creator.map.controller.CompiledMap;
 import map.creator.map.controller.MapContainer;
+import map.creator.map.factory.object.ObjectBatch;
 import map.creator.map.factory.object.ObjectCreator;
 import map.creator.map.factory.object.ObjectFactory;
 import map.creator.map.utils.exception.NotInitializedObjectException;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Phaser;
 
 /**
  * Factory for loading and creating game maps from Tiled .tmx files.
@@ -25,15 +40,20 @@ import java.util.HashMap;
  * <ul>
  * <li>Download Tiled maps (.tmx) with support for both synchronous and asynchronous modes</li>
  * <li>Create physical collisions from map layer features</li>
+ * <li>Create static collisions from collision shapes of tiles ({@link #createCollisionsFromTileLayers})</li>
  * <li>Registration of custom object creators for various types of entities</li>
  * <li>Zone loading of objects to optimize performance</li>
+ * <li>Streaming loading of objects by chunks around a moving focus ({@link MapChunkLoader})</li>
+ * <li>Fast loading of maps compiled at build time ({@link CompiledMap}) without parsing XML</li>
+ * <li>Loading of several maps at once with independent progress ({@link #createMapAsync}, {@link MapLoadHandle})</li>
  * <li>Integration with Box2D World and Ashley Engine</li>
  * </ul>
  *
  * <p><b>Modes of operation:</b></p>
  * <ol>
- * <li><b>Asynchronous</b> - Uses AssetManager for background loading</li>
+ * <li><b>Asynchronous</b> - Uses AssetManager for background loading, objects are prepared on the loading executor and created on the game thread</li>
  * <li><b>Synchronous</b> - uses a direct TmxMapLoader for immediate loading</li>
+ * <li><b>Asynchronous time-sliced</b> - the background thread only prepares objects, bodies are created on the game thread within a budget per frame ({@link #setFrameBudget(float)})</li>
  * </ol>
  *
  * <p><b>Example of use:</b></p>
@@ -61,6 +81,9 @@ import java.util.HashMap;
  * // Create collisions for all features in the layer
  * factory.createCollisions(map, "collisions");
  *
+ * // Create collisions from collision shapes of tiles
+ * factory.createCollisionsFromTileLayers(map, "walls");
+ *
  * // Synchronizing the object cache with the engine
  * factory.synchronizeEngineOnCacheObjects();
  * }
@@ -73,15 +96,74 @@ import java.util.HashMap;
  */
 public class MapFactory implements AsynchronousFactory, Disposable {
 
+    /**
+     * Executor of asynchronous loadings shared by all factories: the count of its threads is bounded,
+     * so several loadings at once don't occupy all cores.
+     */
+    private static final ExecutorService LOADING_EXECUTOR = Executors.newFixedThreadPool(
+        Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)),
+        runnable -> {
+            Thread thread = new Thread(runnable, "MapFactory-loading");
+            thread.setDaemon(true);
+            return thread;
+        }
+    );
+
     private final Engine engine;
 
     private final HashMap<String, TiledMap> tiledMaps;
     private final TmxMapLoader loader;
 
     private final AssetManager manager;
-    private Thread loadingThread;
-    private volatile boolean isDone = true;
-    private volatile boolean isFail = false;
+    private boolean isFail = false;
+
+    /**
+     * Preparation of objects started by {@link #createCollisions(MapContainer, Rectangle, String...)} in asynchronous mode,
+     * null if there is none. Its batches are queued for creation on the thread calling {@link #isDone()}.
+     */
+    private CompletableFuture<List<ObjectBatch>> preparation;
+
+    /**
+     * Tasks of this factory on {@link #LOADING_EXECUTOR}: every task is registered while it's queued or running,
+     * so {@link #dispose()} waits for them before resources of maps are disposed.
+     */
+    private final Phaser loadingTasks = new Phaser(1);
+    private volatile boolean isDisposed = false;
+
+    /**
+     * Runs tasks of this factory on {@link #LOADING_EXECUTOR}. Tasks, which weren't started before {@link #dispose()}, are skipped.
+     */
+    private final Executor loadingExecutor = task -> {
+        loadingTasks.register();
+        LOADING_EXECUTOR.execute(() -> {
+            try {
+                if (!isDisposed) task.run();
+            } finally {
+                loadingTasks.arriveAndDeregister();
+            }
+        });
+    };
+
+    /**
+     * Time budget per frame for creation of objects (in milliseconds), 0 if the time-sliced creation is off.
+     */
+    private float frameBudgetMillis = 0;
+    private boolean isWaitingSynchronization = false;
+
+    /**
+     * Executor for parallel preparation of objects, null if the parallel preparation is off.
+     */
+    private Executor preparationExecutor;
+
+    /**
+     * Loadings started by {@link #createMapAsync}, which are not finished yet (used only on the thread calling {@link #update()}).
+     */
+    private final List<MapLoadHandle> loads = new ArrayList<>();
+
+    /**
+     * Loading started by {@link #createMap(String, Rectangle, String...)} in asynchronous mode.
+     */
+    private MapLoadHandle currentLoad;
 
     private final ObjectFactory objectsFactory;
     private final boolean isAsynchronousLoading;
@@ -93,6 +175,7 @@ public class MapFactory implements AsynchronousFactory, Disposable {
         if (isAsynchronousLoading) {
             manager = new AssetManager();
             manager.setLoader(TiledMap.class, new TmxMapLoader(new InternalFileHandleResolver()));
+            manager.setErrorListener(this::onLoadingError);
             loader = null;
             tiledMaps = null;
         } else {
@@ -113,8 +196,61 @@ public class MapFactory implements AsynchronousFactory, Disposable {
     }
 
 
+    /**
+     * Sets merging of static objects (adjacent static rectangles are merged into larger ones before creation).
+     * @param mergeStaticObjects if true - static rectangles will be merged
+     * @see ObjectFactory#setMergeStaticObjects(boolean)
+     */
+    public void setMergeStaticObjects(boolean mergeStaticObjects) {
+        objectsFactory.setMergeStaticObjects(mergeStaticObjects);
+    }
+
+    /**
+     * Turns on the time-sliced creation of objects (only in asynchronous mode).
+     * Objects are prepared ({@link map.creator.map.factory.object.ObjectBatch}) on the loading executor and queued,
+     * and bodies are created on the thread calling {@link #isDone()} - no longer than frameBudgetMillis per call.
+     * So loading of a large level doesn't drop frames.
+     *
+     * @param frameBudgetMillis time budget per frame in milliseconds, 0 turns the time-sliced creation off (all queued objects are created in one call).
+     * @throws IllegalArgumentException if frameBudgetMillis is negative
+     */
+    public void setFrameBudget(float frameBudgetMillis) {
+        if (frameBudgetMillis < 0) throw new IllegalArgumentException("frameBudgetMillis mustn't be negative!");
+        this.frameBudgetMillis = frameBudgetMillis;
+    }
+
+    public float getFrameBudget() {
+        return frameBudgetMillis;
+    }
+
+    /**
+     * Turns on the parallel preparation of objects on {@link ForkJoinPool#commonPool()}.
+     * Classification of shapes, resolving of forms and building of {@link map.creator.map.factory.body.BodyParam}'s
+     * are spread over layers and parts of layers on all cores, then objects are created in Box2D World on one thread.
+     * @param parallelPreparation if true - objects will be prepared in parallel
+     * @see ObjectFactory#prepareObjectsInParallel
+     */
+    public void setParallelPreparation(boolean parallelPreparation) {
+        setPreparationExecutor(parallelPreparation ? ForkJoinPool.commonPool() : null);
+    }
+
+    /**
+     * Sets the executor for the parallel preparation of objects.
+     * @param preparationExecutor executor, null turns the parallel preparation off.
+     * @see #setParallelPreparation(boolean)
+     */
+    public void setPreparationExecutor(Executor preparationExecutor) {
+        this.preparationExecutor = preparationExecutor;
+    }
+
+    public boolean isParallelPreparation() {
+        return preparationExecutor != null;
+    }
+
     /**
      * Checks for the completion of asynchronous boot operations.
+     * If the time-sliced creation is on ({@link #setFrameBudget(float)}) - also creates queued objects within the budget,
+     * so in this mode it must be called once per frame on the thread of Box2D World.
      *
      * @return true if all operations are completed successfully
      * @throws RuntimeException if a boot error occurred (isFail=true)
@@ -125,17 +261,49 @@ public class MapFactory implements AsynchronousFactory, Disposable {
         validateAsynchronous();
         if (isFail) throw new RuntimeException("\"isFail\" - true. Some going wrong...");
 
-        if (manager.update() && isDone) {
-            loadingThread = null;
-            manager.finishLoading();
-            return true;
+        if (currentLoad != null) {
+            update();
+            if (!currentLoad.isDone()) return false;
+
+            MapLoadHandle load = currentLoad;
+            currentLoad = null;
+            try {
+                load.getFuture().join();
+            } catch (CancellationException | CompletionException e) {
+                isFail = true;
+                throw new RuntimeException("Loading of map " + load.getPath() + " is failed.", e);
+            }
         }
 
-        return false;
+        if (preparation != null) {
+            if (!preparation.isDone()) return false;
+
+            CompletableFuture<List<ObjectBatch>> prepared = preparation;
+            preparation = null;
+            try {
+                prepared.join().forEach(objectsFactory::enqueue);
+            } catch (CancellationException | CompletionException e) {
+                isFail = true;
+                throw new RuntimeException("Preparation of collisions is failed.", e);
+            }
+        }
+
+        if (!manager.update()) return false;
+
+        if (isWaitingSynchronization) {
+            if (!objectsFactory.commitQueued(frameBudgetMillis)) return false;
+
+            isWaitingSynchronization = false;
+            synchronizeEngineOnCacheObjects();
+        }
+
+        manager.finishLoading();
+        return true;
     }
 
     /**
      * Returns the progress of loading resources.
+     * If the time-sliced creation is on - the first half is loading of resources, the second half is creation of objects.
      *
      * @return progress value from 0.0 to 1.0
      * @throws IllegalStateException if raised in synchronous mode (in validateAsynchronous() method).
@@ -143,7 +311,11 @@ public class MapFactory implements AsynchronousFactory, Disposable {
     @Override
     public float getProgress(){
         validateAsynchronous();
-        return manager.getProgress();
+        if (currentLoad != null) return currentLoad.getProgress();
+        if (!isWaitingSynchronization) return manager.getProgress();
+
+        float creationProgress = preparation == null ? objectsFactory.getCreationQueue().getProgress() : 0;
+        return (manager.getProgress() + creationProgress) / 2;
     }
 
     /**
@@ -208,6 +380,8 @@ public class MapFactory implements AsynchronousFactory, Disposable {
 
     /**
      * Creates collisions for features in specified layers in a specific zone.
+     * In asynchronous mode objects are prepared on the loading executor, and bodies are created
+     * on the thread calling {@link #isDone()} (within the frame budget, if it is set - {@link #setFrameBudget(float)}).
      *
      * @param map container map
      * @param zoneLoad rectangular area for loading objects
@@ -222,36 +396,77 @@ public class MapFactory implements AsynchronousFactory, Disposable {
         }
 
         if (!isAsynchronousLoading) {
-            syncCollisions(map, zoneLoad);
+            syncCollisions(map, zoneLoad, namesLayers);
             return;
         }
 
-        isDone = false;
-        loadingThread = new Thread(() -> {
-            try {
-                syncCollisions(map, zoneLoad, namesLayers);
-                isDone = true;
-                synchronizeEngineOnCacheObjects();
-            } catch (Exception e){
-                loadingThread.interrupt();
-                isFail = true;
-                Gdx.app.log("MapFactory", "Been exception in " + Thread.currentThread().getName(), e);
-            } finally {
-                isDone = true;
+        if (preparation != null) preparation.cancel(false);
+
+        isWaitingSynchronization = true;
+        preparation = CompletableFuture.supplyAsync(() -> prepareCollisions(map, zoneLoad, namesLayers), loadingExecutor);
+    }
+
+    /**
+     * Creates static collisions of tile layers from collision shapes of tiles (objects drawn in Tiled tileset editor).
+     * The world is not rebooted, so they are added to collisions created by {@link #createCollisions(MapContainer, Rectangle, String...)}.
+     * Collisions are created on the calling thread, or - if the time-sliced creation is on ({@link #setFrameBudget(float)}) -
+     * they are queued and created in {@link #isDone()}.
+     *
+     * @param map container map
+     * @param namesLayers the names of the tile layers to be processed
+     * @throws IllegalArgumentException if namesLayers is empty or null, or if some layer is not a tile layer
+     * @see ObjectFactory#createCollisionsFromTileLayer(MapContainer, String)
+     */
+    public void createCollisionsFromTileLayers(MapContainer map, String... namesLayers) {
+        if (namesLayers == null || namesLayers.length == 0) {
+            throw new IllegalArgumentException("\"namesLayers\" mustn't be empty! Please - write name layer, where contains some tiles!");
+        }
+
+        if (isAsynchronousLoading && frameBudgetMillis > 0) {
+            isWaitingSynchronization = true;
+            for (String nameLayer : namesLayers) {
+                objectsFactory.enqueue(objectsFactory.prepareCollisionsFromTileLayer(map, nameLayer));
             }
-        });
-        loadingThread.setDaemon(true);
-        loadingThread.start();
+            return;
+        }
+
+        for (String nameLayer : namesLayers) {
+            objectsFactory.createCollisionsFromTileLayer(map, nameLayer);
+        }
     }
 
     private synchronized void syncCollisions(MapContainer map, Rectangle zoneLoad, String... namesLayers) {
         rebootWorld();
 
+        if (preparationExecutor != null) {
+            for (ObjectBatch batch : objectsFactory.prepareObjectsInParallel(map, zoneLoad, preparationExecutor, namesLayers)) {
+                objectsFactory.commit(batch, null);
+            }
+            return;
+        }
+
         for (String nameLayer : namesLayers) {
             objectsFactory.createObjectsOnLayer(map, nameLayer, zoneLoad);
         }
     }
 
+    /**
+     * Prepares objects of layers for creation - in parallel, if the preparation executor is set (doesn't touch Box2D World).
+     * @return prepared objects - one batch per layer, in order of namesLayers
+     */
+    private List<ObjectBatch> prepareCollisions(MapContainer map, Rectangle zoneLoad, String... namesLayers) {
+        if (preparationExecutor != null) {
+            return objectsFactory.prepareObjectsInParallel(map, zoneLoad, preparationExecutor, namesLayers);
+        }
+
+        List<ObjectBatch> batches = new ArrayList<>(namesLayers.length);
+        for (String nameLayer : namesLayers) {
+            batches.add(objectsFactory.prepareObjectsOnLayer(map, nameLayer, zoneLoad));
+        }
+
+        return batches;
+    }
+
     /**
      * Loads the map into memory.
      * In asynchronous mode, it starts background loading.
@@ -287,35 +502,9 @@ public class MapFactory implements AsynchronousFactory, Disposable {
      */
     public void createMap(String path, Rectangle zoneLoad, String... namesLayers){
         if (isAsynchronousLoading) {
-            isDone = false;
-            manager.load(path, TiledMap.class);
-
-            loadingThread = new Thread(() -> {
-                try {
-                    while (!manager.isLoaded(path)) {
-                        Thread.yield();
-                    }
-
-                    syncCollisions(
-                            new MapContainer(manager.get(path, TiledMap.class)),
-                            zoneLoad,
-                            namesLayers
-                    );
-
-                    isDone = true;
-                } catch (Exception e){
-                    loadingThread.interrupt();
-                    isFail = true;
-                    Gdx.app.log("MapFactory", "Been exception in " + Thread.currentThread().getName(), e);
-                } finally {
-                    isDone = true;
-                }
-
-                isDone = true;
-                synchronizeEngineOnCacheObjects();
-            });
-            loadingThread.setDaemon(true);
-            loadingThread.start();
+            isWaitingSynchronization = false;
+            rebootWorld();
+            currentLoad = createMapAsync(path, zoneLoad, namesLayers);
         } else {
             TiledMap map = loader.load(path);
             tiledMaps.put(path, map);
@@ -323,6 +512,240 @@ public class MapFactory implements AsynchronousFactory, Disposable {
         }
     }
 
+    /**
+     * Loads the compiled map (see {@link map.creator.map.factory.object.MapCompiler}) and creates collisions of its layers.
+     * XML is not parsed - records of objects are read from the memory-mapped file.
+     *
+     * @param file the compiled map
+     * @param zoneLoad zone load in pixels (if null, then all objects of layers will be created)
+     * @param namesLayers the names of the compiled layers to be processed
+     * @return loaded compiled map
+     * @throws IllegalArgumentException if namesLayers is empty or null, or if file is not compiled map
+     * @see #createCollisions(CompiledMap, Rectangle, String...)
+     */
+    public CompiledMap createCompiledMap(FileHandle file, Rectangle zoneLoad, String... namesLayers){
+        CompiledMap map = CompiledMap.load(file);
+        createCollisions(map, zoneLoad, namesLayers);
+
+        return map;
+    }
+
+    /**
+     * Creates collisions for objects of the compiled map in specified layers in a specific zone.
+     * Objects are created on the calling thread, or - if the time-sliced creation is on ({@link #setFrameBudget(float)}) -
+     * they are queued and created in {@link #isDone()}.
+     *
+     * @param map compiled map
+     * @param zoneLoad zone load in pixels (if null, then all objects of layers will be created)
+     * @param namesLayers the names of the compiled layers to be processed
+     * @throws IllegalArgumentException if namesLayers is empty or null
+     */
+    public void createCollisions(CompiledMap map, Rectangle zoneLoad, String... namesLayers) {
+        if (namesLayers == null || namesLayers.length == 0) {
+            throw new IllegalArgumentException("\"namesLayers\" mustn't be empty! Please - write name layer, where contains some objects!");
+        }
+
+        rebootWorld();
+
+        if (isAsynchronousLoading && frameBudgetMillis > 0) {
+            isWaitingSynchronization = true;
+            for (String nameLayer : namesLayers) {
+                objectsFactory.enqueue(objectsFactory.prepareCompiledObjects(map, nameLayer, zoneLoad));
+            }
+            return;
+        }
+
+        for (String nameLayer : namesLayers) {
+            objectsFactory.createCompiledObjects(map, nameLayer, zoneLoad);
+        }
+    }
+
+    /**
+     * Starts asynchronous loading of the map and creation of collisions of its layers (only in asynchronous mode).
+     * The world is not rebooted, so several maps may be loaded at once - each one with its own {@link MapLoadHandle}.
+     *
+     * <p>The .tmx file is loaded by AssetManager, objects are prepared on the shared loading executor,
+     * then bodies are created and entities are added in Engine on the thread calling {@link #update()} (within the frame budget, if it is set).
+     * No thread waits for loading - nothing happens between calls of {@link #update()}.</p>
+     *
+     * <p><b>Example of use:</b></p>
+     * <pre>
+     * {@code
+     * MapLoadHandle handle = factory.createMapAsync("maps/level2.tmx", null, "collisions");
+     * handle.getFuture().thenAccept(map -> ...);
+     *
+     * // once per frame
+     * factory.update();
+     * float progress = handle.getProgress();
+     * }
+     * </pre>
+     *
+     * @param path path to the .tmx file
+     * @param zoneLoad zone load - if some body will be containing in it then this body will be created (if null - all objects of layers will be created)
+     * @param namesLayers the names of the layers to be processed
+     * @return handle of the loading
+     * @throws IllegalArgumentException if raised in synchronous mode, or if namesLayers is empty or null
+     * @throws NullPointerException if path is null
+     */
+    public MapLoadHandle createMapAsync(String path, Rectangle zoneLoad, String... namesLayers){
+        validateAsynchronous();
+        if (path == null) throw new NullPointerException("Path - is null!");
+        if (namesLayers == null || namesLayers.length == 0) {
+            throw new IllegalArgumentException("\"namesLayers\" mustn't be empty! Please - write name layer, where contains some objects!");
+        }
+
+        MapLoadHandle handle = new MapLoadHandle(path);
+        loads.add(handle);
+
+        TmxMapLoader.Parameters parameters = new TmxMapLoader.Parameters();
+        parameters.loadedCallback = (assetManager, fileName, type) -> onMapLoaded(handle, zoneLoad, namesLayers);
+        manager.load(path, TiledMap.class, parameters);
+
+        return handle;
+    }
+
+    /**
+     * Updates asynchronous loadings: loads resources in AssetManager, creates queued objects
+     * (within the frame budget, if it is set - {@link #setFrameBudget(float)}) and finishes loadings of {@link #createMapAsync}.
+     * Must be called once per frame on the thread of Box2D World.
+     *
+     * @return true if all loadings are finished
+     * @throws IllegalStateException if raised in synchronous mode (in validateAsynchronous() method).
+     */
+    public boolean update(){
+        validateAsynchronous();
+
+        boolean isManagerDone = manager.update();
+        boolean isQueueEmpty = objectsFactory.getCreationQueue().isEmpty() || objectsFactory.commitQueued(frameBudgetMillis);
+
+        Iterator<MapLoadHandle> iterator = loads.iterator();
+        while (iterator.hasNext()) {
+            if (finishLoad(iterator.next())) iterator.remove();
+        }
+
+        return isManagerDone && isQueueEmpty && loads.isEmpty();
+    }
+
+    /**
+     * Called by AssetManager (in {@link #update()}) when the .tmx file of the loading is loaded - starts preparation of objects.
+     */
+    private void onMapLoaded(MapLoadHandle handle, Rectangle zoneLoad, String... namesLayers) {
+        handle.isAssetLoaded = true;
+        if (handle.isDone()) {
+            handle.isPrepared = true;
+            return;
+        }
+
+        try {
+            handle.map = new MapContainer(manager.get(handle.getPath(), TiledMap.class));
+        } catch (RuntimeException e) {
+            failLoad(handle, e);
+            return;
+        }
+
+        loadingExecutor.execute(() -> prepareLoad(handle, zoneLoad, namesLayers));
+    }
+
+    /**
+     * Prepares objects of the loading and queues them for creation (on the loading executor).
+     */
+    private void prepareLoad(MapLoadHandle handle, Rectangle zoneLoad, String... namesLayers) {
+        try {
+            List<ObjectBatch> batches = prepareCollisions(handle.map, zoneLoad, namesLayers);
+
+            handle.batches = batches;
+            if (!handle.isDone()) batches.forEach(objectsFactory::enqueue);
+        } catch (Exception e) {
+            failLoad(handle, e);
+        } finally {
+            handle.isPrepared = true;
+        }
+    }
+
+    /**
+     * Completes the loading, if all its objects are created, or cleans up the cancelled or failed loading.
+     * @return true if the loading is finished and may be forgotten.
+     */
+    private boolean finishLoad(MapLoadHandle handle) {
+        CompletableFuture<MapContainer> future = handle.getFuture();
+
+        if (!future.isDone() && handle.isPrepared && isCommitted(handle.batches)) {
+            for (ObjectBatch batch : handle.batches) {
+                batch.createdEntities.forEach(engine::addEntity);
+            }
+
+            if (future.complete(handle.map)) return true;
+        }
+
+        if (!future.isDone() || !handle.isPrepared) return false;
+
+        if (handle.batches != null) {
+            for (ObjectBatch batch : handle.batches) {
+                batch.cancel();
+                batch.createdEntities.forEach(objectsFactory::destroyObject);
+            }
+        }
+        if (handle.isAssetLoaded) manager.unload(handle.getPath());
+
+        return true;
+    }
+
+    private boolean isCommitted(List<ObjectBatch> batches) {
+        if (batches == null) return false;
+
+        for (ObjectBatch batch : batches) {
+            if (!batch.isCommitted()) return false;
+        }
+
+        return true;
+    }
+
+    private void failLoad(MapLoadHandle handle, Throwable throwable) {
+        Gdx.app.error("MapFactory", "Been exception in loading of map " + handle.getPath(), throwable);
+        handle.isPrepared = true;
+        handle.getFuture().completeExceptionally(throwable);
+    }
+
+    /**
+     * Called by AssetManager (in {@link #update()}) if some asset couldn't be loaded.
+     * Loadings of maps, which are not in AssetManager anymore, are failed. If the asset doesn't belong to any loading - {@link #isDone()} will throw exception.
+     */
+    private void onLoadingError(AssetDescriptor<?> asset, Throwable throwable) {
+        boolean isFound = false;
+
+        for (MapLoadHandle handle : loads) {
+            if (handle.isAssetLoaded) continue;
+
+            if (asset.fileName.equals(handle.getPath()) || !manager.contains(handle.getPath())) {
+                isFound = true;
+                failLoad(handle, new GdxRuntimeException("Couldn't load map - " + handle.getPath(), throwable));
+            }
+        }
+
+        if (!isFound) {
+            isFail = true;
+            Gdx.app.error("MapFactory", "Couldn't load asset - " + asset.fileName, throwable);
+        }
+    }
+
+    /**
+     * Creates the streaming loader of the map - objects of the map will be created and destroyed by chunks,
+     * depending on the position of the focus (see {@link MapChunkLoader#update(float, float)}).
+     * The world is rebooted once - here, further chunks are created and destroyed without rebooting.
+     *
+     * @param map container map
+     * @param chunkSize size of one chunk in meters
+     * @param loadRadius chunks closer to the focus than this radius (in meters) will be loaded
+     * @param namesLayers the names of the layers to be processed
+     * @return streaming loader of the map
+     * @throws IllegalArgumentException if namesLayers is empty or null, or if chunkSize or loadRadius are not positive
+     * @see MapChunkLoader
+     */
+    public MapChunkLoader createStreaming(MapContainer map, float chunkSize, float loadRadius, String... namesLayers){
+        rebootWorld();
+        return new MapChunkLoader(map, objectsFactory, engine, chunkSize, loadRadius, namesLayers);
+    }
+
     /**
      * Checks if the specified card is loaded.
      *
@@ -364,17 +787,27 @@ public class MapFactory implements AsynchronousFactory, Disposable {
     }
 
     /**
-     * Frees up resources and stops background threads.
+     * Frees up resources and stops background tasks: preparations, which weren't started, are skipped,
+     * and running ones are waited for - so maps aren't disposed while objects of them are prepared.
      * <p><b>REQUIRED TO BE CALLED WHEN THE APPLICATION IS TERMINATED!</b></p>
      */
     @Override
     public void dispose(){
         if (isAsynchronousLoading) {
-            if (loadingThread != null) {
-                loadingThread.interrupt();
-                loadingThread = null;
+            if (preparation != null) {
+                preparation.cancel(false);
+                preparation = null;
             }
 
+            for (MapLoadHandle load : loads) {
+                load.cancel();
+            }
+            loads.clear();
+            currentLoad = null;
+
+            isDisposed = true;
+            loadingTasks.arriveAndAwaitAdvance();
+
             manager.dispose();
         } else {
             tiledMaps.clear();
@@ -0,0 +1,97 @@
+package map.creator.map.factory;
+
+import map.creator.map.controller.MapContainer;
+import map.creator.map.factory.object.ObjectBatch;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handle of one asynchronous loading of the map, started by {@link MapFactory#createMapAsync(String, com.badlogic.gdx.math.Rectangle, String...)}.
+ * Several maps may be loaded at once - every handle has its own progress and its own future.
+ *
+ * <p><b>Stages of loading:</b></p>
+ * <ol>
+ * <li>The .tmx file is loaded by {@link com.badlogic.gdx.assets.AssetManager} (on {@link MapFactory#update()})</li>
+ * <li>Objects are prepared on the shared loading executor</li>
+ * <li>Bodies are created on the thread calling {@link MapFactory#update()}, entities are added in {@link com.badlogic.ashley.core.Engine}</li>
+ * </ol>
+ *
+ * @see MapFactory#createMapAsync(String, com.badlogic.gdx.math.Rectangle, String...)
+ */
+public class MapLoadHandle {
+
+    private final String path;
+
+    private final CompletableFuture<MapContainer> future = new CompletableFuture<>();
+
+    /**
+     * Loaded map, null until the .tmx file is loaded.
+     */
+    volatile MapContainer map;
+
+    /**
+     * Prepared objects, null until preparation is finished.
+     */
+    volatile List<ObjectBatch> batches;
+
+    /**
+     * true if the map is loaded in AssetManager by this handle (it must be unloaded if loading is cancelled or failed).
+     */
+    volatile boolean isAssetLoaded;
+
+    /**
+     * true if preparation is finished or will not happen - no more work is done on the loading executor.
+     */
+    volatile boolean isPrepared;
+
+    MapLoadHandle(String path) {
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return future of the loaded map: it is completed when all objects are created and added in Engine,
+     * completed exceptionally if loading fails, and may be cancelled.
+     */
+    public CompletableFuture<MapContainer> getFuture() {
+        return future;
+    }
+
+    /**
+     * Cancels loading. Created objects of the map will be destroyed on the next {@link MapFactory#update()}.
+     * @return true if loading was cancelled, false if it is already finished.
+     */
+    public boolean cancel() {
+        return future.cancel(false);
+    }
+
+    /**
+     * @return true if loading is finished (successfully, with exception or by cancellation).
+     */
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * Gives the progress of loading: the first half is loading of the .tmx file, the second half is creation of objects.
+     * @return progress value from 0.0 to 1.0
+     */
+    public float getProgress() {
+        if (future.isDone()) return 1f;
+
+        List<ObjectBatch> prepared = batches;
+        if (prepared == null) return map == null ? 0f : 0.5f;
+
+        int units = 0, committedUnits = 0;
+        for (ObjectBatch batch : prepared) {
+            units += batch.size();
+            committedUnits += Math.min(batch.size(), batch.getCountCommittedUnits());
+        }
+
+        return units == 0 ? 1f : 0.5f + 0.5f * committedUnits / units;
+    }
+}
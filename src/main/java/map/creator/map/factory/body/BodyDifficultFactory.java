@@ -1,8 +1,6 @@
 package map.creator.map.factory.body;
 
-import com.badlogic.gdx.math.EarClippingTriangulator;
 import com.badlogic.gdx.math.Ellipse;
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Polygon;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
@@ -14,9 +12,9 @@ import com.badlogic.gdx.physics.box2d.FixtureDef;
 import com.badlogic.gdx.physics.box2d.PolygonShape;
 import com.badlogic.gdx.physics.box2d.Shape;
 import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.FloatArray;
 import com.badlogic.gdx.utils.ShortArray;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -29,16 +27,32 @@ import java.util.List;
  * <li> support of ellipses through approximation by polygons </li>
  * <li> correct converting coordinates and scaling </li>
  * <li> Integration with the debugging system </li>
+ * <li> Caching of decomposed polygons and ellipses with the same geometry (see {@link ShapeCache}) </li>
  * </ul>
  *
+ * <p>Vertices are converted in reused buffers, so the factory must be used from one thread - the thread of the world.
+ * Geometry of shapes may be computed before on other threads by {@link ShapeDecomposer}.</p>
+ *
  * @see BodyFactory
  * @see BodyFactoryDebugger
+ * @see ShapeDecomposer
  * @see com.badlogic.gdx.math.EarClippingTriangulator
  */
 public class BodyDifficultFactory {
 
     private final World world;
     private final BodyFactoryDebugger debugger;
+    private final ShapeDecomposer decomposer = new ShapeDecomposer(new ShapeCache());
+
+    /**
+     * Vertices of the current edge or chain in local coordinates of the body.
+     */
+    private final FloatArray vertexBuffer = new FloatArray();
+
+    /**
+     * Vertices of the current convex piece, moved to the body.
+     */
+    private final float[] pieceBuffer = new float[ConvexDecomposer.MAX_VERTICES * 2];
 
     protected BodyDifficultFactory(World world, BodyFactoryDebugger debugger) {
         this.world = world;
@@ -82,13 +96,29 @@ public class BodyDifficultFactory {
      * @return created body
      */
     public Body createEllipse(BodyDef def, FixtureDef fixtureDef, Ellipse bounds, float unitScale, Object userData) {
+        return createEllipse(def, fixtureDef, bounds, unitScale, userData, false);
+    }
+
+    /**
+     * Creates an ellipse-shaped body.
+     * The ellipse is approximated by a polygon with an automatically calculated number of segments.
+     *
+     * @param def body settings
+     * @param fixtureDef fixture settings
+     * @param bounds ellipse that defines the shape
+     * @param unitScale conversion scale pixels-to-meters
+     * @param userData user data for fixture
+     * @param isConvexDecomposition if true, the polygon is divided on convex pieces instead of triangles (see {@link ConvexDecomposer})
+     * @return created body
+     */
+    public Body createEllipse(BodyDef def, FixtureDef fixtureDef, Ellipse bounds, float unitScale, Object userData, boolean isConvexDecomposition) {
         def.position.set(
             (bounds.x + bounds.width / 2) * unitScale,
             (bounds.y + bounds.height / 2) * unitScale
         );
         Body body = world.createBody(def);
 
-        for (PolygonShape shape : createEllipseShapes(bounds, body.getPosition(), unitScale)) {
+        for (PolygonShape shape : createEllipseShapes(bounds, body.getPosition(), unitScale, isConvexDecomposition)) {
             fixtureDef.shape = shape;
 
             Fixture fixture = createFixture(body, fixtureDef, userData);
@@ -118,10 +148,28 @@ public class BodyDifficultFactory {
      * @throws IllegalArgumentException if the polygon has the wrong number of vertices
      */
     public Body createPolygon(BodyDef def, FixtureDef fixtureDef, Polygon bounds, float unitScale, Object userData) {
+        return createPolygon(def, fixtureDef, bounds, unitScale, userData, false);
+    }
+
+    /**
+     * Creates a solid with a complex polygonal shape.
+     * Polygons with more than 4 vertices are automatically triangulated or divided on convex pieces.
+     *
+     * @param def body settings
+     * @param fixtureDef fixture settings
+     * @param bounds polygon that defines the shape
+     * @param unitScale conversion scale pixels-to-meters
+     * @param userData user data for fixture
+     * @param isConvexDecomposition if true, the polygon is divided on convex pieces instead of triangles (see {@link ConvexDecomposer})
+     * @return created body
+     *
+     * @throws IllegalArgumentException if the polygon has the wrong number of vertices
+     */
+    public Body createPolygon(BodyDef def, FixtureDef fixtureDef, Polygon bounds, float unitScale, Object userData, boolean isConvexDecomposition) {
         def.position.set(bounds.getX(), bounds.getY());
         Body body = world.createBody(def);
 
-        for (PolygonShape shape : createPolygonShapes(bounds, body.getPosition(), unitScale)) {
+        for (PolygonShape shape : createPolygonShapes(bounds, body.getPosition(), unitScale, isConvexDecomposition)) {
             fixtureDef.shape = shape;
 
             Fixture fixture = createFixture(body, fixtureDef, userData);
@@ -179,14 +227,14 @@ public class BodyDifficultFactory {
      * @throws IllegalArgumentException if the polygon contains fewer than 4 vertices
      */
     public EdgeShape createEdgeShape(Polygon polygon, Vector2 center, float unitScale) {
-        float[] vertices = getTransformedVerticesOnUnitScale(polygon.getTransformedVertices(), center, unitScale);
+        FloatArray vertices = getTransformedVerticesOnUnitScale(polygon.getTransformedVertices(), center, unitScale);
 
-        if (vertices.length != 4) throw new IllegalArgumentException("Edge shape must have 4 vertices!");
+        if (vertices.size != 4) throw new IllegalArgumentException("Edge shape must have 4 vertices!");
 
         EdgeShape edgeShape = new EdgeShape();
-        edgeShape.set(vertices[0], vertices[1], vertices[2], vertices[4]);
+        edgeShape.set(vertices.get(0), vertices.get(1), vertices.get(2), vertices.get(3));
 
-        debugger.debugPrintAboutDifficultShape(vertices, FormBody.EDGE);
+        debugger.debugPrintAboutDifficultShape(vertices.items, vertices.size, FormBody.EDGE);
 
         return edgeShape;
     }
@@ -200,22 +248,48 @@ public class BodyDifficultFactory {
      * @return an array of PolygonShapes representing an ellipse
      */
     public PolygonShape[] createEllipseShapes(Ellipse ellipse, Vector2 center, float unitScale) {
-        int segments = calculateSegments(ellipse.width, ellipse.height);
-        float angleStep = 2 * MathUtils.PI / segments;
+        return createEllipseShapes(ellipse, center, unitScale, false);
+    }
 
-        float[] vertices = new float[segments * 2];
-        for (int i = 0; i < segments; i++) {
-            float angle = i * angleStep;
-            float x = ((ellipse.width / 2 * MathUtils.cos(angle)) * unitScale) + (((ellipse.x + ellipse.width / 2) * unitScale) - center.x);
-            float y = ((ellipse.height / 2 * MathUtils.sin(angle)) * unitScale) + (((ellipse.y + ellipse.height / 2) * unitScale) - center.y);
+    /**
+     * Creates an array of polygonal shapes that approximate an ellipse.
+     *
+     * @param ellipse ellipse for approximation
+     * @param center of the body for coordinate conversion
+     * @param unitScale conversion scale
+     * @param isConvexDecomposition if true, the polygon is divided on convex pieces instead of triangles (see {@link ConvexDecomposer})
+     * @return an array of PolygonShapes representing an ellipse
+     */
+    public PolygonShape[] createEllipseShapes(Ellipse ellipse, Vector2 center, float unitScale, boolean isConvexDecomposition) {
+        return createEllipseShapes(ellipse, center, unitScale, isConvexDecomposition, null);
+    }
 
-            vertices[i * 2] = x;
-            vertices[i * 2 + 1] = y;
+    /**
+     * Creates an array of polygonal shapes that approximate an ellipse.
+     * If the geometry is computed before on the same unit scale (for example, on a thread of map loading),
+     * only shapes are created from its pieces.
+     *
+     * @param ellipse ellipse for approximation
+     * @param center of the body for coordinate conversion
+     * @param unitScale conversion scale
+     * @param isConvexDecomposition if true, the polygon is divided on convex pieces instead of triangles (see {@link ConvexDecomposer})
+     * @param geometry geometry of the ellipse, computed by {@link ShapeDecomposer}, or null
+     * @return an array of PolygonShapes representing an ellipse
+     */
+    public PolygonShape[] createEllipseShapes(Ellipse ellipse, Vector2 center, float unitScale, boolean isConvexDecomposition, ShapeCache.Geometry geometry) {
+        float offsetX = ((ellipse.x + ellipse.width / 2) * unitScale) - center.x;
+        float offsetY = ((ellipse.y + ellipse.height / 2) * unitScale) - center.y;
+
+        if (geometry == null || geometry.unitScale != unitScale) geometry = decomposer.findGeometry(ellipse, unitScale, isConvexDecomposition);
+        if (geometry != null) {
+            debugger.debugPrintAboutDifficultShape(geometry.vertices, FormBody.POLYGON);
+            return createPolygonShapes(geometry, offsetX, offsetY);
         }
 
-        debugger.debugPrintAboutDifficultShape(vertices, FormBody.POLYGON);
+        FloatArray vertices = decomposer.writeVertices(ellipse, unitScale);
+        debugger.debugPrintAboutDifficultShape(vertices.items, vertices.size, FormBody.POLYGON);
 
-        return computeTriangles(vertices);
+        return createPolygonShapes(vertices.items, vertices.size, isConvexDecomposition, offsetX, offsetY);
     }
 
     /**
@@ -228,11 +302,65 @@ public class BodyDifficultFactory {
      * @return PolygonShape array
      */
     public PolygonShape[] createPolygonShapes(Polygon polygon, Vector2 center, float unitScale) {
-        float[] transformVertices = getTransformedVerticesOnUnitScale(polygon.getTransformedVertices(), center, unitScale);
-        PolygonShape[] polygonShapes = computeTriangles(transformVertices);
+        return createPolygonShapes(polygon, center, unitScale, false);
+    }
+
+    /**
+     * Creates an array of polygon shapes from a polygon.
+     * Triangulates or divides on convex pieces if necessary.
+     *
+     * @param polygon source polygon
+     * @param center of the body for coordinate conversion
+     * @param unitScale conversion scale
+     * @param isConvexDecomposition if true, the polygon is divided on convex pieces instead of triangles (see {@link ConvexDecomposer})
+     * @return PolygonShape array
+     */
+    public PolygonShape[] createPolygonShapes(Polygon polygon, Vector2 center, float unitScale, boolean isConvexDecomposition) {
+        return createPolygonShapes(polygon, center, unitScale, isConvexDecomposition, null);
+    }
 
-        debugger.debugPrintAboutDifficultShape(transformVertices, FormBody.POLYGON);
-        return polygonShapes;
+    /**
+     * Creates an array of polygon shapes from a polygon.
+     * If the geometry is computed before on the same unit scale (for example, on a thread of map loading),
+     * only shapes are created from its pieces.
+     *
+     * @param polygon source polygon
+     * @param center of the body for coordinate conversion
+     * @param unitScale conversion scale
+     * @param isConvexDecomposition if true, the polygon is divided on convex pieces instead of triangles (see {@link ConvexDecomposer})
+     * @param geometry geometry of the polygon, computed by {@link ShapeDecomposer}, or null
+     * @return PolygonShape array
+     */
+    public PolygonShape[] createPolygonShapes(Polygon polygon, Vector2 center, float unitScale, boolean isConvexDecomposition, ShapeCache.Geometry geometry) {
+        float offsetX = (polygon.getX() * unitScale) - center.x;
+        float offsetY = (polygon.getY() * unitScale) - center.y;
+
+        if (geometry == null || geometry.unitScale != unitScale) geometry = decomposer.findGeometry(polygon, unitScale, isConvexDecomposition);
+        if (geometry != null) {
+            debugger.debugPrintAboutDifficultShape(geometry.vertices, FormBody.POLYGON);
+            return createPolygonShapes(geometry, offsetX, offsetY);
+        }
+
+        FloatArray vertices = decomposer.writeVertices(polygon, unitScale);
+        debugger.debugPrintAboutDifficultShape(vertices.items, vertices.size, FormBody.POLYGON);
+
+        return createPolygonShapes(vertices.items, vertices.size, isConvexDecomposition, offsetX, offsetY);
+    }
+
+    /**
+     * Gets the cache of decomposed polygons and ellipses.
+     * @return cache, or null if caching is disabled.
+     */
+    public ShapeCache getShapeCache() {
+        return decomposer.getShapeCache();
+    }
+
+    /**
+     * Sets the cache of decomposed polygons and ellipses (the cache may be shared by several factories and threads).
+     * @param shapeCache new cache, or null to disable caching
+     */
+    public void setShapeCache(ShapeCache shapeCache) {
+        decomposer.setShapeCache(shapeCache);
     }
 
     /**
@@ -245,92 +373,122 @@ public class BodyDifficultFactory {
      * @return created chain shape
      */
     public ChainShape createChainShape(Polygon polygon, Vector2 center, float unitScale, boolean isLooping) {
-        float[] transformVertices = getTransformedVerticesOnUnitScale(polygon.getTransformedVertices(), center, unitScale);
+        FloatArray transformVertices = getTransformedVerticesOnUnitScale(polygon.getTransformedVertices(), center, unitScale);
 
         ChainShape shape = new ChainShape();
-        if (isLooping) shape.createLoop(transformVertices);
-        else shape.createChain(transformVertices);
+        if (isLooping) shape.createLoop(transformVertices.items, 0, transformVertices.size);
+        else shape.createChain(transformVertices.items, 0, transformVertices.size);
 
-        debugger.debugPrintAboutDifficultShape(transformVertices, FormBody.CHAIN);
+        debugger.debugPrintAboutDifficultShape(transformVertices.items, transformVertices.size, FormBody.CHAIN);
 
         return shape;
     }
 
-    /**
-     * Calculates the optimal number of segments to approximate the ellipse.
-     *
-     * @param width ellipse width
-     * @param height ellipse height
-     * @return number of segments (8-24)
-     */
-    private int calculateSegments(float width, float height) {
-        float avgSize = (width + height) / 2;
-        float stretch = Math.max(width, height) / Math.min(width, height);
-        int segments = (int) (8 + (avgSize * 0.1f) + (stretch * 2));
-
-        return MathUtils.clamp(segments, 8, 24);
-    }
-
     /**
      * Converts vertices to the local coordinates of the solid, taking into account the scale.
+     * The result is written in {@link #vertexBuffer}, so it's valid only until the next shape is created.
      *
      * @param vertices source vertices in pixels
      * @param center of the body
      * @param unitScale conversion scale
      * @return converted vertices in meters
      */
-    private float[] getTransformedVerticesOnUnitScale(float[] vertices, Vector2 center, float unitScale) {
-        float[] transformVertices = new float[vertices.length];
+    private FloatArray getTransformedVerticesOnUnitScale(float[] vertices, Vector2 center, float unitScale) {
+        vertexBuffer.clear();
+        float[] transformVertices = vertexBuffer.setSize(vertices.length);
 
-        for (int i = 0; i < transformVertices.length; i += 2) {
+        for (int i = 0; i < vertices.length; i += 2) {
             transformVertices[i] = ((vertices[i] * unitScale) - center.x);
             transformVertices[i + 1] = ((vertices[i + 1] * unitScale) - center.y);
         }
 
-        return transformVertices;
+        return vertexBuffer;
     }
 
     /**
-     * Triangulates the polygon into triangles.
-     * Uses the Ear Clipping algorithm for polygons with more than 8 vertices.
+     * Creates polygon shapes from local vertices, moved on offset.
+     * Polygons with more than 4 vertices are triangulated or divided on convex pieces.
+     * Triangles are moved to the body through {@link #pieceBuffer}, so only shapes are allocated.
      *
-     * @param vertices of polygon vertices
-     * @return an array of PolygonShapes representing triangles
+     * @param vertices buffer with local vertices
+     * @param count count of used numbers in the buffer
+     * @param isConvexDecomposition if true, the polygon is divided on convex pieces instead of triangles
+     * @param offsetX offset of shape from the center of the body on x
+     * @param offsetY offset of shape from the center of the body on y
+     * @return PolygonShape array
      */
-    private PolygonShape[] computeTriangles(float[] vertices) {
-        PolygonShape[] shapes;
-
-        if (vertices.length > 8) {
-            EarClippingTriangulator triangulator = new EarClippingTriangulator();
-            ShortArray triangles = triangulator.computeTriangles(vertices);
-
-            List<PolygonShape> shapesList = new ArrayList<>();
-
-            for (int i = 0; i < triangles.size; i += 3) {
-                float[] triangle = new float[6];
-                for (int j = 0; j < 3; j++) {
-                    int vertexIndex = triangles.get(i + j) * 2;
-                    triangle[j * 2] = vertices[vertexIndex];
-                    triangle[j * 2 + 1] = vertices[vertexIndex + 1];
-                }
-
-                PolygonShape shape = new PolygonShape();
-                shape.set(triangle);
-                shapesList.add(shape);
+    private PolygonShape[] createPolygonShapes(float[] vertices, int count, boolean isConvexDecomposition, float offsetX, float offsetY) {
+        if (count <= 8) return new PolygonShape[]{createPolygonShape(vertices, count, offsetX, offsetY)};
+
+        ShortArray triangles = decomposer.triangulate(vertices, count);
+
+        if (isConvexDecomposition) {
+            List<float[]> pieces = decomposer.decompose(vertices, triangles);
+
+            PolygonShape[] shapes = new PolygonShape[pieces.size()];
+            for (int i = 0; i < shapes.length; i++) {
+                float[] piece = pieces.get(i);
+                shapes[i] = createPolygonShape(piece, piece.length, offsetX, offsetY);
+            }
+
+            return shapes;
+        }
+
+        PolygonShape[] shapes = new PolygonShape[triangles.size / 3];
+        for (int i = 0; i < triangles.size; i += 3) {
+            for (int j = 0; j < 3; j++) {
+                int vertexIndex = triangles.get(i + j) * 2;
+                pieceBuffer[j * 2] = vertices[vertexIndex] + offsetX;
+                pieceBuffer[j * 2 + 1] = vertices[vertexIndex + 1] + offsetY;
             }
 
-            shapes = shapesList.toArray(new PolygonShape[0]);
-        } else {
-            PolygonShape shape = new PolygonShape();
-            shape.set(vertices);
+            shapes[i / 3] = new PolygonShape();
+            shapes[i / 3].set(pieceBuffer, 0, 6);
+        }
+
+        return shapes;
+    }
+
+    /**
+     * Creates polygon shapes from pieces of cached geometry, moved on offset.
+     *
+     * @param geometry local geometry of shape
+     * @param offsetX offset of shape from the center of the body on x
+     * @param offsetY offset of shape from the center of the body on y
+     * @return PolygonShape array
+     */
+    private PolygonShape[] createPolygonShapes(ShapeCache.Geometry geometry, float offsetX, float offsetY) {
+        PolygonShape[] shapes = new PolygonShape[geometry.pieces.length];
 
-            shapes = new PolygonShape[1];
-            shapes[0] = shape;
+        for (int i = 0; i < shapes.length; i++) {
+            float[] piece = geometry.pieces[i];
+            shapes[i] = createPolygonShape(piece, piece.length, offsetX, offsetY);
         }
 
         return shapes;
     }
 
+    /**
+     * Creates one polygon shape (up to 8 vertices), moved on offset through {@link #pieceBuffer}.
+     *
+     * @param vertices local vertices
+     * @param count count of used numbers
+     * @param offsetX offset of shape from the center of the body on x
+     * @param offsetY offset of shape from the center of the body on y
+     * @return created polygon shape
+     */
+    private PolygonShape createPolygonShape(float[] vertices, int count, float offsetX, float offsetY) {
+        for (int i = 0; i < count; i += 2) {
+            pieceBuffer[i] = vertices[i] + offsetX;
+            pieceBuffer[i + 1] = vertices[i + 1] + offsetY;
+        }
+
+        PolygonShape shape = new PolygonShape();
+        shape.set(pieceBuffer, 0, count);
+
+        return shape;
+    }
+
     /**
      * Creates a fixture for the body with custom data.
      *
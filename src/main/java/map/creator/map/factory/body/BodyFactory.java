@@ -121,6 +121,23 @@ public class BodyFactory {
         debugger.setDebug(debug);
     }
 
+    /**
+     * Gets the cache of decomposed polygons and ellipses. The same cache is used by {@link map.creator.map.factory.object.ObjectFactory}
+     * on threads of map loading, so its counters show lookups of both.
+     * @return cache, or null if caching is disabled.
+     */
+    public ShapeCache getShapeCache() {
+        return difficultFactory.getShapeCache();
+    }
+
+    /**
+     * Sets the cache of decomposed polygons and ellipses.
+     * @param shapeCache new cache, or null to disable caching
+     */
+    public void setShapeCache(ShapeCache shapeCache) {
+        difficultFactory.setShapeCache(shapeCache);
+    }
+
     /**
      * Gets the scale of the conversion.
      */
@@ -149,6 +166,15 @@ public class BodyFactory {
         Arrays.stream(bodies.items).forEach(world::destroyBody);
     }
 
+    /**
+     * Destroys the body with all its fixtures.
+     *
+     * @param body the body to be destroyed
+     */
+    public void destroyBody(Body body){
+        world.destroyBody(body);
+    }
+
     /**
      * Creates a composite body consisting of several others specified in {@link BodyParam}.
      * All fixtures are created on a single body with automatic centering.
@@ -178,6 +204,7 @@ public class BodyFactory {
 
     /**
      * Creates an array of shapes for the specified parameters.
+     * Polygons and ellipses with computed {@link BodyParam#geometry} are not decomposed again.
      *
      * @param param body parameters
      * @param center of the body for coordinate conversion
@@ -200,12 +227,12 @@ public class BodyFactory {
                     break;
                 case ELLIPSE:
                     shapes = difficultFactory.createEllipseShapes(
-                        (Ellipse) param.bounds, center, unitScale
+                        (Ellipse) param.bounds, center, unitScale, param.isConvexDecomposition, param.geometry
                     );
                     break;
                 case POLYGON:
                     shapes = difficultFactory.createPolygonShapes(
-                        (Polygon) param.bounds, center, unitScale
+                        (Polygon) param.bounds, center, unitScale, param.isConvexDecomposition, param.geometry
                     );
                     break;
                 case CHAIN:
@@ -259,7 +286,8 @@ public class BodyFactory {
                     param.fixtureDef,
                     (Ellipse) param.bounds,
                     unitScale,
-                    param.userData
+                    param.userData,
+                    param.isConvexDecomposition
                 );
             case POLYGON:
                 return difficultFactory.createPolygon(
@@ -267,7 +295,8 @@ public class BodyFactory {
                     param.fixtureDef,
                     (Polygon) param.bounds,
                     unitScale,
-                    param.userData
+                    param.userData,
+                    param.isConvexDecomposition
                 );
             case CHAIN:
                 return difficultFactory.createChain(
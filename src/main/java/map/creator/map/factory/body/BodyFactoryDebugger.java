@@ -66,11 +66,23 @@ public class BodyFactoryDebugger {
      * @param form The form shape (RECTANGLE, CIRCLE... - learn more in {@link FormBody})
      */
     public void debugPrintAboutDifficultShape(float[] transformVertices, FormBody form){
+        debugPrintAboutDifficultShape(transformVertices, transformVertices.length, form);
+    }
+
+    /**
+     * Print info about created shape in {@link BodyDifficultFactory}.
+     * @param transformVertices buffer with vertices of the hard shape
+     * @param count count of used numbers in the buffer
+     * @param form The form shape (RECTANGLE, CIRCLE... - learn more in {@link FormBody})
+     */
+    public void debugPrintAboutDifficultShape(float[] transformVertices, int count, FormBody form){
+        if (!isDebug) return;
+
         Gdx.app.log(
                 "BodyFactory",
                 String.format(
-                        "Shape was created! Form: %s, Vertices: [%s]",
-                        form.name(), Arrays.toString(transformVertices)
+                        "Shape was created! Form: %s, Vertices: %s",
+                        form.name(), Arrays.toString(Arrays.copyOf(transformVertices, count))
                 )
         );
     }
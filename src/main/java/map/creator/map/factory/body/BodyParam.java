@@ -33,6 +33,19 @@ public class BodyParam{
     /// @see FormBody
     public boolean isLooping;
 
+    /// Whether the figure should be divided on convex pieces (up to 8 vertices) instead of triangles.
+    /// Fewer fixtures - cheaper broadphase and fewer contacts. In Tiled - boolean property "convex".
+    /// (In POLYGON and ELLIPSE forms only)
+    /// @see ConvexDecomposer
+    public boolean isConvexDecomposition;
+
+    /// Local vertices and pieces of the figure, computed before creation - for example, on a thread of map loading.
+    /// If it is null or computed on other unit scale, the figure is decomposed when shapes are created.
+    /// (In POLYGON and ELLIPSE forms only)
+    /// @see ShapeDecomposer
+    /// @see BodyFactory#createShapes
+    public ShapeCache.Geometry geometry;
+
     public BodyParam(FormBody formBody, BodyDef bodyDef, FixtureDef fixtureDef, Shape2D bounds, UserData userData) {
         this.formBody = formBody;
         this.bodyDef = bodyDef;
@@ -46,6 +59,7 @@ public class BodyParam{
         bodyDef = builder.bodyDef;
         fixtureDef = builder.fixtureDef;
         isLooping = builder.isLooping;
+        isConvexDecomposition = builder.isConvexDecomposition;
         bounds = builder.bounds;
         userData = builder.userData;
     }
@@ -55,6 +69,7 @@ public class BodyParam{
          protected BodyDef bodyDef;
          protected FixtureDef fixtureDef;
          protected boolean isLooping = false;
+         protected boolean isConvexDecomposition = false;
          protected Shape2D bounds;
          protected UserData userData;
 
@@ -78,6 +93,11 @@ public class BodyParam{
             return this;
         }
 
+        public BodyParamBuilder convexDecomposition(boolean convexDecomposition) {
+            isConvexDecomposition = convexDecomposition;
+            return this;
+        }
+
         public BodyParamBuilder bounds(Shape2D bounds) {
             this.bounds = bounds;
             return this;
@@ -34,6 +34,11 @@ public class BodySimpleFactory {
     private final World world;
     private final BodyFactoryDebugger debugger;
 
+    /**
+     * Reused position of the shape (Box2D copies it on set).
+     */
+    private final Vector2 shapePosition = new Vector2();
+
     protected BodySimpleFactory(World world, BodyFactoryDebugger debugger) {
         this.world = world;
         this.debugger = debugger;
@@ -119,7 +124,7 @@ public class BodySimpleFactory {
         float centerY = (circle.y + circle.radius / 2) * unitScale - center.y;
 
         circleShape.setRadius(hr);
-        circleShape.setPosition(new Vector2(centerX, centerY));
+        circleShape.setPosition(shapePosition.set(centerX, centerY));
 
         debugger.debugPrintAboutSimpleShape(centerX, centerY, hr, hr, FormBody.CIRCLE);
 
@@ -142,7 +147,7 @@ public class BodySimpleFactory {
         float centerX = (rectangle.x + rectangle.width / 2) * unitScale - center.x;
         float centerY = (rectangle.y + rectangle.height / 2) * unitScale - center.y;
 
-        polygonShape.setAsBox(hx, hy, new Vector2(centerX, centerY), 0);
+        polygonShape.setAsBox(hx, hy, shapePosition.set(centerX, centerY), 0);
 
         debugger.debugPrintAboutSimpleShape(centerX, centerY, hx, hy, FormBody.RECTANGLE);
 
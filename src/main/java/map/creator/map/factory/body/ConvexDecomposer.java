@@ -0,0 +1,130 @@
+package map.creator.map.factory.body;
+
+import com.badlogic.gdx.utils.ShortArray;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decomposes a triangulated polygon into convex pieces by the Hertel-Mehlhorn algorithm:
+ * adjacent pieces are merged while the result stays convex and has no more than {@link #MAX_VERTICES} vertices.
+ *
+ * <p>A polygon with N vertices gives N - 2 triangles, but usually only a few convex pieces,
+ * so a body gets fewer fixtures - a cheaper broadphase, fewer contacts and less native memory.</p>
+ *
+ * @see BodyDifficultFactory
+ * @see com.badlogic.gdx.math.EarClippingTriangulator
+ */
+public class ConvexDecomposer {
+
+    /**
+     * Maximum count of vertices in one polygon of Box2D.
+     */
+    public static final int MAX_VERTICES = 8;
+
+    private static final float EPSILON = 1e-6f;
+
+    /**
+     * Merges triangles of the polygon into convex pieces.
+     *
+     * @param vertices vertices of polygon (x on even index, y on odd index)
+     * @param triangles triples of indices of vertices (for example - the result of {@link com.badlogic.gdx.math.EarClippingTriangulator})
+     * @return vertices of convex pieces in counter-clockwise order
+     */
+    public List<float[]> decompose(float[] vertices, ShortArray triangles) {
+        List<int[]> pieces = new ArrayList<>(triangles.size / 3);
+
+        for (int i = 0; i < triangles.size; i += 3) {
+            int a = triangles.get(i), b = triangles.get(i + 1), c = triangles.get(i + 2);
+
+            float area = cross(vertices, a, b, c);
+            if (Math.abs(area) <= EPSILON) continue;
+
+            pieces.add(area > 0 ? new int[]{a, b, c} : new int[]{a, c, b});
+        }
+
+        boolean isMerged = true;
+        while (isMerged) {
+            isMerged = false;
+
+            for (int i = 0; i < pieces.size() && !isMerged; i++) {
+                for (int j = i + 1; j < pieces.size() && !isMerged; j++) {
+                    int[] merged = merge(vertices, pieces.get(i), pieces.get(j));
+                    if (merged == null) continue;
+
+                    pieces.set(i, merged);
+                    pieces.remove(j);
+                    isMerged = true;
+                }
+            }
+        }
+
+        List<float[]> result = new ArrayList<>(pieces.size());
+        for (int[] piece : pieces) {
+            float[] pieceVertices = new float[piece.length * 2];
+            for (int k = 0; k < piece.length; k++) {
+                pieceVertices[k * 2] = vertices[piece[k] * 2];
+                pieceVertices[k * 2 + 1] = vertices[piece[k] * 2 + 1];
+            }
+            result.add(pieceVertices);
+        }
+
+        return result;
+    }
+
+    /**
+     * Merges two pieces by their common edge.
+     *
+     * @return merged piece, or null if pieces haven't common edge, or if the result is not convex or has too many vertices.
+     */
+    private int[] merge(float[] vertices, int[] first, int[] second) {
+        int size = first.length + second.length - 2;
+        if (size > MAX_VERTICES) return null;
+
+        for (int i = 0; i < first.length; i++) {
+            int a = first[i];
+            int b = first[(i + 1) % first.length];
+
+            for (int j = 0; j < second.length; j++) {
+                if (second[j] != b || second[(j + 1) % second.length] != a) continue;
+
+                // first from b to a, then second from the vertex after a to the vertex before b
+                int[] merged = new int[size];
+                int count = 0;
+                for (int k = 0; k < first.length; k++) {
+                    merged[count++] = first[(i + 1 + k) % first.length];
+                }
+                for (int k = 2; k < second.length; k++) {
+                    merged[count++] = second[(j + k) % second.length];
+                }
+
+                return isConvex(vertices, merged) ? merged : null;
+            }
+        }
+
+        return null;
+    }
+
+    private boolean isConvex(float[] vertices, int[] piece) {
+        for (int i = 0; i < piece.length; i++) {
+            int previous = piece[(i + piece.length - 1) % piece.length];
+            int next = piece[(i + 1) % piece.length];
+
+            if (cross(vertices, previous, piece[i], next) < -EPSILON) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Cross product of edges (a, b) and (b, c) - positive if the turn is counter-clockwise.
+     */
+    private static float cross(float[] vertices, int a, int b, int c) {
+        float abX = vertices[b * 2] - vertices[a * 2];
+        float abY = vertices[b * 2 + 1] - vertices[a * 2 + 1];
+        float bcX = vertices[c * 2] - vertices[b * 2];
+        float bcY = vertices[c * 2 + 1] - vertices[b * 2 + 1];
+
+        return abX * bcY - abY * bcX;
+    }
+}
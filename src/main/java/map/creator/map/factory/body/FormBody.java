@@ -17,6 +17,7 @@ public enum FormBody {
     /// Form polygon - full inside.
     /// POLYGON - is a shape with N count vertices, however because of restrictions Box2D engine (3 - 8 vertices in ONE polygon)
     /// if polygon has been have more 8 vertices that it will be divided on triangles using EarClippingTriangulator. Learn more in BodyFactory class
+    /// (or on convex pieces by ConvexDecomposer, if the object has property "convex" = true)
     /// @see BodyFactory
     POLYGON,
 
@@ -0,0 +1,92 @@
+package map.creator.map.factory.body;
+
+import com.badlogic.gdx.math.Rectangle;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Greedily merges adjacent or overlapping axis-aligned rectangles into larger ones.
+ *
+ * <p>At first rectangles with the same bottom edge and height are merged into horizontal runs,
+ * then runs with the same left edge and width are merged vertically.
+ * So walls made of hundreds of tiles become a few boxes - fewer fixtures and no "ghost collisions" on internal edges.</p>
+ *
+ * <p>The union of rectangles is not changed - only covered area can be merged.</p>
+ *
+ * @see map.creator.map.factory.object.ObjectFactory#setMergeStaticObjects(boolean)
+ */
+public class RectangleMerger {
+
+    private final float epsilon;
+
+    /**
+     * @param epsilon maximum difference of coordinates (in pixels), at which edges are considered equal.
+     */
+    public RectangleMerger(float epsilon) {
+        this.epsilon = epsilon;
+    }
+
+    public RectangleMerger() {
+        this(0.01f);
+    }
+
+    /**
+     * Merges rectangles. Source rectangles are not changed.
+     *
+     * @param rectangles source rectangles
+     * @return merged rectangles (new objects)
+     */
+    public List<Rectangle> merge(List<Rectangle> rectangles) {
+        List<Rectangle> rows = new ArrayList<>(rectangles.size());
+        for (Rectangle rectangle : rectangles) {
+            rows.add(new Rectangle(rectangle));
+        }
+
+        rows.sort(Comparator.<Rectangle>comparingDouble(r -> r.y).thenComparingDouble(r -> r.height).thenComparingDouble(r -> r.x));
+        rows = mergeRuns(rows, true);
+
+        rows.sort(Comparator.<Rectangle>comparingDouble(r -> r.x).thenComparingDouble(r -> r.width).thenComparingDouble(r -> r.y));
+        return mergeRuns(rows, false);
+    }
+
+    /**
+     * Merges sorted rectangles with the same line (bottom edge and height, or left edge and width), which touch or overlap each other.
+     *
+     * @param sorted rectangles sorted by line and then by position on the line
+     * @param isHorizontal true - merges along x axis, false - along y axis
+     * @return merged rectangles
+     */
+    private List<Rectangle> mergeRuns(List<Rectangle> sorted, boolean isHorizontal) {
+        List<Rectangle> result = new ArrayList<>(sorted.size());
+
+        Rectangle run = null;
+        for (Rectangle rectangle : sorted) {
+            if (run != null && isSameLine(run, rectangle, isHorizontal) && getStart(rectangle, isHorizontal) <= getEnd(run, isHorizontal) + epsilon) {
+                float end = Math.max(getEnd(run, isHorizontal), getEnd(rectangle, isHorizontal));
+                if (isHorizontal) run.width = end - run.x;
+                else run.height = end - run.y;
+                continue;
+            }
+
+            run = rectangle;
+            result.add(run);
+        }
+
+        return result;
+    }
+
+    private boolean isSameLine(Rectangle a, Rectangle b, boolean isHorizontal) {
+        if (isHorizontal) return Math.abs(a.y - b.y) <= epsilon && Math.abs(a.height - b.height) <= epsilon;
+        return Math.abs(a.x - b.x) <= epsilon && Math.abs(a.width - b.width) <= epsilon;
+    }
+
+    private static float getStart(Rectangle rectangle, boolean isHorizontal) {
+        return isHorizontal ? rectangle.x : rectangle.y;
+    }
+
+    private static float getEnd(Rectangle rectangle, boolean isHorizontal) {
+        return isHorizontal ? rectangle.x + rectangle.width : rectangle.y + rectangle.height;
+    }
+}
@@ -0,0 +1,243 @@
+package map.creator.map.factory.body;
+
+import com.badlogic.gdx.utils.IntSet;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of decomposed polygons and ellipses, used by {@link ShapeDecomposer}.
+ * Maps built from Tiled templates or copied prefabs contain many identical shapes - for them
+ * the vertices are computed and triangulated (or divided on convex pieces) only once.
+ *
+ * <p>The key is the normalized geometry of the shape in local space: form, kind of decomposition
+ * and numbers, which define vertices without position (for example size and unit scale of the ellipse).
+ * The value is {@link Geometry} - local vertices and convex pieces, which are moved to the body by the factory.</p>
+ *
+ * <p>The size of cache is bounded - when it's full, the least recently used geometry is removed.
+ * A shape is put only when it's missed the second time (see {@link #admit()}), so a map of unique shapes
+ * doesn't fill the cache with copies of geometry, which will never be found.</p>
+ *
+ * <p>The cache is thread-safe, so one cache is shared by the factory of bodies and threads of map loading,
+ * and its counters show all lookups. A lookup and {@link #admit()} must be done under the lock of the cache
+ * (see {@link ShapeDecomposer}), geometry is computed outside it.</p>
+ *
+ * <p><b>Example of use:</b></p>
+ * <pre>
+ * {@code
+ * ShapeCache cache = bodyFactory.getShapeCache();
+ * Gdx.app.log("ShapeCache", "Hit rate: " + cache.getHitRate());
+ * }
+ * </pre>
+ *
+ * @see ShapeDecomposer
+ * @see BodyDifficultFactory#setShapeCache(ShapeCache)
+ */
+public class ShapeCache {
+
+    public static final int DEFAULT_MAX_SIZE = 512;
+
+    private final int maxSize;
+    private final Map<Key, Geometry> geometries;
+
+    /**
+     * Reused key for lookups - it's copied only when a new geometry is put.
+     */
+    private final Key probe = new Key();
+
+    /**
+     * Hashes of keys, which were missed once and weren't put yet.
+     */
+    private final IntSet doorkeeper = new IntSet();
+
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a cache for {@value DEFAULT_MAX_SIZE} shapes.
+     */
+    public ShapeCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize maximum count of cached shapes.
+     * @throws IllegalArgumentException if maxSize isn't positive.
+     */
+    public ShapeCache(int maxSize) {
+        if (maxSize <= 0) throw new IllegalArgumentException("Max size of shape cache must be positive!");
+        this.maxSize = maxSize;
+
+        geometries = new LinkedHashMap<Key, Geometry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Geometry> eldest) {
+                return size() > ShapeCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Finds the geometry and counts hit or miss.
+     *
+     * @param form form of shape
+     * @param isConvexDecomposition kind of decomposition
+     * @param values numbers, which define local vertices of shape
+     * @param size count of used numbers
+     * @return cached geometry or null
+     */
+    public synchronized Geometry get(FormBody form, boolean isConvexDecomposition, float[] values, int size) {
+        Geometry geometry = geometries.get(probe.set(form, isConvexDecomposition, values, size));
+
+        if (geometry == null) misses++;
+        else hits++;
+
+        return geometry;
+    }
+
+    /**
+     * Checks whether the geometry, missed by the last {@link #get(FormBody, boolean, float[], int)}, should be put.
+     * The first miss of a key only remembers its hash, the second one admits the key -
+     * so geometry of unique shapes isn't copied at all.
+     * Remembered hashes are forgotten, when there are {@code 4 * maxSize} of them.
+     * If the cache is shared by threads, it's called in one block with the lookup: {@code synchronized (cache) {...}}.
+     *
+     * @return true if the geometry should be computed and put
+     */
+    public synchronized boolean admit() {
+        if (doorkeeper.remove(probe.hash)) return true;
+
+        if (doorkeeper.size >= maxSize * 4) doorkeeper.clear();
+        doorkeeper.add(probe.hash);
+
+        return false;
+    }
+
+    /**
+     * Puts the geometry (values are copied, so the array can be reused).
+     *
+     * @param form form of shape
+     * @param isConvexDecomposition kind of decomposition
+     * @param values numbers, which define local vertices of shape
+     * @param size count of used numbers
+     * @param geometry computed geometry (mustn't be changed after it)
+     * @return geometry
+     */
+    public synchronized Geometry put(FormBody form, boolean isConvexDecomposition, float[] values, int size, Geometry geometry) {
+        geometries.put(new Key().copy(probe.set(form, isConvexDecomposition, values, size)), geometry);
+        return geometry;
+    }
+
+    /**
+     * @return part of lookups, which found the geometry (0 if there were no lookups).
+     */
+    public synchronized float getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0f : (float) hits / lookups;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return geometries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Removes all geometries, remembered misses and resets counters of hits and misses.
+     */
+    public synchronized void clear() {
+        geometries.clear();
+        doorkeeper.clear();
+        hits = misses = 0;
+    }
+
+    /**
+     * Decomposed shape in local space (without position of object).
+     */
+    public static class Geometry {
+
+        /**
+         * Vertices of the whole shape.
+         */
+        public final float[] vertices;
+
+        /**
+         * Convex pieces (triangles or pieces up to 8 vertices), every one is ready for {@link com.badlogic.gdx.physics.box2d.PolygonShape#set(float[])}.
+         */
+        public final float[][] pieces;
+
+        /**
+         * Conversion scale pixels-to-meters, on which the geometry is computed.
+         */
+        public final float unitScale;
+
+        public Geometry(float[] vertices, float[][] pieces, float unitScale) {
+            this.vertices = vertices;
+            this.pieces = pieces;
+            this.unitScale = unitScale;
+        }
+    }
+
+    private static class Key {
+
+        private FormBody form;
+        private boolean isConvexDecomposition;
+        private float[] values;
+        private int size;
+        private int hash;
+
+        private Key set(FormBody form, boolean isConvexDecomposition, float[] values, int size) {
+            this.form = form;
+            this.isConvexDecomposition = isConvexDecomposition;
+            this.values = values;
+            this.size = size;
+
+            int hash = form.ordinal() * 31 + (isConvexDecomposition ? 1 : 0);
+            for (int i = 0; i < size; i++) hash = hash * 31 + Float.floatToIntBits(values[i]);
+            this.hash = hash;
+
+            return this;
+        }
+
+        private Key copy(Key other) {
+            form = other.form;
+            isConvexDecomposition = other.isConvexDecomposition;
+            size = other.size;
+            hash = other.hash;
+
+            values = new float[size];
+            System.arraycopy(other.values, 0, values, 0, size);
+
+            return this;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            Key other = (Key) o;
+            if (hash != other.hash || size != other.size || form != other.form || isConvexDecomposition != other.isConvexDecomposition) return false;
+
+            for (int i = 0; i < size; i++) {
+                if (Float.floatToIntBits(values[i]) != Float.floatToIntBits(other.values[i])) return false;
+            }
+
+            return true;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package map.creator.map.factory.body;
+
+import com.badlogic.gdx.math.EarClippingTriangulator;
+import com.badlogic.gdx.math.Ellipse;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.ShortArray;
+
+import java.util.List;
+
+/**
+ * Computes the geometry of polygons and ellipses in local space - vertices in meters relative to the reference point
+ * of the shape (the center of ellipse, the position of polygon), their triangles and convex pieces.
+ *
+ * <p>It doesn't touch Box2D, so the geometry may be computed on any thread (for example, on threads of map loading),
+ * and only shapes are created on the thread of the world. Buffers of the decomposer are reused,
+ * so one instance must be used by one thread, but {@link ShapeCache} may be shared by decomposers of all threads.</p>
+ *
+ * <p><b>Example of use:</b></p>
+ * <pre>
+ * {@code
+ * ShapeDecomposer decomposer = new ShapeDecomposer(new ShapeCache());
+ * ShapeCache.Geometry geometry = decomposer.computeGeometry(polygon, unitScale, false);
+ * }
+ * </pre>
+ *
+ * @see BodyDifficultFactory
+ * @see ShapeCache
+ */
+public class ShapeDecomposer {
+
+    private final EarClippingTriangulator triangulator = new EarClippingTriangulator();
+    private final ConvexDecomposer convexDecomposer = new ConvexDecomposer();
+
+    /**
+     * Local vertices of the last written shape.
+     */
+    private final FloatArray vertexBuffer = new FloatArray();
+
+    /**
+     * Numbers of the key of the current shape in {@link #shapeCache}.
+     */
+    private final FloatArray cacheKey = new FloatArray();
+
+    /**
+     * Volatile, because other threads take the cache of the factory of bodies for their decomposers.
+     */
+    private volatile ShapeCache shapeCache;
+
+    /**
+     * Creates a decomposer without cache.
+     */
+    public ShapeDecomposer() {
+        this(null);
+    }
+
+    /**
+     * @param shapeCache cache of geometries, or null to disable caching
+     */
+    public ShapeDecomposer(ShapeCache shapeCache) {
+        this.shapeCache = shapeCache;
+    }
+
+    /**
+     * Finds the cached geometry of the ellipse. If there isn't one, but the cache admits the ellipse
+     * (see {@link ShapeCache#admit()}), the geometry is computed and put in the cache.
+     *
+     * @param ellipse source ellipse
+     * @param unitScale conversion scale pixels-to-meters
+     * @param isConvexDecomposition if true, the ellipse is divided on convex pieces instead of triangles
+     * @return geometry, or null if it isn't cached - then vertices are taken from {@link #writeVertices(Ellipse, float)}
+     */
+    public ShapeCache.Geometry findGeometry(Ellipse ellipse, float unitScale, boolean isConvexDecomposition) {
+        if (this.shapeCache == null) return null;
+
+        cacheKey.clear();
+        cacheKey.add(ellipse.width, ellipse.height, unitScale);
+
+        ShapeCache shapeCache = this.shapeCache;
+        synchronized (shapeCache) {
+            ShapeCache.Geometry geometry = shapeCache.get(FormBody.ELLIPSE, isConvexDecomposition, cacheKey.items, cacheKey.size);
+            if (geometry != null || !shapeCache.admit()) return geometry;
+        }
+
+        writeVertices(ellipse, unitScale);
+        return shapeCache.put(FormBody.ELLIPSE, isConvexDecomposition, cacheKey.items, cacheKey.size, toGeometry(unitScale, isConvexDecomposition));
+    }
+
+    /**
+     * Finds the cached geometry of the polygon. If there isn't one, but the cache admits the polygon
+     * (see {@link ShapeCache#admit()}), the geometry is computed and put in the cache.
+     * Polygons up to 4 vertices are not decomposed, so they are never cached.
+     *
+     * @param polygon source polygon
+     * @param unitScale conversion scale pixels-to-meters
+     * @param isConvexDecomposition if true, the polygon is divided on convex pieces instead of triangles
+     * @return geometry, or null if it isn't cached - then vertices are taken from {@link #writeVertices(Polygon, float)}
+     */
+    public ShapeCache.Geometry findGeometry(Polygon polygon, float unitScale, boolean isConvexDecomposition) {
+        float[] localVertices = polygon.getVertices();
+        if (this.shapeCache == null || localVertices.length <= 8) return null;
+
+        cacheKey.clear();
+        cacheKey.add(unitScale, polygon.getOriginX(), polygon.getOriginY());
+        cacheKey.add(polygon.getRotation(), polygon.getScaleX(), polygon.getScaleY());
+        cacheKey.addAll(localVertices);
+
+        ShapeCache shapeCache = this.shapeCache;
+        synchronized (shapeCache) {
+            ShapeCache.Geometry geometry = shapeCache.get(FormBody.POLYGON, isConvexDecomposition, cacheKey.items, cacheKey.size);
+            if (geometry != null || !shapeCache.admit()) return geometry;
+        }
+
+        writeVertices(polygon, unitScale);
+        return shapeCache.put(FormBody.POLYGON, isConvexDecomposition, cacheKey.items, cacheKey.size, toGeometry(unitScale, isConvexDecomposition));
+    }
+
+    /**
+     * Computes the geometry of the ellipse, or takes it from the cache.
+     * Unlike {@link #findGeometry(Ellipse, float, boolean)}, the result is never null.
+     *
+     * @param ellipse source ellipse
+     * @param unitScale conversion scale pixels-to-meters
+     * @param isConvexDecomposition if true, the ellipse is divided on convex pieces instead of triangles
+     * @return geometry of the ellipse around its center
+     */
+    public ShapeCache.Geometry computeGeometry(Ellipse ellipse, float unitScale, boolean isConvexDecomposition) {
+        ShapeCache.Geometry geometry = findGeometry(ellipse, unitScale, isConvexDecomposition);
+        if (geometry != null) return geometry;
+
+        writeVertices(ellipse, unitScale);
+        return toGeometry(unitScale, isConvexDecomposition);
+    }
+
+    /**
+     * Computes the geometry of the polygon, or takes it from the cache.
+     * Unlike {@link #findGeometry(Polygon, float, boolean)}, the result is never null.
+     *
+     * @param polygon source polygon
+     * @param unitScale conversion scale pixels-to-meters
+     * @param isConvexDecomposition if true, the polygon is divided on convex pieces instead of triangles
+     * @return geometry of the polygon around its position
+     */
+    public ShapeCache.Geometry computeGeometry(Polygon polygon, float unitScale, boolean isConvexDecomposition) {
+        ShapeCache.Geometry geometry = findGeometry(polygon, unitScale, isConvexDecomposition);
+        if (geometry != null) return geometry;
+
+        writeVertices(polygon, unitScale);
+        return toGeometry(unitScale, isConvexDecomposition);
+    }
+
+    /**
+     * Writes vertices, which approximate the ellipse, around its center.
+     * The result is the reused buffer, so it's valid only until the next shape is written.
+     *
+     * @param ellipse source ellipse
+     * @param unitScale conversion scale pixels-to-meters
+     * @return local vertices in meters
+     */
+    public FloatArray writeVertices(Ellipse ellipse, float unitScale) {
+        int segments = calculateSegments(ellipse.width, ellipse.height);
+        float angleStep = 2 * MathUtils.PI / segments;
+
+        vertexBuffer.clear();
+        float[] vertices = vertexBuffer.setSize(segments * 2);
+        for (int i = 0; i < segments; i++) {
+            float angle = i * angleStep;
+            vertices[i * 2] = (ellipse.width / 2 * MathUtils.cos(angle)) * unitScale;
+            vertices[i * 2 + 1] = (ellipse.height / 2 * MathUtils.sin(angle)) * unitScale;
+        }
+
+        return vertexBuffer;
+    }
+
+    /**
+     * Writes transformed vertices of the polygon around its position.
+     * The result is the reused buffer, so it's valid only until the next shape is written.
+     *
+     * @param polygon source polygon
+     * @param unitScale conversion scale pixels-to-meters
+     * @return local vertices in meters
+     */
+    public FloatArray writeVertices(Polygon polygon, float unitScale) {
+        float[] transformedVertices = polygon.getTransformedVertices();
+
+        vertexBuffer.clear();
+        float[] vertices = vertexBuffer.setSize(transformedVertices.length);
+        for (int i = 0; i < transformedVertices.length; i += 2) {
+            vertices[i] = (transformedVertices[i] - polygon.getX()) * unitScale;
+            vertices[i + 1] = (transformedVertices[i + 1] - polygon.getY()) * unitScale;
+        }
+
+        return vertexBuffer;
+    }
+
+    /**
+     * Triangulates vertices by Ear Clipping algorithm.
+     * The result is the reused array of the triangulator, so it's valid only until the next triangulation.
+     *
+     * @param vertices local vertices
+     * @param count count of used numbers
+     * @return triples of indices of vertices
+     */
+    public ShortArray triangulate(float[] vertices, int count) {
+        return triangulator.computeTriangles(vertices, 0, count);
+    }
+
+    /**
+     * Merges triangles into convex pieces (up to 8 vertices each).
+     *
+     * @param vertices local vertices
+     * @param triangles triples of indices of vertices
+     * @return vertices of convex pieces
+     * @see ConvexDecomposer
+     */
+    public List<float[]> decompose(float[] vertices, ShortArray triangles) {
+        return convexDecomposer.decompose(vertices, triangles);
+    }
+
+    /**
+     * Gets the cache of geometries.
+     * @return cache, or null if caching is disabled.
+     */
+    public ShapeCache getShapeCache() {
+        return shapeCache;
+    }
+
+    /**
+     * Sets the cache of geometries (the cache may be shared by decomposers of several threads).
+     * @param shapeCache new cache, or null to disable caching
+     */
+    public void setShapeCache(ShapeCache shapeCache) {
+        this.shapeCache = shapeCache;
+    }
+
+    /**
+     * Calculates the optimal number of segments to approximate the ellipse.
+     *
+     * @param width ellipse width
+     * @param height ellipse height
+     * @return number of segments (8-24)
+     */
+    private static int calculateSegments(float width, float height) {
+        float avgSize = (width + height) / 2;
+        float stretch = Math.max(width, height) / Math.min(width, height);
+        int segments = (int) (8 + (avgSize * 0.1f) + (stretch * 2));
+
+        return MathUtils.clamp(segments, 8, 24);
+    }
+
+    /**
+     * Copies the written vertices into new geometry with triangles or convex pieces.
+     * Arrays of geometry are new, so it can be kept in {@link ShapeCache} or passed to other thread.
+     *
+     * @param unitScale conversion scale, on which vertices are written
+     * @param isConvexDecomposition if true, the polygon is divided on convex pieces instead of triangles
+     * @return new geometry
+     */
+    private ShapeCache.Geometry toGeometry(float unitScale, boolean isConvexDecomposition) {
+        float[] vertices = vertexBuffer.toArray();
+        if (vertices.length <= 8) return new ShapeCache.Geometry(vertices, new float[][]{vertices}, unitScale);
+
+        ShortArray triangles = triangulate(vertices, vertices.length);
+        if (isConvexDecomposition) return new ShapeCache.Geometry(vertices, decompose(vertices, triangles).toArray(new float[0][]), unitScale);
+
+        float[][] pieces = new float[triangles.size / 3][];
+        for (int i = 0; i < triangles.size; i += 3) {
+            float[] triangle = new float[6];
+            for (int j = 0; j < 3; j++) {
+                int vertexIndex = triangles.get(i + j) * 2;
+                triangle[j * 2] = vertices[vertexIndex];
+                triangle[j * 2 + 1] = vertices[vertexIndex + 1];
+            }
+
+            pieces[i / 3] = triangle;
+        }
+
+        return new ShapeCache.Geometry(vertices, pieces, unitScale);
+    }
+}
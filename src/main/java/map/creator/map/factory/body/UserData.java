@@ -1,5 +1,7 @@
 package map.creator.map.factory.body;
 
+import map.creator.map.component.trigger.Trigger;
+
 /**
  * A class for storing user data associated with physical objects (e.g. Fixture in Box2D).
  * Contains information about the name, type and owner of the object, which allows you to identify it
@@ -33,6 +35,42 @@ public class UserData {
      */
     public final String owner;
 
+    /**
+     * Id of {@link #name} in {@link map.creator.map.factory.object.ObjectCache} - positive number, which is the same for all UserData's with equal names
+     * (-1 - not resolved yet). Used instead of the name, where comparing of strings is too expensive (for example - keys of contacts).
+     * It is resolved by {@link map.creator.map.system.MapContactListener} on the first contact.
+     */
+    public int id = -1;
+
+    /**
+     * Generation of ids of names in {@link map.creator.map.factory.object.ObjectCache}, which was actual when {@link #id} was resolved -
+     * ids are given anew after the cache is cleared.
+     */
+    public int idGeneration;
+
+    /**
+     * true if {@link #type} is "trigger" - checked once, instead of comparing strings on every contact.
+     */
+    public final boolean isTrigger;
+
+    /**
+     * The trigger of this fixture. It is resolved by {@link map.creator.map.system.TriggerSystem} on the first contact
+     * and then is read directly. May be set beforehand, or set to null if the trigger component of the entity is replaced.
+     */
+    public Trigger trigger;
+
+    /**
+     * Id of the entity of this fixture in {@link map.creator.map.factory.object.ObjectCache} (-1 - not resolved yet).
+     * It is resolved by {@link map.creator.map.system.MapContactListener} on the first contact by {@link #owner} or {@link #name}.
+     */
+    public int ownerId = -1;
+
+    /**
+     * Generation of the slot {@link #ownerId} in {@link map.creator.map.factory.object.ObjectCache} - if the entity is removed from cache,
+     * generation changes and the id isn't valid anymore.
+     */
+    public int ownerGeneration;
+
     /**
      * Creates a new instance of UserData.
      *
@@ -48,6 +86,7 @@ public class UserData {
         this.name = name;
         this.type = type;
         this.owner = owner;
+        this.isTrigger = type.equals("trigger");
     }
 
     @Override
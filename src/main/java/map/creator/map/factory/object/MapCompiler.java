@@ -0,0 +1,293 @@
+package map.creator.map.factory.object;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.MapObjects;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.math.Circle;
+import com.badlogic.gdx.math.Ellipse;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Polyline;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Shape2D;
+import map.creator.map.controller.CompiledMap;
+import map.creator.map.controller.MapContainer;
+import map.creator.map.controller.MapObjectIndex;
+import map.creator.map.factory.body.FormBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles objects of selected layers of the Tiled map into the binary format of {@link CompiledMap}.
+ * Used at build time: the .tmx file is parsed once and types and forms of objects are resolved,
+ * so at start of the game {@link map.creator.map.factory.MapFactory#createCompiledMap} only reads ready records.
+ *
+ * <p><b>Example of use (for example - in a build task with the headless backend):</b></p>
+ * <pre>
+ * {@code
+ * MapContainer map = new MapContainer(new TmxMapLoader().load("maps/level1.tmx"));
+ * new MapCompiler().compile(map, Gdx.files.local("maps/level1.map"), "collisions", "entities");
+ * }
+ * </pre>
+ *
+ * <p>Properties of types String, Boolean, Integer, Float, Long and Double are stored as they are,
+ * values of other types (for example - Color) are stored as strings.</p>
+ *
+ * @see CompiledMap
+ */
+public class MapCompiler {
+
+    /**
+     * Compiles layers of the map in file.
+     *
+     * @param map container map
+     * @param file output file
+     * @param namesLayers the names of the layers to be compiled
+     * @throws IOException if file couldn't be written
+     * @throws IllegalArgumentException if namesLayers is empty or null, if data object hasn't name or if object hasn't type
+     */
+    public void compile(MapContainer map, FileHandle file, String... namesLayers) throws IOException {
+        try (OutputStream out = file.write(false)) {
+            compile(map, out, namesLayers);
+        }
+    }
+
+    /**
+     * Compiles layers of the map in stream.
+     *
+     * @param map container map
+     * @param out output stream (is not closed)
+     * @param namesLayers the names of the layers to be compiled
+     * @throws IOException if stream couldn't be written
+     * @throws IllegalArgumentException if namesLayers is empty or null, if data object hasn't name or if object hasn't type
+     */
+    public void compile(MapContainer map, OutputStream out, String... namesLayers) throws IOException {
+        if (namesLayers == null || namesLayers.length == 0) {
+            throw new IllegalArgumentException("\"namesLayers\" mustn't be empty! Please - write name layer, where contains some objects!");
+        }
+
+        Map<String, Integer> strings = new LinkedHashMap<>();
+
+        ByteArrayOutputStream layersBytes = new ByteArrayOutputStream();
+        DataOutputStream layers = new DataOutputStream(layersBytes);
+        layers.writeInt(namesLayers.length);
+
+        for (String nameLayer : namesLayers) {
+            List<MapObject> dataObjects = new ArrayList<>();
+            List<MapObject> objects = new ArrayList<>();
+            splitObjects(map.getMapObjects(nameLayer), dataObjects, objects);
+
+            ByteArrayOutputStream recordsBytes = new ByteArrayOutputStream();
+            DataOutputStream records = new DataOutputStream(recordsBytes);
+            for (MapObject object : dataObjects) {
+                writeDataObject(records, object, strings);
+            }
+
+            int[] offsets = new int[objects.size()];
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = recordsBytes.size();
+                writeObject(records, objects.get(i), strings);
+            }
+
+            layers.writeInt(getString(nameLayer, strings));
+            layers.writeInt(dataObjects.size());
+            layers.writeInt(objects.size());
+            layers.writeInt(recordsBytes.size());
+            for (int offset : offsets) {
+                layers.writeInt(offset);
+            }
+            recordsBytes.writeTo(layers);
+        }
+
+        DataOutputStream output = new DataOutputStream(out);
+        output.writeInt(CompiledMap.MAGIC);
+        output.writeInt(CompiledMap.VERSION);
+        output.writeFloat(map.PPM);
+        output.writeFloat(map.MAP_WIDTH_METERS);
+        output.writeFloat(map.MAP_HEIGHT_METERS);
+
+        output.writeInt(strings.size());
+        for (String string : strings.keySet()) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+
+        layersBytes.writeTo(output);
+        output.flush();
+    }
+
+    /**
+     * Splits objects of layer on data objects and objects with known shape (other objects are skipped).
+     */
+    private void splitObjects(MapObjects mapObjects, List<MapObject> dataObjects, List<MapObject> objects) {
+        for (MapObject object : mapObjects) {
+            MapProperties properties = object.getProperties();
+
+            Boolean isData = properties.get("data", Boolean.class);
+            if (isData != null && isData) {
+                if (object.getName() == null) throw new IllegalArgumentException("If object is data, then this one must have a name!");
+
+                dataObjects.add(object);
+                continue;
+            }
+
+            if (properties.get("type", String.class) == null) {
+                throw new IllegalArgumentException("Imposable compile object " + object.getName() + " because it type is null!");
+            }
+
+            if (ObjectFactory.getBoundsObject(object) == null) {
+                Gdx.app.error("MapCompiler", "Shape object not found. The object - " + object.getName(), new IllegalArgumentException());
+                continue;
+            }
+
+            objects.add(object);
+        }
+    }
+
+    private void writeDataObject(DataOutputStream out, MapObject object, Map<String, Integer> strings) throws IOException {
+        out.writeInt(getString(object.getName(), strings));
+        out.writeInt(-1);
+        out.writeByte(-1);
+        out.writeByte(CompiledMap.SHAPE_NONE);
+        out.writeFloat(0);
+        out.writeFloat(0);
+
+        writeProperties(out, object.getProperties(), strings);
+    }
+
+    private void writeObject(DataOutputStream out, MapObject object, Map<String, Integer> strings) throws IOException {
+        MapProperties properties = object.getProperties();
+        Shape2D bounds = ObjectFactory.getBoundsObject(object);
+
+        String customForm = properties.get("form", String.class);
+        FormBody formBody = customForm == null ? ObjectFactory.getDefaultFormBody(bounds) : FormBody.getFormBodyOnString(customForm);
+
+        float[] anchor = new float[2];
+        MapObjectIndex.getAnchor(object, anchor, 0);
+
+        out.writeInt(getString(object.getName(), strings));
+        out.writeInt(getString(properties.get("type", String.class), strings));
+        out.writeByte(formBody.ordinal());
+
+        if (bounds instanceof Rectangle) {
+            Rectangle rectangle = (Rectangle) bounds;
+            writeHead(out, CompiledMap.SHAPE_RECTANGLE, anchor);
+            out.writeFloat(rectangle.x);
+            out.writeFloat(rectangle.y);
+            out.writeFloat(rectangle.width);
+            out.writeFloat(rectangle.height);
+
+        } else if (bounds instanceof Circle) {
+            Circle circle = (Circle) bounds;
+            writeHead(out, CompiledMap.SHAPE_CIRCLE, anchor);
+            out.writeFloat(circle.x);
+            out.writeFloat(circle.y);
+            out.writeFloat(circle.radius);
+
+        } else if (bounds instanceof Ellipse) {
+            Ellipse ellipse = (Ellipse) bounds;
+            writeHead(out, CompiledMap.SHAPE_ELLIPSE, anchor);
+            out.writeFloat(ellipse.x);
+            out.writeFloat(ellipse.y);
+            out.writeFloat(ellipse.width);
+            out.writeFloat(ellipse.height);
+
+        } else if (bounds instanceof Polygon) {
+            Polygon polygon = (Polygon) bounds;
+            writeHead(out, CompiledMap.SHAPE_POLYGON, anchor);
+            writeVertices(out, polygon.getX(), polygon.getY(), polygon.getTransformedVertices());
+
+        } else {
+            Polyline polyline = (Polyline) bounds;
+            writeHead(out, CompiledMap.SHAPE_POLYLINE, anchor);
+            writeVertices(out, polyline.getX(), polyline.getY(), polyline.getTransformedVertices());
+        }
+
+        writeProperties(out, properties, strings);
+    }
+
+    private void writeHead(DataOutputStream out, byte shape, float[] anchor) throws IOException {
+        out.writeByte(shape);
+        out.writeFloat(anchor[0]);
+        out.writeFloat(anchor[1]);
+    }
+
+    /**
+     * Writes position and vertices relative to position (rotation and scale of shape are already applied).
+     */
+    private void writeVertices(DataOutputStream out, float x, float y, float[] transformedVertices) throws IOException {
+        out.writeFloat(x);
+        out.writeFloat(y);
+        out.writeInt(transformedVertices.length);
+
+        for (int i = 0; i < transformedVertices.length; i += 2) {
+            out.writeFloat(transformedVertices[i] - x);
+            out.writeFloat(transformedVertices[i + 1] - y);
+        }
+    }
+
+    private void writeProperties(DataOutputStream out, MapProperties properties, Map<String, Integer> strings) throws IOException {
+        List<String> keys = new ArrayList<>();
+        Iterator<String> iterator = properties.getKeys();
+        while (iterator.hasNext()) {
+            keys.add(iterator.next());
+        }
+
+        out.writeShort(keys.size());
+        for (String key : keys) {
+            Object value = properties.get(key);
+            out.writeInt(getString(key, strings));
+
+            if (value instanceof Boolean) {
+                out.writeByte(CompiledMap.PROPERTY_BOOLEAN);
+                out.writeBoolean((Boolean) value);
+
+            } else if (value instanceof Integer) {
+                out.writeByte(CompiledMap.PROPERTY_INTEGER);
+                out.writeInt((Integer) value);
+
+            } else if (value instanceof Float) {
+                out.writeByte(CompiledMap.PROPERTY_FLOAT);
+                out.writeFloat((Float) value);
+
+            } else if (value instanceof Long) {
+                out.writeByte(CompiledMap.PROPERTY_LONG);
+                out.writeLong((Long) value);
+
+            } else if (value instanceof Double) {
+                out.writeByte(CompiledMap.PROPERTY_DOUBLE);
+                out.writeDouble((Double) value);
+
+            } else {
+                out.writeByte(CompiledMap.PROPERTY_STRING);
+                out.writeInt(getString(String.valueOf(value), strings));
+            }
+        }
+    }
+
+    /**
+     * @return index of string in table of strings, -1 if string is null.
+     */
+    private int getString(String string, Map<String, Integer> strings) {
+        if (string == null) return -1;
+
+        Integer index = strings.get(string);
+        if (index == null) {
+            index = strings.size();
+            strings.put(string, index);
+        }
+
+        return index;
+    }
+}
@@ -0,0 +1,120 @@
+package map.creator.map.factory.object;
+
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.math.Shape2D;
+import map.creator.map.entity.ObjectEntity;
+import map.creator.map.factory.body.BodyParam;
+import map.creator.map.factory.body.FormBody;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Group of map objects prepared for creation (shapes are classified, forms are resolved, {@link BodyParam}'s of static objects are built),
+ * but not created yet - no one body exists in Box2D World.
+ *
+ * <p>Preparation is a pure CPU work and may be done on any thread ({@link ObjectFactory#prepareObjectsOnLayer}),
+ * creation must be done on the thread of Box2D World ({@link ObjectFactory#commit} or {@link ObjectFactory#commitQueued}).</p>
+ *
+ * <p>Every object created by {@link ObjectCreator} is one unit of the batch, all static objects together are the last unit.</p>
+ *
+ * @see ObjectFactory
+ * @see ObjectCreationQueue
+ */
+public class ObjectBatch {
+
+    /**
+     * Objects, which will be created by {@link ObjectCreator}'s.
+     */
+    public final List<PreparedObject> objects;
+
+    /**
+     * Parameters of static objects, which will be created under one body.
+     */
+    public final ArrayList<BodyParam> staticObjects;
+
+    /**
+     * Scale of conversion pixels-to-meters of the map, where objects are located.
+     */
+    public final float unitScale;
+
+    /**
+     * Entities created from this batch by {@link ObjectFactory#commitQueued(float)}.
+     */
+    public final List<ObjectEntity> createdEntities;
+
+    private volatile int countCommittedUnits;
+    private volatile boolean isCancelled;
+
+    public ObjectBatch(float unitScale) {
+        this.unitScale = unitScale;
+        objects = new ArrayList<>();
+        staticObjects = new ArrayList<>();
+        createdEntities = new ArrayList<>();
+    }
+
+    /**
+     * @return count of units: objects of creators and one unit of static objects (if they exist).
+     */
+    public int size() {
+        return objects.size() + (staticObjects.isEmpty() ? 0 : 1);
+    }
+
+    /**
+     * @return count of units created by {@link ObjectFactory#commitQueued(float)}.
+     */
+    public int getCountCommittedUnits() {
+        return countCommittedUnits;
+    }
+
+    /**
+     * @return true if all units are created by {@link ObjectFactory#commitQueued(float)}.
+     */
+    public boolean isCommitted() {
+        return countCommittedUnits >= size();
+    }
+
+    /**
+     * Cancels creation of the batch: its units, which are not created yet, will be skipped by {@link ObjectCreationQueue}.
+     * Already created entities stay in {@link #createdEntities}.
+     */
+    public void cancel() {
+        isCancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return isCancelled;
+    }
+
+    void onUnitCommitted() {
+        countCommittedUnits++;
+    }
+
+    /// Object of map prepared for creation by {@link ObjectCreator}.
+    public static class PreparedObject {
+
+        /// Name of object in map (may be not unique or null - unique name is given at creation).
+        public final String name;
+
+        /// Type of object - the key of {@link ObjectCreator}.
+        public final String type;
+
+        /// Properties of object.
+        public final MapProperties properties;
+
+        /// Resolved form body.
+        /// @see FormBody
+        public final FormBody formBody;
+
+        /// Bounds of object in pixels.
+        public final Shape2D bounds;
+
+        public PreparedObject(String name, String type, MapProperties properties, FormBody formBody, Shape2D bounds) {
+            this.name = name;
+            this.type = type;
+            this.properties = properties;
+            this.formBody = formBody;
+            this.bounds = bounds;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package map.creator.map.factory.object;
 
 import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectIntMap;
 import map.creator.map.entity.ObjectEntity;
 
 import java.util.HashMap;
@@ -8,6 +11,13 @@ import java.util.Map;
 
 /**
  * Universal cache for storing game objects and their parameters
+ *
+ * <p>Entities put by {@link #put(String, ObjectEntity)} get dense int ids ({@link ObjectEntity#getId()}) and are stored in an array by id,
+ * so they are found without hashing of strings ({@link #getEntity(int, int)}). Ids of removed entities are reused,
+ * so every slot has a generation, which changes on removing. The map by names stays for lookups by name.</p>
+ *
+ * <p>Systems keeping references to entities of cache (or to their bodies) are notified about removing of entities
+ * through {@link RemovalListener}.</p>
  */
 public class ObjectCache {
 
@@ -21,6 +31,43 @@ public class ObjectCache {
      */
     private final Map<String, MapProperties> dataObjects;
 
+    /**
+     * Next numeric suffix for each base name of entities (see {@link #getFreeEntityName(String)}).
+     */
+    private final Map<String, Integer> entityNameCounters = new HashMap<>();
+
+    /**
+     * Next numeric suffix for each base name of data objects (see {@link #getFreeDataObjectName(String)}).
+     */
+    private final Map<String, Integer> dataNameCounters = new HashMap<>();
+
+    /**
+     * Entities by ids (null - free slot).
+     */
+    private final Array<ObjectEntity> entities = new Array<>();
+
+    /**
+     * Generations of slots of {@link #entities}.
+     */
+    private final IntArray generations = new IntArray();
+
+    /**
+     * Free slots of {@link #entities}.
+     */
+    private final IntArray freeIds = new IntArray();
+
+    private final Array<RemovalListener> removalListeners = new Array<>();
+
+    /**
+     * Ids of names of fixtures (see {@link #getNameId(String)}). They live until {@link #clear()}, like names of entities.
+     */
+    private final ObjectIntMap<String> nameIds = new ObjectIntMap<>();
+
+    /**
+     * Generation of {@link #nameIds} - changes on {@link #clear()}, so ids got before it are not used anymore.
+     */
+    private int nameIdsGeneration;
+
     public ObjectCache() {
         entityMap = new HashMap<>();
         dataObjects = new HashMap<>();
@@ -31,9 +78,176 @@ public class ObjectCache {
         this.dataObjects = dataObjects;
     }
 
-    public void clear(){
+    public synchronized void clear(){
+        for (int id = 0; id < entities.size; id++) {
+            release(id);
+        }
+        entities.clear();
+        freeIds.clear();
+
         entityMap.clear();
         dataObjects.clear();
+        entityNameCounters.clear();
+        dataNameCounters.clear();
+
+        nameIds.clear();
+        nameIdsGeneration++;
+    }
+
+    /**
+     * Gives the id of the name of fixture ({@link map.creator.map.factory.body.UserData#name}): the same name gets the same id until {@link #clear()}.
+     * @param name name
+     * @return positive id
+     */
+    public synchronized int getNameId(String name) {
+        int id = nameIds.get(name, 0);
+        if (id == 0) {
+            id = nameIds.size + 1;
+            nameIds.put(name, id);
+        }
+
+        return id;
+    }
+
+    /**
+     * @return generation of ids of names - it changes on {@link #clear()}.
+     */
+    public synchronized int getNameIdsGeneration() {
+        return nameIdsGeneration;
+    }
+
+    /**
+     * Gives a name, which isn't used by entities: the name itself if it is free, else the name with the number ("coin0", "coin1"...).
+     * @param name base name.
+     * @return free name.
+     */
+    public synchronized String getFreeEntityName(String name) {
+        return getFreeName(name, entityMap, entityNameCounters);
+    }
+
+    /**
+     * Gives a name, which isn't used by data objects: the name itself if it is free, else the name with the number.
+     * @param name base name.
+     * @return free name.
+     */
+    public synchronized String getFreeDataObjectName(String name) {
+        return getFreeName(name, dataObjects, dataNameCounters);
+    }
+
+    /**
+     * Numbers of every base name are only growing, so every number is checked once - allocation of a name takes constant time on average.
+     * (Numbers of removed objects are not reused).
+     */
+    private static String getFreeName(String name, Map<String, ?> map, Map<String, Integer> counters) {
+        if (!map.containsKey(name)) return name;
+
+        int count = counters.getOrDefault(name, 0);
+        String anotherName;
+        do {
+            anotherName = name + count++;
+        } while (map.containsKey(anotherName));
+
+        counters.put(name, count);
+        return anotherName;
+    }
+
+    /**
+     * Puts the entity in cache: gives it an id and puts it in the map by name.
+     * If other entity with this name is already in cache, it is replaced (and removed from cache).
+     *
+     * @param name name of entity
+     * @param entity entity
+     * @return id of entity
+     */
+    public synchronized int put(String name, ObjectEntity entity) {
+        ObjectEntity previous = entityMap.put(name, entity);
+        if (previous != null && previous != entity) removeId(previous);
+
+        if (entity.getId() >= 0 && entity.getId() < entities.size && entities.get(entity.getId()) == entity) return entity.getId();
+
+        int id;
+        if (freeIds.isEmpty()) {
+            id = entities.size;
+            entities.add(entity);
+            // generations of slots stay after clear(), so ids got before it don't become valid again
+            if (generations.size <= id) generations.add(0);
+        } else {
+            id = freeIds.pop();
+            entities.set(id, entity);
+        }
+
+        entity.setId(id);
+        return id;
+    }
+
+    /**
+     * Removes the entity from cache (from the map by name too, if the name belongs to it).
+     * @param entity entity
+     * @return true if entity was in cache
+     */
+    public synchronized boolean remove(ObjectEntity entity) {
+        boolean isRemoved = entityMap.remove(entity.getName(), entity);
+        return removeId(entity) || isRemoved;
+    }
+
+    /**
+     * Finds the entity by id.
+     * @param id id of entity
+     * @param generation generation of the slot, which was actual when the id was got ({@link #getGeneration(int)})
+     * @return entity, or null if there is no entity with this id or the entity was removed after the id was got.
+     */
+    public ObjectEntity getEntity(int id, int generation) {
+        if (id < 0 || id >= entities.size || generations.get(id) != generation) return null;
+        return entities.get(id);
+    }
+
+    /**
+     * @return generation of the slot of id, -1 if id isn't valid.
+     */
+    public int getGeneration(int id) {
+        if (id < 0 || id >= generations.size) return -1;
+        return generations.get(id);
+    }
+
+    /**
+     * @return count of slots of ids (the max id + 1).
+     */
+    public int getCapacityIds() {
+        return entities.size;
+    }
+
+    private boolean removeId(ObjectEntity entity) {
+        int id = entity.getId();
+        if (id < 0 || id >= entities.size || entities.get(id) != entity) return false;
+
+        release(id);
+        freeIds.add(id);
+        return true;
+    }
+
+    private void release(int id) {
+        ObjectEntity entity = entities.get(id);
+        if (entity == null) return;
+
+        entity.setId(-1);
+        entities.set(id, null);
+        generations.incr(id, 1);
+
+        for (RemovalListener listener : removalListeners) {
+            listener.removedFromCache(entity);
+        }
+    }
+
+    /**
+     * Adds the listener of removing of entities.
+     * @param listener listener
+     */
+    public synchronized void addRemovalListener(RemovalListener listener) {
+        if (!removalListeners.contains(listener, true)) removalListeners.add(listener);
+    }
+
+    public synchronized void removeRemovalListener(RemovalListener listener) {
+        removalListeners.removeValue(listener, true);
     }
 
     public Map<String, ObjectEntity> getEntityMap() {
@@ -43,4 +257,17 @@ public class ObjectCache {
     public Map<String, MapProperties> getDataObjects() {
         return dataObjects;
     }
+
+    /**
+     * Listener of removing of entities from {@link ObjectCache} - by {@link #remove(ObjectEntity)},
+     * by replacing of the entity with the same name or by {@link #clear()}.
+     */
+    public interface RemovalListener {
+
+        /**
+         * Called after the entity is removed from cache (its id is already released).
+         * @param entity removed entity
+         */
+        void removedFromCache(ObjectEntity entity);
+    }
 }
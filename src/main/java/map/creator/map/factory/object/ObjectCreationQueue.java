@@ -0,0 +1,91 @@
+package map.creator.map.factory.object;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Queue of {@link ObjectBatch}'s waiting for creation.
+ * Batches may be added from any thread, but they are taken only from the thread of Box2D World - in {@link ObjectFactory#commitQueued(float)},
+ * unit by unit, so creation of a large level can be spread over several frames.
+ *
+ * @see ObjectBatch
+ * @see ObjectFactory#commitQueued(float)
+ */
+public class ObjectCreationQueue {
+
+    private final ConcurrentLinkedQueue<ObjectBatch> batches = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger countUnits = new AtomicInteger();
+    private volatile int countCommittedUnits;
+
+    /**
+     * The batch, which is being created now.
+     */
+    private ObjectBatch current;
+
+    /**
+     * Index of the next unit of {@link #current}.
+     */
+    private int cursor;
+
+    /**
+     * Adds batch in the end of queue.
+     * @param batch prepared objects.
+     */
+    public void add(ObjectBatch batch) {
+        countUnits.addAndGet(batch.size());
+        batches.add(batch);
+    }
+
+    /**
+     * @return true if all added units are created (or skipped because their batches are cancelled).
+     */
+    public boolean isEmpty() {
+        return (current == null || cursor >= current.size() || current.isCancelled()) && batches.isEmpty();
+    }
+
+    /**
+     * Gives progress of creation of all added units.
+     * @return progress value from 0.0 to 1.0 (1.0 if nothing was added).
+     */
+    public float getProgress() {
+        int units = countUnits.get();
+        return units == 0 ? 1f : Math.min(1f, (float) countCommittedUnits / units);
+    }
+
+    /**
+     * Removes all waiting batches and resets progress.
+     */
+    public void clear() {
+        batches.clear();
+        current = null;
+        cursor = 0;
+        countUnits.set(0);
+        countCommittedUnits = 0;
+    }
+
+    /**
+     * @return the batch of the next unit, or null if queue is empty. Cancelled batches are skipped.
+     */
+    ObjectBatch peekBatch() {
+        while (current == null || cursor >= current.size() || current.isCancelled()) {
+            if (current != null && current.isCancelled()) countCommittedUnits += current.size() - cursor;
+
+            current = batches.poll();
+            cursor = 0;
+
+            if (current == null) return null;
+        }
+
+        return current;
+    }
+
+    /**
+     * @return index of the next unit in {@link #peekBatch()} and moves to the unit after it.
+     */
+    int nextUnit() {
+        countCommittedUnits++;
+        current.onUnitCommitted();
+        return cursor++;
+    }
+}
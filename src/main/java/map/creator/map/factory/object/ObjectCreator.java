@@ -51,4 +51,40 @@ public interface ObjectCreator {
         Shape2D boundsObject
     );
 
+    /**
+     * Gives the schema of properties needed by this creator. If it isn't null, properties of every object are read once
+     * into the reusable {@link PropertyRecord}, which is given to {@link #createObject(String, MapProperties, PropertyRecord, Map, BodyFactory, FormBody, Shape2D)}.
+     * Called once - when the creator is registered in {@link ObjectFactory}.
+     *
+     * @return schema of properties, or null (by default) if the creator reads {@link MapProperties} itself.
+     */
+    default PropertySchema getPropertySchema() {
+        return null;
+    }
+
+    /**
+     * Used for creating a special entity, if the creator has {@link #getPropertySchema()}.
+     * By default - calls {@link #createObject(String, MapProperties, Map, BodyFactory, FormBody, Shape2D)}.
+     *
+     * @param nameBody the name of current object
+     * @param properties properties of the object
+     * @param record values of properties of the schema (reused - mustn't be kept)
+     * @param dataObjects all "data" objects
+     * @param bodyFactory One-stop factory for creating physical bodies and Box2D figures. {@link BodyFactory}
+     * @param formBody Sets form body for object. {@link FormBody}
+     * @param boundsObject bound of current object
+     * @return special {@link ObjectEntity}
+     */
+    default ObjectEntity createObject(
+        String nameBody,
+        MapProperties properties,
+        PropertyRecord record,
+        Map<String, MapProperties> dataObjects,
+        BodyFactory bodyFactory,
+        FormBody formBody,
+        Shape2D boundsObject
+    ) {
+        return createObject(nameBody, properties, dataObjects, bodyFactory, formBody, boundsObject);
+    }
+
 }
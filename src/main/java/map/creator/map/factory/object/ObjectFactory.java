@@ -21,19 +21,26 @@ import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.physics.box2d.FixtureDef;
 import com.badlogic.gdx.physics.box2d.World;
 import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.TimeUtils;
 import map.creator.map.component.body.BodyComponent;
+import map.creator.map.controller.CompiledMap;
 import map.creator.map.controller.MapContainer;
 import map.creator.map.entity.ObjectEntity;
 import map.creator.map.factory.body.BodyFactory;
 import map.creator.map.factory.body.BodyParam;
 import map.creator.map.factory.body.FormBody;
+import map.creator.map.factory.body.RectangleMerger;
+import map.creator.map.factory.body.ShapeDecomposer;
 import map.creator.map.factory.body.UserData;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Central factory for creating game objects from the Tiled map.
@@ -56,14 +63,44 @@ import java.util.Objects;
  */
 public class ObjectFactory implements Disposable {
 
+    /**
+     * Count of objects prepared by one task in {@link #prepareObjectsInParallel}.
+     */
+    private static final int OBJECTS_PER_TASK = 256;
+
     private final Engine engine;
 
+    /**
+     * Properties read by the factory itself for every object.
+     */
+    private static final PropertySchema CORE_SCHEMA = new PropertySchema();
+    private static final int CORE_DATA = CORE_SCHEMA.addBoolean("data", false);
+    private static final int CORE_TYPE = CORE_SCHEMA.addString("type", null);
+    private static final int CORE_FORM = CORE_SCHEMA.addString("form", null);
+    private static final int CORE_LOOPING = CORE_SCHEMA.addBoolean("looping", false);
+    private static final int CORE_CONVEX = CORE_SCHEMA.addBoolean("convex", false);
+
     private final Map<String, ObjectCreator> objectCreators;
 
+    /**
+     * Reusable records of creators, which have {@link ObjectCreator#getPropertySchema()}, by types of objects.
+     */
+    private final Map<String, PropertyRecord> creatorRecords = new HashMap<>();
+
     private final BodyFactory bodyFactory;
 
     private final ObjectCache cache;
 
+    private final ObjectCreationQueue creationQueue = new ObjectCreationQueue();
+
+    private final RectangleMerger rectangleMerger = new RectangleMerger();
+
+    /**
+     * Decomposers of threads, which prepare objects (their buffers can't be shared).
+     */
+    private final ThreadLocal<ShapeDecomposer> decomposers = ThreadLocal.withInitial(ShapeDecomposer::new);
+    private boolean isMergeStaticObjects = false;
+
     public ObjectFactory(World world, Engine engine) {
         this.engine = engine;
         bodyFactory = new BodyFactory(world, 0);
@@ -95,6 +132,20 @@ public class ObjectFactory implements Disposable {
         bodyFactory.setDebug(debug);
     }
 
+    /**
+     * Sets merging of static objects: adjacent or overlapping static rectangles will be merged into larger ones before creation,
+     * so walls made of many tiles give a few fixtures instead of hundreds (learn more in {@link RectangleMerger}).
+     * Only rectangles with the same name and type are merged, so merged rectangles keep names of their objects in {@link UserData}.
+     * @param mergeStaticObjects if true - static rectangles will be merged
+     */
+    public void setMergeStaticObjects(boolean mergeStaticObjects) {
+        isMergeStaticObjects = mergeStaticObjects;
+    }
+
+    public boolean isMergeStaticObjects() {
+        return isMergeStaticObjects;
+    }
+
     public ObjectCache getCache() {
         return cache;
     }
@@ -111,6 +162,10 @@ public class ObjectFactory implements Disposable {
      */
     public void registerCreator(String type, ObjectCreator creator){
         objectCreators.put(type, creator);
+
+        PropertySchema schema = creator.getPropertySchema();
+        if (schema == null) creatorRecords.remove(type);
+        else creatorRecords.put(type, schema.newRecord());
     }
 
     /**
@@ -120,6 +175,7 @@ public class ObjectFactory implements Disposable {
      */
     public void unregisterCreator(String type){
         objectCreators.remove(type);
+        creatorRecords.remove(type);
     }
 
     /**
@@ -134,6 +190,7 @@ public class ObjectFactory implements Disposable {
      */
     public void clearCreators(){
         objectCreators.clear();
+        creatorRecords.clear();
     }
 
     /**
@@ -141,103 +198,495 @@ public class ObjectFactory implements Disposable {
      * @see ObjectCache
      */
     public void clearCache(){
+        creationQueue.clear();
         cache.clear();
     }
 
     /**
      * Creates features in the specified zone on the map layer.
+     * Objects of the zone are found through the spatial index of the layer ({@link MapContainer#getObjectIndex(String)}),
+     * so the cost of loading depends on count of objects in zone, not on count of objects on layer.
      *
      * @param map container map
      * @param nameLayer the name of the layer to be processed
-     * @param zoneLoad zone for loading objects
+     * @param zoneLoad zone for loading objects (if null, then all objects of layer will be created)
      */
     public synchronized void createObjectsOnLayer(MapContainer map, String nameLayer, Shape2D zoneLoad) {
         MapObjects objects = map.getMapObjects(nameLayer);
         bodyFactory.setUnitScale(map.UNIT_SCALE);
-        createObjects(objects, zoneLoad);
+
+        loadAllDataObject(objects);
+        createObjects(zoneLoad == null ? objects : map.getObjectIndex(nameLayer).query(zoneLoad), null);
     }
 
     /**
-     * Creates a game objects from body parameters.
+     * Creates features located in the chunk of the map layer.
+     * Unlike {@link #createObjectsOnLayer(MapContainer, String, Shape2D)} - the chunk is half-open (right and top edges are not included),
+     * so adjacent chunks never create the same object twice. Data objects are not loaded - use {@link #loadDataObjects(MapContainer, String)} for it.
      *
-     * @param objects objects array
-     * @param zoneLoad There will be a check for the content of objects in this area, if they are contained, then they will be created, if not contained then not (if it not null).
+     * @param map container map
+     * @param nameLayer the name of the layer to be processed
+     * @param chunk bounds of the chunk in pixels
+     * @return all created entities (they are not added to {@link Engine}).
      */
-    private synchronized void createObjects(MapObjects objects, Shape2D zoneLoad){
-        ArrayList<BodyParam> staticObjects = new ArrayList<>();
+    public synchronized List<ObjectEntity> createObjectsOnChunk(MapContainer map, String nameLayer, Rectangle chunk) {
+        bodyFactory.setUnitScale(map.UNIT_SCALE);
+
+        List<ObjectEntity> created = new ArrayList<>();
+        createObjects(map.getObjectIndex(nameLayer).queryRange(chunk.x, chunk.y, chunk.width, chunk.height), created);
+
+        return created;
+    }
+
+    /**
+     * Loads all data objects of the layer in {@link ObjectCache}.
+     *
+     * @param map container map
+     * @param nameLayer the name of the layer to be processed
+     */
+    public synchronized void loadDataObjects(MapContainer map, String nameLayer) {
+        loadAllDataObject(map.getMapObjects(nameLayer));
+    }
+
+    /**
+     * Destroys the entity: removes it from {@link Engine} and {@link ObjectCache} and destroys its body (if it has {@link BodyComponent}).
+     *
+     * @param entity the entity to be destroyed
+     */
+    public synchronized void destroyObject(ObjectEntity entity) {
+        engine.removeEntity(entity);
+        cache.remove(entity);
+
+        BodyComponent bodyComponent = entity.getComponent(BodyComponent.class);
+        if (bodyComponent != null) bodyFactory.destroyBody(bodyComponent.getBody());
+    }
+
+    /**
+     * Prepares features in the specified zone on the map layer for creation, but doesn't create them (see {@link ObjectBatch}).
+     * Doesn't touch Box2D World, so it may be called from any thread. Data objects of the layer are loaded in {@link ObjectCache}.
+     *
+     * @param map container map
+     * @param nameLayer the name of the layer to be processed
+     * @param zoneLoad zone for loading objects (if null, then all objects of layer will be prepared)
+     * @return prepared objects
+     */
+    public ObjectBatch prepareObjectsOnLayer(MapContainer map, String nameLayer, Shape2D zoneLoad) {
+        MapObjects objects = map.getMapObjects(nameLayer);
 
         loadAllDataObject(objects);
-        for (Iterator<MapObject> iterator = objects.iterator(); iterator.hasNext(); ) {
-            MapObject object = iterator.next();
-            MapProperties properties = object.getProperties();
+        return prepareObjects(zoneLoad == null ? objects : map.getObjectIndex(nameLayer).query(zoneLoad), map.UNIT_SCALE);
+    }
 
-            if (properties.get("data", Boolean.class) != null && properties.get("data", Boolean.class)) continue;
-            
-            String nameObject = object.getName();
-            String classObject = properties.get("type", String.class);
-            String customForm = properties.get("form", String.class);
+    /**
+     * Creates static collisions of the tile layer from collision shapes of tiles (objects drawn in Tiled tileset editor),
+     * so collisions of walls don't need to be duplicated by hand on an object layer.
+     * All collisions are created under one static body - see {@link #prepareCollisionsFromTileLayer(MapContainer, String)}.
+     *
+     * @param map container map
+     * @param nameLayer the name of the tile layer
+     * @return created entity, or null if tiles of layer have no collision shapes.
+     */
+    public synchronized ObjectEntity createCollisionsFromTileLayer(MapContainer map, String nameLayer) {
+        List<ObjectEntity> created = new ArrayList<>(1);
+        commit(prepareCollisionsFromTileLayer(map, nameLayer), created);
 
-            if (classObject == null) {
-                Gdx.app.error("ObjectsFactory", "Imposable create TileObject because it type is null!", new NullPointerException());
-                return;
-            }
+        return created.isEmpty() ? null : created.get(0);
+    }
 
-            FormBody defaultForm;
-            Shape2D boundsObject;
-            if (object instanceof RectangleMapObject) {
-                boundsObject = ((RectangleMapObject) object).getRectangle();
-                defaultForm = FormBody.RECTANGLE;
+    /**
+     * Prepares static collisions of the tile layer for creation, but doesn't create them (see {@link ObjectBatch}).
+     * Full-width rectangles of adjacent cells are coalesced into row runs while the layer is walked,
+     * then runs are merged vertically by {@link RectangleMerger} - so a solid wall gives a few fixtures instead of one per tile.
+     * Flips and rotation of cells are applied to shapes of tiles.
+     * Doesn't touch Box2D World, so it may be called from any thread.
+     *
+     * @param map container map
+     * @param nameLayer the name of the tile layer
+     * @return prepared collisions (only static objects)
+     * @throws IllegalArgumentException if layer is not a tile layer.
+     */
+    public ObjectBatch prepareCollisionsFromTileLayer(MapContainer map, String nameLayer) {
+        TileLayerReader reader = new TileLayerReader();
+        reader.read(map.getTileLayer(nameLayer));
 
-            } else if (object instanceof CircleMapObject) {
-                boundsObject = ((CircleMapObject) object).getCircle();
-                defaultForm = FormBody.CIRCLE;
+        ObjectBatch batch = new ObjectBatch(map.UNIT_SCALE);
+        PropertyRecord core = CORE_SCHEMA.newRecord();
 
-            } else if (object instanceof EllipseMapObject) {
-                boundsObject = ((EllipseMapObject) object).getEllipse();
-                defaultForm = FormBody.ELLIPSE;
+        for (ObjectBatch.PreparedObject rectangle : reader.rectangles) {
+            batch.staticObjects.add(createBodyParamForStaticObject(rectangle.name, rectangle.type, FormBody.RECTANGLE, rectangle.bounds, null));
+        }
+        mergeStaticRectangles(batch.staticObjects);
 
-            } else if (object instanceof PolylineMapObject) {
-                boundsObject = ((PolylineMapObject) object).getPolyline();
-                defaultForm = FormBody.CHAIN;
+        for (ObjectBatch.PreparedObject shape : reader.shapes) {
+            CORE_SCHEMA.read(shape.properties, core);
+            batch.staticObjects.add(createBodyParamForStaticObject(shape.name, shape.type, shape.formBody, shape.bounds, core));
+        }
 
-            } else if (object instanceof PolygonMapObject) {
-                boundsObject = ((PolygonMapObject) object).getPolygon();
-                defaultForm = FormBody.POLYGON;
+        computeGeometries(batch);
 
+        return batch;
+    }
+
+    /**
+     * Prepares features in the specified zone on the map layers in parallel: objects of every layer are split into parts
+     * (in order of the spatial index, so one part is a compact area of the map), and parts of all layers are prepared on the executor at once -
+     * including triangulation and convex decomposition of static polygons and ellipses, so the commit only creates shapes and bodies.
+     * Then parts are joined - one batch per layer, so every layer still gets one static body and static rectangles are merged over the whole layer.
+     * Data objects are loaded in {@link ObjectCache} on the calling thread before.
+     * Doesn't touch Box2D World - batches must be created by {@link #commit(ObjectBatch, List)} or {@link #enqueue(ObjectBatch)}.
+     *
+     * @param map container map
+     * @param zoneLoad zone for loading objects (if null, then all objects of layers will be prepared)
+     * @param executor executor for preparation of parts (for example - {@link java.util.concurrent.ForkJoinPool#commonPool()})
+     * @param namesLayers the names of the layers to be processed
+     * @return prepared objects - one batch per layer, in order of namesLayers
+     */
+    public List<ObjectBatch> prepareObjectsInParallel(MapContainer map, Shape2D zoneLoad, Executor executor, String... namesLayers) {
+        List<List<CompletableFuture<ObjectBatch>>> tasks = new ArrayList<>(namesLayers.length);
+
+        for (String nameLayer : namesLayers) {
+            MapObjects objects = map.getMapObjects(nameLayer);
+            loadAllDataObject(objects);
+
+            List<MapObject> selected;
+            if (zoneLoad == null) {
+                selected = new ArrayList<>(objects.getCount());
+                for (MapObject object : objects) {
+                    selected.add(object);
+                }
             } else {
+                selected = map.getObjectIndex(nameLayer).query(zoneLoad);
+            }
+
+            List<CompletableFuture<ObjectBatch>> layerTasks = new ArrayList<>();
+            for (int start = 0; start < selected.size(); start += OBJECTS_PER_TASK) {
+                List<MapObject> part = selected.subList(start, Math.min(selected.size(), start + OBJECTS_PER_TASK));
+                layerTasks.add(CompletableFuture.supplyAsync(() -> prepareObjects(part, map.UNIT_SCALE, false), executor));
+            }
+            tasks.add(layerTasks);
+        }
+
+        List<ObjectBatch> batches = new ArrayList<>(namesLayers.length);
+        for (List<CompletableFuture<ObjectBatch>> layerTasks : tasks) {
+            ObjectBatch batch = new ObjectBatch(map.UNIT_SCALE);
+
+            for (CompletableFuture<ObjectBatch> task : layerTasks) {
+                ObjectBatch part = task.join();
+                batch.objects.addAll(part.objects);
+                batch.staticObjects.addAll(part.staticObjects);
+            }
+
+            if (isMergeStaticObjects) mergeStaticRectangles(batch.staticObjects);
+            batches.add(batch);
+        }
+
+        return batches;
+    }
+
+    /**
+     * Creates features in the specified zone on the layer of the compiled map.
+     *
+     * @param map compiled map
+     * @param nameLayer the name of the compiled layer
+     * @param zoneLoad zone for loading objects in pixels (if null, then all objects of layer will be created)
+     * @see #prepareCompiledObjects(CompiledMap, String, Shape2D)
+     */
+    public synchronized void createCompiledObjects(CompiledMap map, String nameLayer, Shape2D zoneLoad) {
+        commit(prepareCompiledObjects(map, nameLayer, zoneLoad), null);
+    }
+
+    /**
+     * Prepares features in the specified zone on the layer of the compiled map for creation, but doesn't create them.
+     * Types and forms of compiled objects are already resolved, so only {@link BodyParam}'s of static objects are built.
+     * Shapes of compiled objects are in pixels, so {@link ObjectCreator}'s get the same bounds as from the .tmx file.
+     * Data objects of the layer are loaded in {@link ObjectCache}.
+     * Doesn't touch Box2D World, so it may be called from any thread.
+     *
+     * @param map compiled map
+     * @param nameLayer the name of the compiled layer
+     * @param zoneLoad zone for loading objects in pixels (if null, then all objects of layer will be prepared)
+     * @return prepared objects
+     * @see MapCompiler
+     */
+    public ObjectBatch prepareCompiledObjects(CompiledMap map, String nameLayer, Shape2D zoneLoad) {
+        loadCompiledDataObjects(map.getDataObjects(nameLayer));
+
+        ObjectBatch batch = new ObjectBatch(map.UNIT_SCALE);
+        PropertyRecord core = CORE_SCHEMA.newRecord();
+
+        for (CompiledMap.CompiledObject object : map.getObjects(nameLayer, zoneLoad)) {
+            if (object.type.equals("static")) {
+                CORE_SCHEMA.read(object.properties, core);
+                batch.staticObjects.add(createBodyParamForStaticObject(object.name, object.type, object.formBody, object.bounds, core));
+                continue;
+            }
+
+            batch.objects.add(new ObjectBatch.PreparedObject(object.name, object.type, object.properties, object.formBody, object.bounds));
+        }
+
+        if (isMergeStaticObjects) mergeStaticRectangles(batch.staticObjects);
+        computeGeometries(batch);
+
+        return batch;
+    }
+
+    /**
+     * Adds prepared objects in the queue of creation. They will be created in {@link #commitQueued(float)}.
+     *
+     * @param batch prepared objects
+     * @see ObjectCreationQueue
+     */
+    public void enqueue(ObjectBatch batch) {
+        creationQueue.add(batch);
+    }
+
+    /**
+     * Creates queued objects until the time budget is spent (at least one object is created per call).
+     * Must be called on the thread of Box2D World - for example, once per frame.
+     * Created entities are added in {@link ObjectBatch#createdEntities} of their batches.
+     *
+     * @param budgetMillis time budget in milliseconds (if it is not positive - all queued objects are created)
+     * @return true if the queue is empty - all queued objects are created.
+     */
+    public synchronized boolean commitQueued(float budgetMillis) {
+        long deadline = TimeUtils.nanoTime() + (long) (budgetMillis * 1_000_000L);
+
+        ObjectBatch batch;
+        while ((batch = creationQueue.peekBatch()) != null) {
+            bodyFactory.setUnitScale(batch.unitScale);
+            commitUnit(batch, creationQueue.nextUnit(), batch.createdEntities);
+
+            if (budgetMillis > 0 && TimeUtils.nanoTime() >= deadline) break;
+        }
+
+        return creationQueue.isEmpty();
+    }
+
+    public ObjectCreationQueue getCreationQueue() {
+        return creationQueue;
+    }
+
+    /**
+     * Creates all prepared objects.
+     *
+     * @param batch prepared objects
+     * @param created list for created entities (may be null).
+     */
+    public synchronized void commit(ObjectBatch batch, List<ObjectEntity> created) {
+        bodyFactory.setUnitScale(batch.unitScale);
+
+        for (int i = 0; i < batch.size(); i++) {
+            commitUnit(batch, i, created);
+        }
+    }
+
+    /**
+     * Creates one unit of batch: object of {@link ObjectCreator} or all static objects (the last unit).
+     *
+     * @param batch prepared objects
+     * @param unit index of unit
+     * @param created list for created entities (may be null).
+     */
+    private void commitUnit(ObjectBatch batch, int unit, List<ObjectEntity> created) {
+        ObjectEntity entity;
+
+        if (unit < batch.objects.size()) {
+            entity = createPreparedObject(batch.objects.get(unit));
+        } else {
+            entity = createStaticObjects(batch.staticObjects);
+        }
+
+        if (created != null && entity != null) created.add(entity);
+    }
+
+    /**
+     * Creates a game objects from body parameters.
+     *
+     * @param objects objects, which will be created (all of them must be located in zone of loading).
+     * @param created list for created entities (may be null).
+     */
+    private synchronized void createObjects(Iterable<MapObject> objects, List<ObjectEntity> created){
+        commit(prepareObjects(objects, bodyFactory.getUnitScale()), created);
+    }
+
+    /**
+     * Classifies shapes of objects, resolves their forms and builds {@link BodyParam}'s of static objects.
+     *
+     * @param objects objects, which will be prepared (all of them must be located in zone of loading).
+     * @param unitScale scale of conversion pixels-to-meters of the map.
+     * @return prepared objects
+     */
+    private ObjectBatch prepareObjects(Iterable<MapObject> objects, float unitScale){
+        return prepareObjects(objects, unitScale, isMergeStaticObjects);
+    }
+
+    /**
+     * Classifies shapes of objects, resolves their forms and builds {@link BodyParam}'s of static objects.
+     *
+     * @param objects objects, which will be prepared (all of them must be located in zone of loading).
+     * @param unitScale scale of conversion pixels-to-meters of the map.
+     * @param isMerge if true - static rectangles will be merged.
+     * @return prepared objects
+     */
+    private ObjectBatch prepareObjects(Iterable<MapObject> objects, float unitScale, boolean isMerge){
+        ObjectBatch batch = new ObjectBatch(unitScale);
+        PropertyRecord core = CORE_SCHEMA.newRecord();
+
+        for (MapObject object : objects) {
+            MapProperties properties = object.getProperties();
+            CORE_SCHEMA.read(properties, core);
+
+            if (core.getBoolean(CORE_DATA)) continue;
+
+            String nameObject = object.getName();
+            String classObject = core.getString(CORE_TYPE);
+            String customForm = core.getString(CORE_FORM);
+
+            if (classObject == null) {
+                Gdx.app.error("ObjectsFactory", "Imposable create TileObject because it type is null! The object - " + nameObject, new NullPointerException());
+                continue;
+            }
+
+            Shape2D boundsObject = getBoundsObject(object);
+            if (boundsObject == null) {
                 Gdx.app.error("ObjectsFactory", "Shape object not found. The object - " + nameObject, new IllegalArgumentException());
                 continue;
             }
 
-            FormBody formBody = customForm == null ? defaultForm : FormBody.getFormBodyOnString(customForm);
-            if (zoneLoad != null && isObjectContainsInZone(zoneLoad, formBody, boundsObject)) continue;
+            FormBody formBody = customForm == null ? getDefaultFormBody(boundsObject) : FormBody.getFormBodyOnString(customForm);
 
             if (classObject.equals("static")) {
-                staticObjects.add(createBodyParamForStaticObject(nameObject, classObject, formBody, boundsObject, properties));
+                batch.staticObjects.add(createBodyParamForStaticObject(nameObject, classObject, formBody, boundsObject, core));
                 continue;
             }
 
-            if (!objectCreators.containsKey(classObject)) {
-                Gdx.app.error("ObjectsFactory", "Unknown type object - " + classObject);
-                continue;
+            batch.objects.add(new ObjectBatch.PreparedObject(nameObject, classObject, properties, formBody, boundsObject));
+        }
+
+        if (isMerge) mergeStaticRectangles(batch.staticObjects);
+        computeGeometries(batch);
+
+        return batch;
+    }
+
+    /**
+     * Computes local vertices and pieces of static polygons and ellipses of the batch (see {@link ShapeDecomposer}),
+     * so the thread of preparation does triangulation and decomposition, and only shapes are created on commit.
+     * Every thread has its own decomposer, but all of them use the cache of {@link BodyFactory#getShapeCache()},
+     * so identical shapes are shared by all batches and loads.
+     * Shapes of objects with {@link ObjectCreator}'s are created by creators, so they are decomposed on commit.
+     *
+     * @param batch prepared objects
+     */
+    private void computeGeometries(ObjectBatch batch) {
+        ShapeDecomposer decomposer = decomposers.get();
+        decomposer.setShapeCache(bodyFactory.getShapeCache());
+
+        for (BodyParam param : batch.staticObjects) {
+            if (param.formBody == FormBody.POLYGON && param.bounds instanceof Polygon) {
+                param.geometry = decomposer.computeGeometry((Polygon) param.bounds, batch.unitScale, param.isConvexDecomposition);
+            } else if (param.formBody == FormBody.ELLIPSE && param.bounds instanceof Ellipse) {
+                param.geometry = decomposer.computeGeometry((Ellipse) param.bounds, batch.unitScale, param.isConvexDecomposition);
             }
+        }
+    }
 
-            ObjectCreator creator = objectCreators.get(classObject);
-            nameObject = getAnotherNameIfThatExists(nameObject, cache.getEntityMap());
-            cache.getEntityMap().put(
-                    nameObject,
-                creator.createObject(
-                    nameObject,
-                    properties,
-                    cache.getDataObjects(),
-                    bodyFactory,
-                    formBody,
-                    boundsObject
-                )
+    /**
+     * @param object map object.
+     * @return bounds of object, or null if shape of object is unknown.
+     */
+    static Shape2D getBoundsObject(MapObject object) {
+        if (object instanceof RectangleMapObject) return ((RectangleMapObject) object).getRectangle();
+        if (object instanceof CircleMapObject) return ((CircleMapObject) object).getCircle();
+        if (object instanceof EllipseMapObject) return ((EllipseMapObject) object).getEllipse();
+        if (object instanceof PolylineMapObject) return ((PolylineMapObject) object).getPolyline();
+        if (object instanceof PolygonMapObject) return ((PolygonMapObject) object).getPolygon();
+
+        return null;
+    }
+
+    /**
+     * @param boundsObject bounds of object.
+     * @return form body of object, which hasn't the property "form".
+     */
+    static FormBody getDefaultFormBody(Shape2D boundsObject) {
+        if (boundsObject instanceof Rectangle) return FormBody.RECTANGLE;
+        if (boundsObject instanceof Circle) return FormBody.CIRCLE;
+        if (boundsObject instanceof Ellipse) return FormBody.ELLIPSE;
+        if (boundsObject instanceof Polyline) return FormBody.CHAIN;
+
+        return FormBody.POLYGON;
+    }
+
+    /**
+     * Replaces static rectangles by merged ones (other forms are not changed).
+     * Only rectangles with the same name and type are merged, so named objects (for example "spikes") keep their names in contacts.
+     * @param staticObjects parameters of static objects
+     * @see RectangleMerger
+     */
+    private void mergeStaticRectangles(ArrayList<BodyParam> staticObjects){
+        Map<String, Map<String, List<Rectangle>>> groups = new LinkedHashMap<>();
+
+        Iterator<BodyParam> iterator = staticObjects.iterator();
+        while (iterator.hasNext()) {
+            BodyParam param = iterator.next();
+            if (param.formBody != FormBody.RECTANGLE) continue;
+
+            groups.computeIfAbsent(param.userData.name, name -> new LinkedHashMap<>())
+                .computeIfAbsent(param.userData.type, type -> new ArrayList<>())
+                .add((Rectangle) param.bounds);
+            iterator.remove();
+        }
+
+        for (Map.Entry<String, Map<String, List<Rectangle>>> names : groups.entrySet()) {
+            for (Map.Entry<String, List<Rectangle>> types : names.getValue().entrySet()) {
+                for (Rectangle rectangle : rectangleMerger.merge(types.getValue())) {
+                    staticObjects.add(createBodyParamForStaticObject(names.getKey(), types.getKey(), FormBody.RECTANGLE, rectangle, null));
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the prepared object by its {@link ObjectCreator} and puts it in {@link ObjectCache}.
+     *
+     * @param object prepared object
+     * @return created entity, or null if there is no creator for type of object.
+     */
+    private ObjectEntity createPreparedObject(ObjectBatch.PreparedObject object) {
+        ObjectCreator creator = objectCreators.get(object.type);
+        if (creator == null) {
+            Gdx.app.error("ObjectsFactory", "Unknown type object - " + object.type);
+            return null;
+        }
+
+        String nameObject = getAnotherNameIfThatExists(object.name, false);
+        ObjectEntity entity;
+
+        PropertyRecord record = creatorRecords.get(object.type);
+        if (record == null) {
+            entity = creator.createObject(
+                nameObject,
+                object.properties,
+                cache.getDataObjects(),
+                bodyFactory,
+                object.formBody,
+                object.bounds
+            );
+        } else {
+            entity = creator.createObject(
+                nameObject,
+                object.properties,
+                record.schema.read(object.properties, record),
+                cache.getDataObjects(),
+                bodyFactory,
+                object.formBody,
+                object.bounds
             );
         }
+        cache.put(nameObject, entity);
 
-        createStaticObjects(staticObjects);
+        return entity;
     }
 
     /**
@@ -246,10 +695,10 @@ public class ObjectFactory implements Disposable {
      * @param classObject class object.
      * @param formBody form body.
      * @param boundsObject bounds object.
-     * @param properties properties object.
+     * @param core core properties of object, read by {@link #CORE_SCHEMA} (may be null).
      * @return BodyParam of static object.
      */
-    private synchronized BodyParam createBodyParamForStaticObject(String nameObject, String classObject, FormBody formBody, Shape2D boundsObject, MapProperties properties){
+    private BodyParam createBodyParamForStaticObject(String nameObject, String classObject, FormBody formBody, Shape2D boundsObject, PropertyRecord core){
         BodyDef bodyDef = new BodyDef();
         bodyDef.fixedRotation = true;
         bodyDef.type = BodyDef.BodyType.StaticBody;
@@ -265,11 +714,12 @@ public class ObjectFactory implements Disposable {
             new UserData(nameObject == null ? "static" : nameObject, classObject, "static")
         );
 
-        if (param.formBody == FormBody.CHAIN) {
-            Boolean isLooping = properties.get("looping", Boolean.class);
-            if (isLooping == null) isLooping = false;
+        if (core == null) return param;
+
+        if (param.formBody == FormBody.CHAIN) param.isLooping = core.getBoolean(CORE_LOOPING);
 
-            param.isLooping = isLooping;
+        if (param.formBody == FormBody.POLYGON || param.formBody == FormBody.ELLIPSE) {
+            param.isConvexDecomposition = core.getBoolean(CORE_CONVEX);
         }
 
         return param;
@@ -280,23 +730,37 @@ public class ObjectFactory implements Disposable {
      * @param objects objects array
      */
     private synchronized void loadAllDataObject(MapObjects objects){
+        PropertyRecord core = CORE_SCHEMA.newRecord();
+
         for (MapObject object : objects) {
             MapProperties properties = object.getProperties();
 
-            Boolean isData = properties.get("data", Boolean.class);
-            if (isData != null && isData) {
+            if (CORE_SCHEMA.read(properties, core).getBoolean(CORE_DATA)) {
                 String name = object.getName();
                 if (name == null)
                     throw new IllegalArgumentException("If object is data, then this one must have a name!");
 
                 cache.getDataObjects().put(
-                    getAnotherNameIfThatExists(name, cache.getDataObjects()),
+                    getAnotherNameIfThatExists(name, true),
                     properties
                 );
             }
         }
     }
 
+    /**
+     * Load compiled data objects in {@link ObjectCache} (names of them are checked by {@link MapCompiler}).
+     * @param objects compiled data objects
+     */
+    private synchronized void loadCompiledDataObjects(List<CompiledMap.CompiledObject> objects){
+        for (CompiledMap.CompiledObject object : objects) {
+            cache.getDataObjects().put(
+                getAnotherNameIfThatExists(object.name, true),
+                object.properties
+            );
+        }
+    }
+
     /**
      * Creates a game object from body parameters.
      *
@@ -309,65 +773,33 @@ public class ObjectFactory implements Disposable {
         ObjectEntity tileEntity = new ObjectEntity(param.userData.name, param.userData.type);
         tileEntity.add(new BodyComponent(body, tileEntity.getName()));
 
-        cache.getEntityMap().put(param.userData.name, tileEntity);
+        cache.put(param.userData.name, tileEntity);
 
         return tileEntity;
     }
 
-    private synchronized void createStaticObjects(ArrayList<BodyParam> bodyParams){
+    private synchronized ObjectEntity createStaticObjects(ArrayList<BodyParam> bodyParams){
+        if (bodyParams.isEmpty()) return null;
+
         Body body = bodyFactory.createCollisionsUnderOneBody(bodyParams);
 
-        String name = getAnotherNameIfThatExists("static", cache.getEntityMap());
+        String name = getAnotherNameIfThatExists("static", false);
         ObjectEntity tileEntity = new ObjectEntity(name, "static");
         tileEntity.add(new BodyComponent(body, tileEntity.getName()));
 
-        cache.getEntityMap().put(name, tileEntity);
-    }
-
-    private synchronized boolean isObjectContainsInZone(Shape2D zoneLoad, FormBody formBody, Shape2D boundsObject){
-        boolean isContains = false;
-
-        if (Objects.requireNonNull(formBody) == FormBody.RECTANGLE) {
-            Rectangle bounds = ((Rectangle) boundsObject);
-            isContains = zoneLoad.contains(bounds.x, bounds.y);
-
-        } else if (formBody == FormBody.CIRCLE) {
-            Circle bounds = ((Circle) boundsObject);
-            isContains = zoneLoad.contains(bounds.x, bounds.y);
-
-        } else if (formBody == FormBody.ELLIPSE) {
-            Ellipse bounds = ((Ellipse) boundsObject);
-            isContains = zoneLoad.contains(bounds.x, bounds.y);
-
-        } else if (formBody == FormBody.CHAIN || formBody == FormBody.EDGE) {
-            Polyline bounds = ((Polyline) boundsObject);
-            isContains = zoneLoad.contains(bounds.getX(), bounds.getY());
+        cache.put(name, tileEntity);
 
-        } else if (formBody == FormBody.POLYGON) {
-            Polygon bounds = ((Polygon) boundsObject);
-            isContains = zoneLoad.contains(bounds.getX(), bounds.getY());
-        }
-
-        return isContains;
+        return tileEntity;
     }
 
     /**
-     * Giving another name if that exists in {@link Map}.
+     * Giving another name if that exists in {@link ObjectCache}.
      * @param currentName name object.
-     * @param map current map.
+     * @param isData true - name of data object, false - name of entity.
      * @return if name exists, then will be added numbers until it is unique.
      */
-    private synchronized String getAnotherNameIfThatExists(String currentName, Map<?, ?> map) {
-        int count = 0;
-        String anotherName = currentName;
-
-        while (map.containsKey(anotherName)) {
-            anotherName = currentName;
-            anotherName += count;
-            count++;
-        }
-
-        return anotherName;
+    private synchronized String getAnotherNameIfThatExists(String currentName, boolean isData) {
+        return isData ? cache.getFreeDataObjectName(currentName) : cache.getFreeEntityName(currentName);
     }
 
     @Override
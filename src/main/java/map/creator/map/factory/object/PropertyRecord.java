@@ -0,0 +1,53 @@
+package map.creator.map.factory.object;
+
+/**
+ * Values of properties of one object, read by {@link PropertySchema#read}.
+ * The record is reused for every object, so it mustn't be kept after {@link ObjectCreator#createObject} returns.
+ *
+ * @see PropertySchema
+ */
+public class PropertyRecord {
+
+    final PropertySchema schema;
+
+    final boolean[] booleans;
+    final int[] ints;
+    final float[] floats;
+    final String[] strings;
+
+    PropertyRecord(PropertySchema schema, int countBooleans, int countInts, int countFloats, int countStrings) {
+        this.schema = schema;
+        booleans = new boolean[countBooleans];
+        ints = new int[countInts];
+        floats = new float[countFloats];
+        strings = new String[countStrings];
+    }
+
+    /**
+     * @param slot slot given by {@link PropertySchema#addBoolean(String, boolean)}
+     */
+    public boolean getBoolean(int slot) {
+        return booleans[slot];
+    }
+
+    /**
+     * @param slot slot given by {@link PropertySchema#addInt(String, int)}
+     */
+    public int getInt(int slot) {
+        return ints[slot];
+    }
+
+    /**
+     * @param slot slot given by {@link PropertySchema#addFloat(String, float)}
+     */
+    public float getFloat(int slot) {
+        return floats[slot];
+    }
+
+    /**
+     * @param slot slot given by {@link PropertySchema#addString(String, String)}
+     */
+    public String getString(int slot) {
+        return strings[slot];
+    }
+}
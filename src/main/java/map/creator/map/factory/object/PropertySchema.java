@@ -0,0 +1,164 @@
+package map.creator.map.factory.object;
+
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BooleanArray;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Schema of properties of map objects: declares keys and types of properties, which are needed by {@link ObjectCreator}.
+ * Properties are read once per object into the reusable {@link PropertyRecord} - every key is looked up once,
+ * and values are stored as primitives, so the creator reads them by slot without lookups, class checks and unboxing.
+ *
+ * <p><b>Example of use:</b></p>
+ * <pre>
+ * {@code
+ * public class EnemyCreator implements ObjectCreator {
+ *     private final PropertySchema schema = new PropertySchema();
+ *     private final int health = schema.addInt("health", 100);
+ *     private final int speed = schema.addFloat("speed", 1f);
+ *     private final int weapon = schema.addString("weapon", "sword");
+ *
+ *     public PropertySchema getPropertySchema() {
+ *         return schema;
+ *     }
+ *
+ *     public ObjectEntity createObject(String nameBody, MapProperties properties, PropertyRecord record, ...) {
+ *         int health = record.getInt(this.health);
+ *         float speed = record.getFloat(this.speed);
+ *         // ...
+ *     }
+ * }
+ * }
+ * </pre>
+ *
+ * <p>Keys must be added before the first record is created by {@link #newRecord()}.
+ * Values of wrong types are replaced by default values (numbers are converted between int and float).</p>
+ *
+ * @see PropertyRecord
+ * @see ObjectCreator#getPropertySchema()
+ */
+public class PropertySchema {
+
+    private final Array<String> booleanKeys = new Array<>();
+    private final BooleanArray booleanDefaults = new BooleanArray();
+
+    private final Array<String> intKeys = new Array<>();
+    private final IntArray intDefaults = new IntArray();
+
+    private final Array<String> floatKeys = new Array<>();
+    private final FloatArray floatDefaults = new FloatArray();
+
+    private final Array<String> stringKeys = new Array<>();
+    private final Array<String> stringDefaults = new Array<>();
+
+    private boolean isLocked;
+
+    /**
+     * Declares the property of type boolean.
+     * @param key key of property
+     * @param defaultValue value, if object hasn't property
+     * @return slot of property in {@link PropertyRecord}
+     * @throws IllegalArgumentException if key is null
+     * @throws IllegalStateException if some record of schema is already created
+     */
+    public int addBoolean(String key, boolean defaultValue) {
+        checkKey(key);
+        booleanKeys.add(key);
+        booleanDefaults.add(defaultValue);
+        return booleanKeys.size - 1;
+    }
+
+    /**
+     * Declares the property of type int.
+     * @param key key of property
+     * @param defaultValue value, if object hasn't property
+     * @return slot of property in {@link PropertyRecord}
+     * @throws IllegalArgumentException if key is null
+     * @throws IllegalStateException if some record of schema is already created
+     */
+    public int addInt(String key, int defaultValue) {
+        checkKey(key);
+        intKeys.add(key);
+        intDefaults.add(defaultValue);
+        return intKeys.size - 1;
+    }
+
+    /**
+     * Declares the property of type float.
+     * @param key key of property
+     * @param defaultValue value, if object hasn't property
+     * @return slot of property in {@link PropertyRecord}
+     * @throws IllegalArgumentException if key is null
+     * @throws IllegalStateException if some record of schema is already created
+     */
+    public int addFloat(String key, float defaultValue) {
+        checkKey(key);
+        floatKeys.add(key);
+        floatDefaults.add(defaultValue);
+        return floatKeys.size - 1;
+    }
+
+    /**
+     * Declares the property of type String (values of other types are converted by {@link String#valueOf(Object)}).
+     * @param key key of property
+     * @param defaultValue value, if object hasn't property (may be null)
+     * @return slot of property in {@link PropertyRecord}
+     * @throws IllegalArgumentException if key is null
+     * @throws IllegalStateException if some record of schema is already created
+     */
+    public int addString(String key, String defaultValue) {
+        checkKey(key);
+        stringKeys.add(key);
+        stringDefaults.add(defaultValue);
+        return stringKeys.size - 1;
+    }
+
+    /**
+     * Creates the record for this schema. After it keys can't be added.
+     * @return new record
+     */
+    public PropertyRecord newRecord() {
+        isLocked = true;
+        return new PropertyRecord(this, booleanKeys.size, intKeys.size, floatKeys.size, stringKeys.size);
+    }
+
+    /**
+     * Reads declared properties into the record (every key is looked up once).
+     * @param properties properties of object
+     * @param out record of this schema
+     * @return out
+     * @throws IllegalArgumentException if the record was created by other schema
+     */
+    public PropertyRecord read(MapProperties properties, PropertyRecord out) {
+        if (out.schema != this) throw new IllegalArgumentException("The record was created by other schema!");
+
+        for (int i = 0; i < booleanKeys.size; i++) {
+            Object value = properties.get(booleanKeys.get(i));
+            out.booleans[i] = value instanceof Boolean ? (Boolean) value : booleanDefaults.get(i);
+        }
+
+        for (int i = 0; i < intKeys.size; i++) {
+            Object value = properties.get(intKeys.get(i));
+            out.ints[i] = value instanceof Number ? ((Number) value).intValue() : intDefaults.get(i);
+        }
+
+        for (int i = 0; i < floatKeys.size; i++) {
+            Object value = properties.get(floatKeys.get(i));
+            out.floats[i] = value instanceof Number ? ((Number) value).floatValue() : floatDefaults.get(i);
+        }
+
+        for (int i = 0; i < stringKeys.size; i++) {
+            Object value = properties.get(stringKeys.get(i));
+            out.strings[i] = value == null ? stringDefaults.get(i) : value instanceof String ? (String) value : String.valueOf(value);
+        }
+
+        return out;
+    }
+
+    private void checkKey(String key) {
+        if (key == null) throw new IllegalArgumentException("Key of property cannot be null!");
+        if (isLocked) throw new IllegalStateException("Keys can't be added after the first record of schema is created!");
+    }
+}
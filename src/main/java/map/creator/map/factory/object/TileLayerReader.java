@@ -0,0 +1,203 @@
+package map.creator.map.factory.object;
+
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.MapObjects;
+import com.badlogic.gdx.maps.objects.EllipseMapObject;
+import com.badlogic.gdx.maps.objects.PolygonMapObject;
+import com.badlogic.gdx.maps.objects.PolylineMapObject;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
+import com.badlogic.gdx.math.Ellipse;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntMap;
+import map.creator.map.factory.body.FormBody;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads collision shapes authored on tiles of a tileset ({@link TiledMapTile#getObjects()}) and places them in cells of a tile layer.
+ *
+ * <p>Rectangles covering the whole width of a tile are coalesced into row runs while the layer is walked,
+ * so a row of wall tiles gives one rectangle instead of one per cell (only rectangles with the same name are coalesced).
+ * Other rectangles are added as they are. All shapes are prepared objects of type "static", named by names of tile objects
+ * ("static" if the object has no name).</p>
+ *
+ * <p>Flips and rotation of cells are applied to all shapes: first flips, then rotation counter-clockwise around the center of tile.
+ * Like the renderer, a rotated tile stays in its cell, so on tiles, which aren't square, rotated shapes are stretched
+ * to the width and height of tile (rotation is done in coordinates normalized by the size of tile).
+ * The offset of layer (with offsets of its groups) is applied to all shapes, like {@link com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer} does.</p>
+ *
+ * @see ObjectFactory#createCollisionsFromTileLayer(map.creator.map.controller.MapContainer, String)
+ */
+class TileLayerReader {
+
+    private static final float EPSILON = 0.01f;
+
+    /**
+     * Rectangles of the layer in pixels (full-width rectangles are already coalesced into row runs).
+     */
+    final List<ObjectBatch.PreparedObject> rectangles = new ArrayList<>();
+
+    /**
+     * Other shapes of the layer in pixels.
+     */
+    final List<ObjectBatch.PreparedObject> shapes = new ArrayList<>();
+
+    /**
+     * Collision objects of tiles by id of tile (tiles without objects are stored as empty arrays).
+     */
+    private final IntMap<MapObject[]> tileObjects = new IntMap<>();
+
+    /**
+     * Row runs, which may be extended by the next cell.
+     */
+    private final List<ObjectBatch.PreparedObject> openRuns = new ArrayList<>();
+
+    private final Rectangle local = new Rectangle();
+
+    /**
+     * Walks all cells of layer and collects their collision shapes.
+     * @param layer tile layer.
+     */
+    void read(TiledMapTileLayer layer) {
+        float tileWidth = layer.getTileWidth();
+        float tileHeight = layer.getTileHeight();
+
+        // offset y of Tiled is directed down
+        float offsetX = layer.getRenderOffsetX();
+        float offsetY = -layer.getRenderOffsetY();
+
+        for (int row = 0; row < layer.getHeight(); row++) {
+            for (int column = 0; column < layer.getWidth(); column++) {
+                float cellX = offsetX + column * tileWidth;
+                float cellY = offsetY + row * tileHeight;
+
+                Cell cell = layer.getCell(column, row);
+                if (cell != null && cell.getTile() != null) {
+                    for (MapObject object : getTileObjects(cell.getTile())) {
+                        readObject(object, cell, cellX, cellY, tileWidth, tileHeight);
+                    }
+                }
+
+                closeRuns(cellX + tileWidth);
+            }
+
+            closeRuns(Float.MAX_VALUE);
+        }
+    }
+
+    private void readObject(MapObject object, Cell cell, float cellX, float cellY, float tileWidth, float tileHeight) {
+        String name = object.getName() == null || object.getName().isEmpty() ? "static" : object.getName();
+
+        if (object instanceof RectangleMapObject) {
+            local.set(((RectangleMapObject) object).getRectangle());
+            transformRectangle(local, cell, tileWidth, tileHeight);
+
+            if (Math.abs(local.x) <= EPSILON && Math.abs(local.width - tileWidth) <= EPSILON) {
+                extendRun(name, object, cellX, cellY + local.y, tileWidth, local.height);
+            } else {
+                rectangles.add(createRectangle(name, object, cellX + local.x, cellY + local.y, local.width, local.height));
+            }
+
+        } else if (object instanceof PolygonMapObject) {
+            Polygon source = ((PolygonMapObject) object).getPolygon();
+
+            // scale is applied before rotation, so odd rotations get the ratio of sides of tile in it
+            float ratio = cell.getRotation() % 2 == 1 ? tileHeight / tileWidth : 1;
+
+            Polygon polygon = new Polygon(source.getVertices());
+            polygon.setPosition(cellX + source.getX(), cellY + source.getY());
+            polygon.setOrigin(tileWidth / 2 - source.getX(), tileHeight / 2 - source.getY());
+            polygon.setScale((cell.getFlipHorizontally() ? -1 : 1) * ratio, (cell.getFlipVertically() ? -1 : 1) / ratio);
+            polygon.setRotation(cell.getRotation() * 90);
+
+            shapes.add(new ObjectBatch.PreparedObject(name, "static", object.getProperties(), FormBody.POLYGON, polygon));
+
+        } else if (object instanceof EllipseMapObject) {
+            // x and y of ellipse of map object are the corner of its bounds
+            Ellipse source = ((EllipseMapObject) object).getEllipse();
+            local.set(source.x, source.y, source.width, source.height);
+            transformRectangle(local, cell, tileWidth, tileHeight);
+
+            shapes.add(new ObjectBatch.PreparedObject(name, "static", object.getProperties(), FormBody.ELLIPSE,
+                new Ellipse(cellX + local.x, cellY + local.y, local.width, local.height)));
+        }
+    }
+
+    /**
+     * Extends the open run with the same name, bottom edge and height, which ends in this cell, or opens a new run.
+     */
+    private void extendRun(String name, MapObject object, float x, float y, float width, float height) {
+        for (ObjectBatch.PreparedObject open : openRuns) {
+            Rectangle run = (Rectangle) open.bounds;
+            if (!open.name.equals(name)) continue;
+
+            if (Math.abs(run.y - y) <= EPSILON && Math.abs(run.height - height) <= EPSILON && Math.abs(run.x + run.width - x) <= EPSILON) {
+                run.width += width;
+                return;
+            }
+        }
+
+        openRuns.add(createRectangle(name, object, x, y, width, height));
+    }
+
+    /**
+     * Closes runs, which were not extended to the edge.
+     * @param edge the right edge of the current cell.
+     */
+    private void closeRuns(float edge) {
+        for (int i = openRuns.size() - 1; i >= 0; i--) {
+            Rectangle run = (Rectangle) openRuns.get(i).bounds;
+            if (run.x + run.width < edge - EPSILON) {
+                rectangles.add(openRuns.remove(i));
+            }
+        }
+    }
+
+    private static ObjectBatch.PreparedObject createRectangle(String name, MapObject object, float x, float y, float width, float height) {
+        return new ObjectBatch.PreparedObject(name, "static", object.getProperties(), FormBody.RECTANGLE, new Rectangle(x, y, width, height));
+    }
+
+    /**
+     * Applies flips and rotation of cell to rectangle in local coordinates of tile.
+     */
+    private void transformRectangle(Rectangle rectangle, Cell cell, float tileWidth, float tileHeight) {
+        if (cell.getFlipHorizontally()) rectangle.x = tileWidth - rectangle.x - rectangle.width;
+        if (cell.getFlipVertically()) rectangle.y = tileHeight - rectangle.y - rectangle.height;
+
+        // rotation by 90 degrees counter-clockwise around the center of tile: (x, y) -> (1 - y, x) in normalized coordinates
+        for (int i = 0; i < cell.getRotation(); i++) {
+            rectangle.set(
+                tileWidth - (rectangle.y + rectangle.height) * tileWidth / tileHeight,
+                rectangle.x * tileHeight / tileWidth,
+                rectangle.height * tileWidth / tileHeight,
+                rectangle.width * tileHeight / tileWidth
+            );
+        }
+    }
+
+    private MapObject[] getTileObjects(TiledMapTile tile) {
+        MapObject[] objects = tileObjects.get(tile.getId());
+
+        if (objects == null) {
+            MapObjects mapObjects = tile.getObjects();
+            List<MapObject> collisions = new ArrayList<>();
+
+            if (mapObjects != null) {
+                for (MapObject object : mapObjects) {
+                    if (object instanceof PolylineMapObject) continue;
+                    collisions.add(object);
+                }
+            }
+
+            objects = collisions.toArray(new MapObject[0]);
+            tileObjects.put(tile.getId(), objects);
+        }
+
+        return objects;
+    }
+}
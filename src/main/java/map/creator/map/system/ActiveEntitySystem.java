@@ -1,12 +1,130 @@
 package map.creator.map.system;
 
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.gdx.utils.ObjectFloatMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectSet;
 import map.creator.map.component.body.BodyComponent;
 import map.creator.map.component.data.ContactDataComponent;
 import map.creator.map.entity.ObjectEntity;
 import map.creator.map.factory.body.UserData;
 import map.creator.map.system.contact.impl.ContactFullIteratingSystem;
 
-public class ActiveEntitySystem extends ContactFullIteratingSystem {
+/**
+ * Adds in {@link Engine} entities, which touch active zones ({@link map.creator.map.component.loader.ActiveZoneComponent}),
+ * and removes them, when they leave all active zones.
+ *
+ * <p>Count of touched zones is stored per entity, so an entity overlapping several zones is added and removed only once.
+ * Entities of Engine are tracked by the listener of Engine - membership is checked without scanning of all entities.</p>
+ *
+ * <p>Changes of Engine are committed once per update, after all contacts are processed: an entity which leaves
+ * and enters zones in one update stays as it was. An entity which left all zones is removed only after
+ * the grace period ({@link #setGracePeriod(float)}), so entities straddling the edge of zone don't thrash.</p>
+ */
+public class ActiveEntitySystem extends ContactFullIteratingSystem implements EntityListener {
+
+    private static final ComponentMapper<BodyComponent> BODY_MAPPER = ComponentMapper.getFor(BodyComponent.class);
+
+    /**
+     * Count of active zones touching the entity.
+     */
+    private final ObjectIntMap<ObjectEntity> zoneCounts = new ObjectIntMap<>();
+
+    /**
+     * Entities of Engine (including entities, whose adding is pending).
+     */
+    private final ObjectSet<Entity> engineEntities = new ObjectSet<>();
+
+    /**
+     * Entities entered zones in the current update.
+     */
+    private final ObjectSet<ObjectEntity> pendingActivations = new ObjectSet<>();
+
+    /**
+     * Entities left all zones: remaining time until their removal.
+     */
+    private final ObjectFloatMap<ObjectEntity> pendingDeactivations = new ObjectFloatMap<>();
+
+    /**
+     * Time in seconds, which an entity stays active after it left all zones.
+     */
+    private float gracePeriod;
+
+    public float getGracePeriod() {
+        return gracePeriod;
+    }
+
+    /**
+     * @param gracePeriod time in seconds, which an entity stays active after it left all zones (0 - removed on the next commit).
+     * @throws IllegalArgumentException if gracePeriod is negative.
+     */
+    public void setGracePeriod(float gracePeriod) {
+        if (gracePeriod < 0) throw new IllegalArgumentException("Grace period mustn't be negative!");
+        this.gracePeriod = gracePeriod;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        super.addedToEngine(engine);
+
+        engineEntities.clear();
+        for (Entity entity : engine.getEntities()) {
+            engineEntities.add(entity);
+        }
+        engine.addEntityListener(this);
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        super.removedFromEngine(engine);
+
+        engine.removeEntityListener(this);
+        engineEntities.clear();
+        zoneCounts.clear();
+        pendingActivations.clear();
+        pendingDeactivations.clear();
+    }
+
+    /**
+     * Processes contacts, then commits activations and deactivations of this update.
+     * @param deltaTime The time passed since last frame in seconds.
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+
+        for (ObjectEntity entity : pendingActivations) {
+            activate(entity);
+        }
+        pendingActivations.clear();
+
+        ObjectFloatMap.Entries<ObjectEntity> iterator = pendingDeactivations.entries();
+        while (iterator.hasNext()) {
+            ObjectFloatMap.Entry<ObjectEntity> entry = iterator.next();
+            float remaining = entry.value - deltaTime;
+
+            if (remaining > 0) {
+                pendingDeactivations.put(entry.key, remaining);
+                continue;
+            }
+
+            iterator.remove();
+            deactivate(entry.key);
+        }
+    }
+
+    @Override
+    public void entityAdded(Entity entity) {
+        engineEntities.add(entity);
+    }
+
+    @Override
+    public void entityRemoved(Entity entity) {
+        engineEntities.remove(entity);
+    }
 
     @Override
     public boolean beginContact(ContactDataComponent component, float deltaTime) {
@@ -50,19 +168,40 @@ public class ActiveEntitySystem extends ContactFullIteratingSystem {
     }
 
     private void activeZoneHandlerBegin(ObjectEntity currentEntity){
-        if (getEngine().getEntities().contains(currentEntity, true)) return;
-        getEngine().addEntity(currentEntity);
+        if (zoneCounts.getAndIncrement(currentEntity, 0, 1) > 0) return;
 
-        if (currentEntity.getComponent(BodyComponent.class) == null) return;
-        currentEntity.getComponent(BodyComponent.class).getBody().setAwake(true);
+        // the entity returned in zone during the grace period - it is still active
+        if (pendingDeactivations.containsKey(currentEntity)) {
+            pendingDeactivations.remove(currentEntity, 0);
+            return;
+        }
+        pendingActivations.add(currentEntity);
     }
 
     private void activeZoneHandlerEnd(ObjectEntity currentEntity){
-        if (!getEngine().getEntities().contains(currentEntity, true)) return;
+        int count = zoneCounts.getAndIncrement(currentEntity, 0, -1) - 1;
+        if (count > 0) return;
+        zoneCounts.remove(currentEntity, 0);
+
+        // the entity left the zone before it was activated
+        if (pendingActivations.remove(currentEntity)) return;
+        pendingDeactivations.put(currentEntity, gracePeriod);
+    }
+
+    private void activate(ObjectEntity currentEntity){
+        if (!engineEntities.add(currentEntity)) return;
+        getEngine().addEntity(currentEntity);
+
+        BodyComponent bodyComponent = BODY_MAPPER.get(currentEntity);
+        if (bodyComponent != null) bodyComponent.getBody().setAwake(true);
+    }
+
+    private void deactivate(ObjectEntity currentEntity){
+        if (!engineEntities.remove(currentEntity)) return;
         getEngine().removeEntity(currentEntity);
 
-        if (currentEntity.getComponent(BodyComponent.class) == null) return;
-        currentEntity.getComponent(BodyComponent.class).getBody().setAwake(false);
+        BodyComponent bodyComponent = BODY_MAPPER.get(currentEntity);
+        if (bodyComponent != null) bodyComponent.getBody().setAwake(false);
     }
 
 }
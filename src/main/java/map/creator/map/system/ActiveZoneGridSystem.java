@@ -0,0 +1,447 @@
+package map.creator.map.system;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.CircleShape;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.Shape;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import map.creator.map.component.body.BodyComponent;
+import map.creator.map.component.loader.ActiveZoneComponent;
+import map.creator.map.entity.ObjectEntity;
+import map.creator.map.factory.object.ObjectCache;
+
+/**
+ * Activates entities by active zones without contacts of Box2D - the alternative to {@link ActiveEntitySystem}
+ * (use only one of them). Sleeping bodies don't generate contacts, but they are found here too.
+ *
+ * <p>Bodies of all entities of {@link ObjectCache} are stored in a spatial hash (uniform grid of cells in meters).
+ * Every {@link #getInterval()} updates the system finds entities in cells overlapping bounds of every zone
+ * ({@link ActiveZoneComponent} of entities of Engine), compares them with the previous active set
+ * and adds/removes only the difference. Only awake bodies are moved between cells, sleeping ones stay where they were.</p>
+ *
+ * <p><b>Example of use:</b></p>
+ * <pre>
+ * {@code
+ * ActiveZoneGridSystem system = new ActiveZoneGridSystem(objectCache, 4f, 5);
+ * engine.addSystem(system);
+ * // after a new map is created
+ * system.refreshEntities();
+ * }
+ * </pre>
+ *
+ * <p>Entities owning an {@link ActiveZoneComponent} are sources of zones, they are never deactivated.
+ * Static bodies aren't candidates too - one static body may hold collisions of a whole layer,
+ * and its position says nothing about where its fixtures are.
+ * Entities removed from {@link ObjectCache} (for example, destroyed ones) are dropped from candidates at once,
+ * so their bodies are never touched after it.</p>
+ *
+ * <p>To avoid thrashing of entities on the edge of zone, an entity is activated inside zone grown by the enter margin,
+ * stays active inside zone grown by the exit margin (exit margin is usually bigger), and is deactivated only
+ * after it was outside all zones during the grace period.</p>
+ */
+public class ActiveZoneGridSystem extends EntitySystem implements EntityListener, ObjectCache.RemovalListener {
+
+    private static final ComponentMapper<BodyComponent> BODY_MAPPER = ComponentMapper.getFor(BodyComponent.class);
+    private static final ComponentMapper<ActiveZoneComponent> ZONE_MAPPER = ComponentMapper.getFor(ActiveZoneComponent.class);
+
+    private final ObjectCache objectCache;
+    private final float cellSize;
+    private final int interval;
+
+    /**
+     * If true, deactivated bodies are removed from simulation ({@code setActive(false)}), else they are only put to sleep.
+     */
+    private boolean isDeactivateBodies;
+
+    private float enterMargin;
+    private float exitMargin;
+    private float gracePeriod;
+
+    // candidates (entities of cache with bodies)
+    private final Array<ObjectEntity> entities = new Array<>();
+    private final Array<Body> bodies = new Array<>();
+    private final ObjectIntMap<ObjectEntity> indices = new ObjectIntMap<>();
+    private long[] entityCells = new long[0];
+    private boolean[] active = new boolean[0];
+    private boolean[] removed = new boolean[0];
+    private int[] stamps = new int[0];
+    private float[] outsideTimes = new float[0];
+
+    /**
+     * Indices of candidates by keys of cells.
+     */
+    private final LongMap<IntArray> cells = new LongMap<>();
+
+    private IntArray activeIndices = new IntArray();
+    private IntArray nextActiveIndices = new IntArray();
+
+    /**
+     * Entities of Engine (including entities, whose adding is pending).
+     */
+    private final ObjectSet<Entity> engineEntities = new ObjectSet<>();
+
+    private ImmutableArray<Entity> zones;
+
+    private final Rectangle zoneBounds = new Rectangle();
+    private final Rectangle enterBounds = new Rectangle();
+    private final Rectangle exitBounds = new Rectangle();
+    private final Vector2 vertex = new Vector2();
+
+    private int frame;
+    private int pass;
+
+    /**
+     * Time since the previous pass.
+     */
+    private float elapsed;
+
+    /**
+     * @param objectCache cache of entities of the map.
+     * @param cellSize size of cell in meters.
+     * @param interval count of updates between passes (1 - every update).
+     * @throws IllegalArgumentException if cellSize or interval isn't positive.
+     */
+    public ActiveZoneGridSystem(ObjectCache objectCache, float cellSize, int interval) {
+        if (cellSize <= 0) throw new IllegalArgumentException("Size of cell must be positive!");
+        if (interval <= 0) throw new IllegalArgumentException("Interval must be positive!");
+        this.objectCache = objectCache;
+        this.cellSize = cellSize;
+        this.interval = interval;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public boolean isDeactivateBodies() {
+        return isDeactivateBodies;
+    }
+
+    /**
+     * @param deactivateBodies if true, deactivated bodies are removed from simulation ({@code setActive(false)}),
+     *                         so they don't collide - use it only if inactive objects mustn't collide with anything.
+     */
+    public void setDeactivateBodies(boolean deactivateBodies) {
+        isDeactivateBodies = deactivateBodies;
+    }
+
+    public float getEnterMargin() {
+        return enterMargin;
+    }
+
+    public float getExitMargin() {
+        return exitMargin;
+    }
+
+    /**
+     * Sets margins of zones.
+     * @param enterMargin distance in meters around zone, inside which an entity is activated.
+     * @param exitMargin distance in meters around zone, inside which an active entity stays active (usually bigger than enterMargin).
+     * @throws IllegalArgumentException if some margin is negative.
+     */
+    public void setMargins(float enterMargin, float exitMargin) {
+        if (enterMargin < 0 || exitMargin < 0) throw new IllegalArgumentException("Margins mustn't be negative!");
+        this.enterMargin = enterMargin;
+        this.exitMargin = exitMargin;
+    }
+
+    public float getGracePeriod() {
+        return gracePeriod;
+    }
+
+    /**
+     * @param gracePeriod time in seconds, which an entity stays active after it left all zones (0 - deactivated on the next pass).
+     * @throws IllegalArgumentException if gracePeriod is negative.
+     */
+    public void setGracePeriod(float gracePeriod) {
+        if (gracePeriod < 0) throw new IllegalArgumentException("Grace period mustn't be negative!");
+        this.gracePeriod = gracePeriod;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        zones = engine.getEntitiesFor(Family.all(ActiveZoneComponent.class).get());
+
+        engineEntities.clear();
+        for (Entity entity : engine.getEntities()) {
+            engineEntities.add(entity);
+        }
+        engine.addEntityListener(this);
+        objectCache.addRemovalListener(this);
+
+        refreshEntities();
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        engine.removeEntityListener(this);
+        objectCache.removeRemovalListener(this);
+        engineEntities.clear();
+        zones = null;
+    }
+
+    @Override
+    public void entityAdded(Entity entity) {
+        engineEntities.add(entity);
+    }
+
+    @Override
+    public void entityRemoved(Entity entity) {
+        engineEntities.remove(entity);
+    }
+
+    /**
+     * Drops the candidate of the removed entity: it's removed from its cell, and from active ones on the next pass.
+     */
+    @Override
+    public void removedFromCache(ObjectEntity entity) {
+        int index = indices.remove(entity, -1);
+        if (index < 0) return;
+
+        IntArray cell = cells.get(entityCells[index]);
+        if (cell != null) cell.removeValue(index);
+
+        removed[index] = true;
+        entities.set(index, null);
+        bodies.set(index, null);
+    }
+
+    /**
+     * Rebuilds the spatial hash by entities of {@link ObjectCache}. Must be called after creation or removing of objects of the map.
+     */
+    public void refreshEntities() {
+        entities.clear();
+        bodies.clear();
+        indices.clear();
+        cells.clear();
+        activeIndices.clear();
+
+        for (ObjectEntity entity : objectCache.getEntityMap().values()) {
+            BodyComponent bodyComponent = BODY_MAPPER.get(entity);
+            if (bodyComponent == null || ZONE_MAPPER.get(entity) != null) continue;
+
+            // a static body may hold a whole layer (its position is only the center of all fixtures), so it's never deactivated
+            Body body = bodyComponent.getBody();
+            if (body.getType() == BodyDef.BodyType.StaticBody) continue;
+
+            indices.put(entity, entities.size);
+            entities.add(entity);
+            bodies.add(body);
+        }
+
+        int count = entities.size;
+        entityCells = new long[count];
+        active = new boolean[count];
+        removed = new boolean[count];
+        stamps = new int[count];
+        outsideTimes = new float[count];
+
+        for (int i = 0; i < count; i++) {
+            Vector2 position = bodies.get(i).getPosition();
+            entityCells[i] = getCellKey(getCell(position.x), getCell(position.y));
+            getOrCreateCell(entityCells[i]).add(i);
+
+            // entities, which are already in Engine, are considered active - they will be deactivated on the first pass if they are outside zones
+            if (engineEntities.contains(entities.get(i))) {
+                active[i] = true;
+                activeIndices.add(i);
+            }
+        }
+
+        frame = 0;
+        elapsed = 0;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        elapsed += deltaTime;
+        if (zones == null || frame++ % interval != 0) return;
+        pass++;
+
+        rehashAwakeBodies();
+
+        nextActiveIndices.clear();
+        for (Entity zone : zones) {
+            if (!getZoneBounds(ZONE_MAPPER.get(zone).getActiveZone(), zoneBounds)) continue;
+
+            grow(zoneBounds, enterMargin, enterBounds);
+            grow(zoneBounds, exitMargin, exitBounds);
+            collect();
+        }
+
+        // bulk commit: deactivate entities, which are outside all zones longer than the grace period, then activate new ones
+        for (int i = 0; i < activeIndices.size; i++) {
+            int index = activeIndices.get(i);
+            if (stamps[index] == pass || removed[index]) continue;
+
+            outsideTimes[index] += elapsed;
+            if (outsideTimes[index] >= gracePeriod) {
+                deactivate(index);
+            } else {
+                stamps[index] = pass;
+                nextActiveIndices.add(index);
+            }
+        }
+        for (int i = 0; i < nextActiveIndices.size; i++) {
+            int index = nextActiveIndices.get(i);
+            if (!active[index]) activate(index);
+        }
+
+        IntArray previous = activeIndices;
+        activeIndices = nextActiveIndices;
+        nextActiveIndices = previous;
+        elapsed = 0;
+    }
+
+    /**
+     * Moves awake bodies in their new cells.
+     */
+    private void rehashAwakeBodies() {
+        for (int i = 0; i < bodies.size; i++) {
+            Body body = bodies.get(i);
+            if (body == null || !body.isAwake()) continue;
+
+            Vector2 position = body.getPosition();
+            long cell = getCellKey(getCell(position.x), getCell(position.y));
+            if (cell == entityCells[i]) continue;
+
+            cells.get(entityCells[i]).removeValue(i);
+            getOrCreateCell(cell).add(i);
+            entityCells[i] = cell;
+        }
+    }
+
+    /**
+     * Stamps candidates inside the current zone with the current pass and puts them in {@link #nextActiveIndices} (once):
+     * inactive ones - inside {@link #enterBounds}, active ones - inside {@link #exitBounds}.
+     */
+    private void collect() {
+        float minX = Math.min(enterBounds.x, exitBounds.x), minY = Math.min(enterBounds.y, exitBounds.y);
+        float maxX = Math.max(enterBounds.x + enterBounds.width, exitBounds.x + exitBounds.width);
+        float maxY = Math.max(enterBounds.y + enterBounds.height, exitBounds.y + exitBounds.height);
+
+        int startX = getCell(minX), endX = getCell(maxX);
+        int startY = getCell(minY), endY = getCell(maxY);
+
+        for (int x = startX; x <= endX; x++) {
+            for (int y = startY; y <= endY; y++) {
+                IntArray cell = cells.get(getCellKey(x, y));
+                if (cell == null) continue;
+
+                for (int i = 0; i < cell.size; i++) {
+                    int index = cell.get(i);
+                    if (stamps[index] == pass) continue;
+
+                    Vector2 position = bodies.get(index).getPosition();
+                    Rectangle bounds = active[index] ? exitBounds : enterBounds;
+                    if (!bounds.contains(position.x, position.y)) continue;
+
+                    stamps[index] = pass;
+                    outsideTimes[index] = 0;
+                    nextActiveIndices.add(index);
+                }
+            }
+        }
+    }
+
+    private void activate(int index) {
+        active[index] = true;
+
+        Body body = bodies.get(index);
+        if (isDeactivateBodies) body.setActive(true);
+        body.setAwake(true);
+
+        ObjectEntity entity = entities.get(index);
+        if (engineEntities.add(entity)) getEngine().addEntity(entity);
+    }
+
+    private void deactivate(int index) {
+        active[index] = false;
+        outsideTimes[index] = 0;
+
+        Body body = bodies.get(index);
+        body.setAwake(false);
+        if (isDeactivateBodies) body.setActive(false);
+
+        ObjectEntity entity = entities.get(index);
+        if (engineEntities.remove(entity)) getEngine().removeEntity(entity);
+    }
+
+    /**
+     * Computes world bounds of fixture of the zone (only circles and polygons are supported).
+     * @return false if shape of fixture isn't supported.
+     */
+    private boolean getZoneBounds(Fixture fixture, Rectangle out) {
+        Body body = fixture.getBody();
+        Shape shape = fixture.getShape();
+
+        if (shape instanceof CircleShape) {
+            CircleShape circle = (CircleShape) shape;
+            Vector2 center = body.getWorldPoint(circle.getPosition());
+            float radius = circle.getRadius();
+            out.set(center.x - radius, center.y - radius, radius * 2, radius * 2);
+            return true;
+        }
+
+        if (shape instanceof PolygonShape) {
+            PolygonShape polygon = (PolygonShape) shape;
+            float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+            float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+
+            for (int i = 0; i < polygon.getVertexCount(); i++) {
+                polygon.getVertex(i, vertex);
+                Vector2 point = body.getWorldPoint(vertex);
+                minX = Math.min(minX, point.x);
+                minY = Math.min(minY, point.y);
+                maxX = Math.max(maxX, point.x);
+                maxY = Math.max(maxY, point.y);
+            }
+
+            out.set(minX, minY, maxX - minX, maxY - minY);
+            return true;
+        }
+
+        return false;
+    }
+
+    private static void grow(Rectangle bounds, float margin, Rectangle out) {
+        out.set(bounds.x - margin, bounds.y - margin, bounds.width + margin * 2, bounds.height + margin * 2);
+    }
+
+    private IntArray getOrCreateCell(long key) {
+        IntArray cell = cells.get(key);
+        if (cell == null) {
+            cell = new IntArray();
+            cells.put(key, cell);
+        }
+
+        return cell;
+    }
+
+    private int getCell(float coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long getCellKey(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,38 @@
+package map.creator.map.system;
+
+import com.badlogic.ashley.core.EntitySystem;
+import map.creator.map.system.contact.ContactEventQueue;
+
+/**
+ * Frees finished contact entities of {@link MapContactListener} and flushes its {@link ContactEventQueue}
+ * once per update of {@link com.badlogic.ashley.core.Engine}.
+ * Has the lowest priority, so it is updated after all contact systems have marked and removed their entities.
+ *
+ * <p><b>Example of use:</b></p>
+ * <pre>
+ * {@code
+ * MapContactListener listener = new MapContactListener(engine, objectCache);
+ * world.setContactListener(listener);
+ * engine.addSystem(new ContactCleanSystem(listener));
+ * }
+ * </pre>
+ *
+ * @see MapContactListener#clearDataComponent()
+ */
+public class ContactCleanSystem extends EntitySystem {
+
+    private final MapContactListener contactListener;
+
+    public ContactCleanSystem(MapContactListener contactListener) {
+        super(Integer.MAX_VALUE);
+        this.contactListener = contactListener;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        contactListener.clearDataComponent();
+
+        ContactEventQueue eventQueue = contactListener.getEventQueue();
+        if (eventQueue != null) eventQueue.flush();
+    }
+}
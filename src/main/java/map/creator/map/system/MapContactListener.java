@@ -1,13 +1,18 @@
 package map.creator.map.system;
 
+import com.badlogic.ashley.core.ComponentMapper;
 import com.badlogic.ashley.core.Engine;
 import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.Family;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.physics.box2d.Contact;
 import com.badlogic.gdx.physics.box2d.ContactImpulse;
 import com.badlogic.gdx.physics.box2d.ContactListener;
 import com.badlogic.gdx.physics.box2d.Fixture;
 import com.badlogic.gdx.physics.box2d.Manifold;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
 import com.badlogic.gdx.utils.Pool;
 import map.creator.map.component.data.CleanComponent;
 import map.creator.map.component.data.ContactDataComponent;
@@ -16,69 +21,93 @@ import map.creator.map.component.data.ContactTypeComponent;
 import map.creator.map.entity.ObjectEntity;
 import map.creator.map.factory.object.ObjectCache;
 import map.creator.map.factory.body.UserData;
-
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
+import map.creator.map.system.contact.ContactEventQueue;
+import map.creator.map.utils.LongIntMap;
 
 /**
  * Standard implementation for handler contacts.
  * @see ContactListener
  */
-public class MapContactListener implements ContactListener {
+public class MapContactListener implements ContactListener, EntityListener {
+
+    private static final Family CONTACT_FAMILY = Family.all(CleanComponent.class, ContactTypeComponent.class, ContactDataComponent.class).get();
+
+    private static final ComponentMapper<CleanComponent> CLEAN_MAPPER = ComponentMapper.getFor(CleanComponent.class);
+    private static final ComponentMapper<ContactTypeComponent> TYPE_MAPPER = ComponentMapper.getFor(ContactTypeComponent.class);
+    private static final ComponentMapper<ContactDataComponent> DATA_MAPPER = ComponentMapper.getFor(ContactDataComponent.class);
 
     protected final Engine engine;
     protected final Pool<Entity> entityPool;
-    protected final Map<String, Entity> contactDataComponents;
+    /**
+     * Entities of contacts by keys of pairs ({@link #getContactKey(UserData, UserData)}).
+     */
+    protected final LongMap<Entity> contactDataComponents;
 
-    protected final Map<String, Integer> activeContacts = new HashMap<>();
+    /**
+     * Count of touching pairs of fixtures by keys of pairs ({@link #getContactKey(UserData, UserData)}).
+     */
+    protected final LongIntMap activeContacts = new LongIntMap();
 
     protected final ObjectCache objectsCache;
 
+    /**
+     * Finished contact entities (marked by {@link CleanComponent#isMustBeDelete} and removed from Engine), which wait to be freed.
+     */
+    protected final Array<Entity> finishedContacts = new Array<>(false, 16);
+
+    /**
+     * Queue of contact events. If it is set, contacts don't become entities.
+     */
+    protected ContactEventQueue eventQueue;
+
     protected boolean isDebug;
 
     public MapContactListener(Engine engine, ObjectCache objectsCache) {
         this.engine = engine;
         this.objectsCache = objectsCache;
-        contactDataComponents = new HashMap<>();
+        contactDataComponents = new LongMap<>();
 
         entityPool = new Pool<Entity>() {
             @Override
             protected Entity newObject() {
-                return new Entity();
+                return newContactEntity();
             }
         };
         isDebug = false;
+        engine.addEntityListener(CONTACT_FAMILY, this);
     }
 
-    public MapContactListener(Engine engine, Pool<Entity> entityPool, Map<String, Entity> dataComponents, ObjectCache objectsCache) {
+    public MapContactListener(Engine engine, Pool<Entity> entityPool, LongMap<Entity> dataComponents, ObjectCache objectsCache) {
         this.engine = engine;
         this.entityPool = entityPool;
         this.contactDataComponents = dataComponents;
         this.objectsCache = objectsCache;
         isDebug = false;
+        engine.addEntityListener(CONTACT_FAMILY, this);
     }
 
     public MapContactListener(Engine engine, ObjectCache objectsCache, boolean isDebug) {
         this.engine = engine;
         this.objectsCache = objectsCache;
         this.isDebug = isDebug;
-        contactDataComponents = new HashMap<>();
+        contactDataComponents = new LongMap<>();
 
         entityPool = new Pool<Entity>() {
             @Override
             protected Entity newObject() {
-                return new Entity();
+                return newContactEntity();
             }
         };
+        engine.addEntityListener(CONTACT_FAMILY, this);
     }
 
-    public MapContactListener(Engine engine, Pool<Entity> entityPool, Map<String, Entity> dataComponents, ObjectCache objectsCache, boolean isDebug) {
+    public MapContactListener(Engine engine, Pool<Entity> entityPool, LongMap<Entity> dataComponents, ObjectCache objectsCache, boolean isDebug) {
         this.engine = engine;
         this.entityPool = entityPool;
         this.contactDataComponents = dataComponents;
         this.objectsCache = objectsCache;
         this.isDebug = isDebug;
+        engine.addEntityListener(CONTACT_FAMILY, this);
     }
 
     public boolean isDebug() {
@@ -89,6 +118,24 @@ public class MapContactListener implements ContactListener {
         isDebug = debug;
     }
 
+    public ContactEventQueue getEventQueue() {
+        return eventQueue;
+    }
+
+    /**
+     * Switches the listener on the queue of events: BEGIN and END of every pair are written in the queue instead of creating contact entities.
+     * Set the same queue in contact systems ({@link map.creator.map.system.contact.ContactIteratingSystem#setEventQueue(ContactEventQueue)})
+     * and add {@link ContactCleanSystem}, which flushes the queue.
+     * Should be called before the first contact - contacts already started as entities will end as entities.
+     * In this mode {@link ContactDataComponent#contact} is null - the world reuses the {@link Contact} of callbacks,
+     * so it can't be read after the step.
+     *
+     * @param eventQueue queue or null (contacts become entities)
+     */
+    public void setEventQueue(ContactEventQueue eventQueue) {
+        this.eventQueue = eventQueue;
+    }
+
     /**
      * Called when two fixtures begin to touch.
      *
@@ -161,21 +208,26 @@ public class MapContactListener implements ContactListener {
      * @param userDataB user data of the second object
      */
     protected void handlerBegun(Contact contact, ObjectEntity entityA, ObjectEntity entityB, UserData userDataA, UserData userDataB) {
-        String name = userDataA.name + userDataB.name;
+        long key = getContactKey(userDataA, userDataB);
+        int count = activeContacts.getAndIncrement(key, 0, 1);
 
-        if (activeContacts.containsKey(name)) {
-            activeContacts.computeIfPresent(name, (k, v) -> v + 1);
-        } else {
-            activeContacts.put(name, 1);
+        if (eventQueue != null) {
+            if (count == 0) eventQueue.begin(key, entityA, entityB, userDataA, userDataB);
+            return;
         }
 
-        Entity entity = entityPool.obtain()
-                .add(new CleanComponent())
-                .add(new ContactTypeComponent(ContactType.BEGIN))
-                .add(new ContactDataComponent(contact, entityA, entityB, userDataA, userDataB));
+        Entity entity = entityPool.obtain();
+        // entities of a custom pool may come without components - then they get them once
+        if (!CONTACT_FAMILY.matches(entity)) {
+            entity.add(new CleanComponent()).add(new ContactTypeComponent()).add(new ContactDataComponent());
+        }
+
+        CLEAN_MAPPER.get(entity).set(key);
+        TYPE_MAPPER.get(entity).type = ContactType.BEGIN;
+        DATA_MAPPER.get(entity).set(contact, entityA, entityB, userDataA, userDataB);
 
         engine.addEntity(entity);
-        contactDataComponents.put(name, entity);
+        contactDataComponents.put(key, entity);
     }
 
     /**
@@ -185,40 +237,113 @@ public class MapContactListener implements ContactListener {
      * @param userDataB user data of the second object
      */
     protected void handlerEnd(UserData userDataA, UserData userDataB) {
-        String name = userDataA.name + userDataB.name;
+        long key = getContactKey(userDataA, userDataB);
+
+        if (activeContacts.containsKey(key)) {
+            int count = activeContacts.getAndIncrement(key, 0, -1) - 1;
 
-        if (activeContacts.containsKey(name)) {
-            activeContacts.computeIfPresent(name, (k, v) -> v - 1);
-            Integer integer = activeContacts.get(name);
+            if (count == 0) {
+                Entity entity = contactDataComponents.get(key);
 
-            if (integer == 0) {
-                contactDataComponents.get(name).getComponent(ContactTypeComponent.class).type = ContactType.END;
+                if (entity != null) {
+                    TYPE_MAPPER.get(entity).type = ContactType.END;
+                } else if (eventQueue != null) {
+                    activeContacts.remove(key, 0);
+                    eventQueue.end(key);
+                }
             }
         }
     }
 
     /**
-     * Clean unnecessary up unnecessary entities by CleanComponent.
-     * If cleanComponent.isMustBeDelete == true, then object going to delete.
+     * Gives the key of pair of fixtures: ids of names of their {@link UserData}'s (the smaller one in low 32 bits),
+     * so the key doesn't depend on order of fixtures and different pairs never get the same key.
+     *
+     * @param userDataA user data of the first object
+     * @param userDataB user data of the second object
+     * @return key of pair
      */
-    protected final void clearDataComponent() {
-        if (contactDataComponents.isEmpty()) return;
+    protected final long getContactKey(UserData userDataA, UserData userDataB) {
+        int idA = getNameId(userDataA);
+        int idB = getNameId(userDataB);
 
-        Iterator<Map.Entry<String, Entity>> iterator = contactDataComponents.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<String, Entity> entry = iterator.next();
-            Entity entity = entry.getValue();
-            String key = entry.getKey();
+        int low = Math.min(idA, idB);
+        int high = Math.max(idA, idB);
 
-            CleanComponent comp = entity.getComponent(CleanComponent.class);
-            if (comp != null && comp.isMustBeDelete) {
-                entityPool.free(entity);
-                engine.removeEntity(entity);
-                iterator.remove();
-                activeContacts.remove(key);
-                break;
+        return ((long) high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gives the id of the name of fixture from {@link ObjectCache}. It is remembered in {@link UserData#id},
+     * so next contacts don't hash the name - until the cache is cleared.
+     * @param userData user data fixtures.
+     * @return id of name.
+     */
+    protected final int getNameId(UserData userData) {
+        int generation = objectsCache.getNameIdsGeneration();
+        if (userData.id < 0 || userData.idGeneration != generation) {
+            userData.id = objectsCache.getNameId(userData.name);
+            userData.idGeneration = generation;
+        }
+
+        return userData.id;
+    }
+
+    /**
+     * Frees all finished contact entities in one pass: returns them in the pool and forgets their pairs.
+     * Called by {@link ContactCleanSystem} at the end of the step and by {@link #beginContact(Contact)},
+     * so the cost depends only on the count of finished contacts.
+     */
+    public final void clearDataComponent() {
+        for (int i = 0; i < finishedContacts.size; i++) {
+            Entity entity = finishedContacts.get(i);
+            long key = CLEAN_MAPPER.get(entity).key;
+
+            // the pair may already have a new contact entity, which began after the end of this one
+            if (contactDataComponents.get(key) == entity) {
+                contactDataComponents.remove(key);
+                activeContacts.remove(key, 0);
             }
+            resetContactEntity(entity);
+            entityPool.free(entity);
         }
+        finishedContacts.clear();
+    }
+
+    /**
+     * Nothing to do - contact entities are added by {@link #handlerBegun}.
+     */
+    @Override
+    public void entityAdded(Entity entity) {
+
+    }
+
+    /**
+     * Puts the removed contact entity in the list of finished contacts, if it is marked by {@link CleanComponent#isMustBeDelete}.
+     */
+    @Override
+    public void entityRemoved(Entity entity) {
+        CleanComponent comp = CLEAN_MAPPER.get(entity);
+        if (comp != null && comp.isMustBeDelete) finishedContacts.add(entity);
+    }
+
+    /**
+     * Creates the entity of contact with all its components - they are reused together with the entity.
+     */
+    protected static Entity newContactEntity() {
+        return new Entity()
+                .add(new CleanComponent())
+                .add(new ContactTypeComponent())
+                .add(new ContactDataComponent());
+    }
+
+    /**
+     * Resets components of the finished contact entity before it returns in the pool.
+     */
+    protected static void resetContactEntity(Entity entity) {
+        CLEAN_MAPPER.get(entity).reset();
+        TYPE_MAPPER.get(entity).reset();
+        DATA_MAPPER.get(entity).reset();
     }
 
     protected final UserData getUserData(Fixture fixture) {
@@ -227,11 +352,21 @@ public class MapContactListener implements ContactListener {
 
     /**
      * Getting ObjectEntity from {@link ObjectCache} by name owner {@link UserData}. If it is null, then method will seek ObjectEntity by its name.
+     * The found entity is remembered in {@link UserData#ownerId}, so next contacts find it by index without hashing of strings.
      * @param userData user data fixtures.
      * @return ObjectEntity if it will be found, else null.
      */
     protected final ObjectEntity getEntity(UserData userData) {
-        return objectsCache.getEntityMap().get(userData.owner == null || userData.owner.isEmpty() ? userData.name : userData.owner);
+        ObjectEntity entity = objectsCache.getEntity(userData.ownerId, userData.ownerGeneration);
+        if (entity != null) return entity;
+
+        entity = objectsCache.getEntityMap().get(userData.owner == null || userData.owner.isEmpty() ? userData.name : userData.owner);
+        if (entity != null && entity.getId() >= 0) {
+            userData.ownerId = entity.getId();
+            userData.ownerGeneration = objectsCache.getGeneration(entity.getId());
+        }
+
+        return entity;
     }
 
 }
@@ -1,9 +1,11 @@
 package map.creator.map.system;
 
+import map.creator.map.entity.EntityTypeRegistry;
 import map.creator.map.entity.ObjectEntity;
 import map.creator.map.system.contact.ContactIteratingSystem;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -37,23 +39,102 @@ import java.util.Set;
 public class ObjectEntityFilter {
 
     /**
-     * All types supported entities.
+     * All types supported entities (unmodifiable - {@link #mask} is computed by them once).
      */
     public final Set<String> entityTypes;
 
+    /**
+     * Mask of {@link #entityTypes} in {@link EntityTypeRegistry}.
+     */
+    private final long mask;
+
+    // pair rules: the first entity has type of pairTypesA[i], the second - of pairTypesB[i] (in any order)
+    private String[] pairTypesA = new String[0];
+    private String[] pairTypesB = new String[0];
+    private long[] pairMasksA = new long[0];
+    private long[] pairMasksB = new long[0];
+
     public ObjectEntityFilter(String... entityTypes) {
         if (entityTypes == null || entityTypes.length == 0) throw new IllegalArgumentException("entityTypes cannot be null or empty!");
-        this.entityTypes = new HashSet<>(Arrays.asList(entityTypes));
+        this.entityTypes = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(entityTypes)));
+        this.mask = EntityTypeRegistry.getMask(this.entityTypes);
+    }
+
+    private ObjectEntityFilter() {
+        this.entityTypes = Collections.emptySet();
+        this.mask = 0;
     }
 
     /**
-     * Will check "entityTypes" contains types "AEntity" and "BEntity".
+     * Creates the filter, which passes only contacts of an entity of typeA with an entity of typeB.
+     * <pre>
+     * {@code
+     * ObjectEntityFilter filter = ObjectEntityFilter.pair("player", "enemy").addPair("bullet", "enemy");
+     * }
+     * </pre>
+     * @param typeA type of one entity
+     * @param typeB type of other entity
+     * @return new filter
+     * @throws IllegalArgumentException if some type is null.
+     */
+    public static ObjectEntityFilter pair(String typeA, String typeB) {
+        return new ObjectEntityFilter().addPair(typeA, typeB);
+    }
+
+    /**
+     * Adds the pair rule: contact of an entity of typeA with an entity of typeB passes the filter (in any order of entities).
+     * @param typeA type of one entity
+     * @param typeB type of other entity
+     * @return this filter
+     * @throws IllegalArgumentException if some type is null.
+     */
+    public ObjectEntityFilter addPair(String typeA, String typeB) {
+        if (typeA == null || typeB == null) throw new IllegalArgumentException("Types of pair cannot be null!");
+
+        int count = pairTypesA.length;
+        pairTypesA = Arrays.copyOf(pairTypesA, count + 1);
+        pairTypesB = Arrays.copyOf(pairTypesB, count + 1);
+        pairMasksA = Arrays.copyOf(pairMasksA, count + 1);
+        pairMasksB = Arrays.copyOf(pairMasksB, count + 1);
+
+        pairTypesA[count] = typeA;
+        pairTypesB[count] = typeB;
+        pairMasksA[count] = EntityTypeRegistry.getBit(typeA);
+        pairMasksB[count] = EntityTypeRegistry.getBit(typeB);
+        return this;
+    }
+
+    /**
+     * Will check "entityTypes" contains types "AEntity" and "BEntity", or the entities match some pair rule.
+     * Types are compared by bits of {@link EntityTypeRegistry}, strings are compared only for types without bit.
      * @param AEntity The first {@link ObjectEntity} in contact.
      * @param BEntity The second {@link ObjectEntity} in contact.
-     * @return True if in "entityTypes" contains types "AEntity" and "BEntity". Else - false.
+     * @return True if in "entityTypes" contains types "AEntity" and "BEntity" or some pair rule matches. Else - false.
      */
     public boolean check(ObjectEntity AEntity, ObjectEntity BEntity){
-        return entityTypes.contains(AEntity.getType()) && entityTypes.contains(BEntity.getType());
+        long bitA = AEntity.getTypeBit();
+        long bitB = BEntity.getTypeBit();
+        if (bitA == 0 || bitB == 0) return checkByTypes(AEntity.getType(), BEntity.getType());
+
+        if ((mask & bitA) != 0 && (mask & bitB) != 0) return true;
+
+        for (int i = 0; i < pairMasksA.length; i++) {
+            if ((pairMasksA[i] & bitA) != 0 && (pairMasksB[i] & bitB) != 0) return true;
+            if ((pairMasksA[i] & bitB) != 0 && (pairMasksB[i] & bitA) != 0) return true;
+        }
+
+        return false;
+    }
+
+    private boolean checkByTypes(String typeA, String typeB) {
+        if (entityTypes.contains(typeA) && entityTypes.contains(typeB)) return true;
+
+        for (int i = 0; i < pairTypesA.length; i++) {
+            if (pairTypesA[i].equals(typeA) && pairTypesB[i].equals(typeB)) return true;
+            if (pairTypesA[i].equals(typeB) && pairTypesB[i].equals(typeA)) return true;
+        }
+
+        return false;
     }
 
 }
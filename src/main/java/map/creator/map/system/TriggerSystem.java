@@ -2,7 +2,6 @@ package map.creator.map.system;
 
 import com.badlogic.ashley.core.Component;
 import com.badlogic.ashley.core.Entity;
-import map.creator.map.component.ObjectComponent;
 import map.creator.map.component.data.ContactDataComponent;
 import map.creator.map.component.trigger.Trigger;
 import map.creator.map.factory.body.UserData;
@@ -54,7 +53,7 @@ public class TriggerSystem extends ContactFullIteratingSystem {
     }
 
     /**
-     * Getting current trigger.
+     * Getting current trigger. The trigger is searched in components of the entity only once - then it is stored in {@link UserData#trigger}.
      * (P.S: if will be discovered 2 triggers in contact, then will be return null)
      * @param entityA First entity which contains contacting fixture.
      * @param entityB Second entity which contains contacting fixture.
@@ -64,16 +63,15 @@ public class TriggerSystem extends ContactFullIteratingSystem {
      * @throws UnexpectedBehaviorException if trigger for some reason not be found.
      */
     private Trigger getTrigger(Entity entityA, Entity entityB, UserData userDataA, UserData userDataB){
-        String triggerName = "trigger";
-        if (userDataA.type.equals(triggerName) && userDataB.type.equals(triggerName)) return null;
+        if (userDataA.isTrigger && userDataB.isTrigger) return null;
 
         Entity currentEntity;
         UserData currentUserData;
-        if (userDataA.type.equals(triggerName)){
+        if (userDataA.isTrigger){
             currentEntity = entityA;
             currentUserData = userDataA;
 
-        } else if (userDataB.type.equals(triggerName)){
+        } else if (userDataB.isTrigger){
             currentEntity = entityB;
             currentUserData = userDataB;
 
@@ -81,10 +79,13 @@ public class TriggerSystem extends ContactFullIteratingSystem {
             return null;
         }
 
-        for (Component component : currentEntity.getComponents()) {
-            ObjectComponent tileComponent = (ObjectComponent) component;
+        if (currentUserData.trigger != null) return currentUserData.trigger;
 
-            if (tileComponent.getName().equals(currentUserData.name)) return (Trigger) tileComponent;
+        for (Component component : currentEntity.getComponents()) {
+            if (component instanceof Trigger && ((Trigger) component).getName().equals(currentUserData.name)) {
+                currentUserData.trigger = (Trigger) component;
+                return currentUserData.trigger;
+            }
         }
 
         throw new UnexpectedBehaviorException("Trigger not be found.");
@@ -0,0 +1,319 @@
+package map.creator.map.system.contact;
+
+import map.creator.map.component.data.ContactDataComponent;
+import map.creator.map.component.data.ContactType;
+import map.creator.map.entity.ObjectEntity;
+import map.creator.map.factory.body.UserData;
+import map.creator.map.utils.LongIntMap;
+
+import java.util.Arrays;
+
+/**
+ * Queue of contact events - the alternative to contact entities of {@link map.creator.map.system.MapContactListener}.
+ * Contacts don't become entities of {@link com.badlogic.ashley.core.Engine}, so families of systems are not re-evaluated on every contact.
+ *
+ * <p>The queue consists of two parts, both stored as preallocated arrays (one array per field):</p>
+ * <ul>
+ * <li>ring buffer of BEGIN and END events of the current step</li>
+ * <li>table of active pairs (between BEGIN and END) - they give STAY</li>
+ * </ul>
+ *
+ * <p><b>Example of use:</b></p>
+ * <pre>
+ * {@code
+ * ContactEventQueue queue = new ContactEventQueue();
+ * contactListener.setEventQueue(queue);
+ * triggerSystem.setEventQueue(queue);
+ * engine.addSystem(triggerSystem);
+ * engine.addSystem(new ContactCleanSystem(contactListener)); // flushes the events at the end of update
+ * }
+ * </pre>
+ *
+ * <p>Arrays grow only if the events of one step or active pairs don't fit in them.
+ * Events are forgotten only by {@link #flush()} - without {@link map.creator.map.system.ContactCleanSystem}
+ * the ring would grow on every step, so more than {@value #MAX_EVENTS} not flushed events are rejected with exception.</p>
+ *
+ * <p>Systems read the events written before the first read after the previous flush ({@link #sizeEvents()} fixes the mark),
+ * and {@link #flush()} forgets only them. So events written by a step of the world, which runs after the systems
+ * (for example, the world is stepped at the end of the frame or several times per frame), are read on the next update.</p>
+ *
+ * <p>The queue doesn't keep {@link com.badlogic.gdx.physics.box2d.Contact}: the world gives every callback the same reused wrapper,
+ * which points to another contact (or a destroyed one) by the time systems read the event.
+ * So {@link ContactDataComponent#contact} of events and pairs is always null.</p>
+ *
+ * @see ContactIteratingSystem#setEventQueue(ContactEventQueue)
+ */
+public class ContactEventQueue {
+
+    /**
+     * Max count of not flushed events.
+     */
+    public static final int MAX_EVENTS = 1 << 20;
+
+    // events (ring buffer, indices are absolute numbers of events masked by eventMask)
+    private ContactType[] eventTypes;
+    private ObjectEntity[] eventEntitiesA;
+    private ObjectEntity[] eventEntitiesB;
+    private UserData[] eventDataA;
+    private UserData[] eventDataB;
+    private int eventMask;
+
+    /**
+     * Absolute number of the first not flushed event.
+     */
+    private long head;
+
+    /**
+     * Absolute number of the next written event.
+     */
+    private long tail;
+
+    /**
+     * Absolute number of the event after the last readable one - {@link #tail} at the first read after the flush (-1 - nothing is read yet).
+     */
+    private long mark = -1;
+
+    // active pairs (dense, removal swaps the last pair into the freed slot)
+    private long[] pairKeys;
+    private ObjectEntity[] pairEntitiesA;
+    private ObjectEntity[] pairEntitiesB;
+    private UserData[] pairDataA;
+    private UserData[] pairDataB;
+    private long[] pairBegunEvents;
+    private int countPairs;
+
+    /**
+     * Slot of the active pair by key of pair.
+     */
+    private final LongIntMap pairSlots = new LongIntMap();
+
+    /**
+     * Creates a queue for 256 events per step and 256 active pairs.
+     */
+    public ContactEventQueue() {
+        this(256, 256);
+    }
+
+    /**
+     * @param capacityEvents initial count of events of one step (rounded up to a power of two).
+     * @param capacityPairs initial count of active pairs.
+     * @throws IllegalArgumentException if some capacity isn't positive.
+     */
+    public ContactEventQueue(int capacityEvents, int capacityPairs) {
+        if (capacityEvents <= 0 || capacityPairs <= 0) throw new IllegalArgumentException("Capacities of queue must be positive!");
+
+        int capacity = 1;
+        while (capacity < capacityEvents) capacity <<= 1;
+
+        allocateEvents(capacity);
+        allocatePairs(capacityPairs);
+    }
+
+    /**
+     * Writes the BEGIN event and makes the pair active.
+     *
+     * @param key key of pair of fixtures
+     * @param entityA the first contact object
+     * @param entityB the second contact object
+     * @param userDataA user data of the first object
+     * @param userDataB user data of the second object
+     */
+    public void begin(long key, ObjectEntity entityA, ObjectEntity entityB, UserData userDataA, UserData userDataB) {
+        long event = tail;
+        writeEvent(ContactType.BEGIN, entityA, entityB, userDataA, userDataB);
+
+        int slot = pairSlots.get(key, -1);
+        if (slot < 0) {
+            if (countPairs == pairKeys.length) growPairs();
+            slot = countPairs++;
+            pairSlots.put(key, slot);
+        }
+
+        pairKeys[slot] = key;
+        pairEntitiesA[slot] = entityA;
+        pairEntitiesB[slot] = entityB;
+        pairDataA[slot] = userDataA;
+        pairDataB[slot] = userDataB;
+        pairBegunEvents[slot] = event;
+    }
+
+    /**
+     * Writes the END event with data of the active pair and removes the pair. Does nothing if the pair isn't active.
+     * @param key key of pair of fixtures
+     */
+    public void end(long key) {
+        int slot = pairSlots.remove(key, -1);
+        if (slot < 0) return;
+
+        writeEvent(ContactType.END, pairEntitiesA[slot], pairEntitiesB[slot], pairDataA[slot], pairDataB[slot]);
+
+        int last = --countPairs;
+        if (slot != last) {
+            pairKeys[slot] = pairKeys[last];
+            pairEntitiesA[slot] = pairEntitiesA[last];
+            pairEntitiesB[slot] = pairEntitiesB[last];
+            pairDataA[slot] = pairDataA[last];
+            pairDataB[slot] = pairDataB[last];
+            pairBegunEvents[slot] = pairBegunEvents[last];
+            pairSlots.put(pairKeys[slot], slot);
+        }
+
+        pairEntitiesA[last] = pairEntitiesB[last] = null;
+        pairDataA[last] = pairDataB[last] = null;
+    }
+
+    /**
+     * Gives count of readable events. The first call after the flush fixes them - events written after it are read after the next flush.
+     * @return count of readable events.
+     */
+    public int sizeEvents() {
+        if (mark < 0) mark = tail;
+        return (int) (mark - head);
+    }
+
+    /**
+     * @return count of not flushed events (including events written after the read ones).
+     */
+    public int sizePendingEvents() {
+        return (int) (tail - head);
+    }
+
+    /**
+     * @param index index of event from 0 to {@link #sizeEvents()}
+     * @return type of event: BEGIN or END
+     */
+    public ContactType getEventType(int index) {
+        return eventTypes[(int) (head + index) & eventMask];
+    }
+
+    /**
+     * Copies data of event in the component (the component isn't kept by the queue, so it can be reused).
+     * {@link ContactDataComponent#contact} is set to null - the queue doesn't keep contacts.
+     * @param index index of event from 0 to {@link #sizeEvents()}
+     * @param out component for data
+     * @return out
+     */
+    public ContactDataComponent getEvent(int index, ContactDataComponent out) {
+        int i = (int) (head + index) & eventMask;
+        return out.set(null, eventEntitiesA[i], eventEntitiesB[i], eventDataA[i], eventDataB[i]);
+    }
+
+    /**
+     * @return count of active pairs.
+     */
+    public int sizePairs() {
+        return countPairs;
+    }
+
+    /**
+     * @param index index of pair from 0 to {@link #sizePairs()}
+     * @return true if BEGIN event of the pair isn't flushed yet (the pair began in the current step).
+     */
+    public boolean isPairBegun(int index) {
+        return pairBegunEvents[index] >= head;
+    }
+
+    /**
+     * Copies data of active pair in the component ({@link ContactDataComponent#contact} is set to null).
+     * @param index index of pair from 0 to {@link #sizePairs()}
+     * @param out component for data
+     * @return out
+     */
+    public ContactDataComponent getPair(int index, ContactDataComponent out) {
+        return out.set(null, pairEntitiesA[index], pairEntitiesB[index], pairDataA[index], pairDataB[index]);
+    }
+
+    /**
+     * Forgets read events (active pairs stay), or all events if nothing was read after the previous flush.
+     * Called once per update after all systems have read the events.
+     */
+    public void flush() {
+        forget(mark < 0 ? tail : mark);
+    }
+
+    /**
+     * Forgets all events and active pairs.
+     */
+    public void clear() {
+        forget(tail);
+
+        Arrays.fill(pairEntitiesA, 0, countPairs, null);
+        Arrays.fill(pairEntitiesB, 0, countPairs, null);
+        Arrays.fill(pairDataA, 0, countPairs, null);
+        Arrays.fill(pairDataB, 0, countPairs, null);
+        countPairs = 0;
+        pairSlots.clear();
+    }
+
+    private void forget(long end) {
+        for (long event = head; event < end; event++) {
+            int i = (int) event & eventMask;
+            eventEntitiesA[i] = eventEntitiesB[i] = null;
+            eventDataA[i] = eventDataB[i] = null;
+        }
+        head = end;
+        mark = -1;
+    }
+
+    private void writeEvent(ContactType type, ObjectEntity entityA, ObjectEntity entityB, UserData userDataA, UserData userDataB) {
+        if (tail - head == eventTypes.length) {
+            if (eventTypes.length >= MAX_EVENTS) {
+                throw new IllegalStateException("Contact events are not flushed - add ContactCleanSystem in Engine or call flush() once per update!");
+            }
+            growEvents();
+        }
+
+        int i = (int) tail & eventMask;
+        eventTypes[i] = type;
+        eventEntitiesA[i] = entityA;
+        eventEntitiesB[i] = entityB;
+        eventDataA[i] = userDataA;
+        eventDataB[i] = userDataB;
+        tail++;
+    }
+
+    private void allocateEvents(int capacity) {
+        eventTypes = new ContactType[capacity];
+        eventEntitiesA = new ObjectEntity[capacity];
+        eventEntitiesB = new ObjectEntity[capacity];
+        eventDataA = new UserData[capacity];
+        eventDataB = new UserData[capacity];
+        eventMask = capacity - 1;
+    }
+
+    private void growEvents() {
+        ContactType[] types = eventTypes;
+        ObjectEntity[] entitiesA = eventEntitiesA, entitiesB = eventEntitiesB;
+        UserData[] dataA = eventDataA, dataB = eventDataB;
+        int mask = eventMask;
+
+        allocateEvents(types.length << 1);
+        for (long event = head; event < tail; event++) {
+            int from = (int) event & mask, to = (int) event & eventMask;
+            eventTypes[to] = types[from];
+            eventEntitiesA[to] = entitiesA[from];
+            eventEntitiesB[to] = entitiesB[from];
+            eventDataA[to] = dataA[from];
+            eventDataB[to] = dataB[from];
+        }
+    }
+
+    private void allocatePairs(int capacity) {
+        pairKeys = new long[capacity];
+        pairEntitiesA = new ObjectEntity[capacity];
+        pairEntitiesB = new ObjectEntity[capacity];
+        pairDataA = new UserData[capacity];
+        pairDataB = new UserData[capacity];
+        pairBegunEvents = new long[capacity];
+    }
+
+    private void growPairs() {
+        int capacity = pairKeys.length << 1;
+        pairKeys = Arrays.copyOf(pairKeys, capacity);
+        pairEntitiesA = Arrays.copyOf(pairEntitiesA, capacity);
+        pairEntitiesB = Arrays.copyOf(pairEntitiesB, capacity);
+        pairDataA = Arrays.copyOf(pairDataA, capacity);
+        pairDataB = Arrays.copyOf(pairDataB, capacity);
+        pairBegunEvents = Arrays.copyOf(pairBegunEvents, capacity);
+    }
+}
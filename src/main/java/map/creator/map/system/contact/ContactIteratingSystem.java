@@ -6,13 +6,29 @@ import com.badlogic.ashley.core.Family;
 import com.badlogic.ashley.systems.IteratingSystem;
 import map.creator.map.component.data.CleanComponent;
 import map.creator.map.component.data.ContactDataComponent;
+import map.creator.map.component.data.ContactType;
 import map.creator.map.component.data.ContactTypeComponent;
 import map.creator.map.system.ObjectEntityFilter;
 
+/**
+ * Base of contact systems. Processes contact entities of {@link map.creator.map.system.MapContactListener},
+ * and - if the queue is set by {@link #setEventQueue(ContactEventQueue)} - contact events of {@link ContactEventQueue}.
+ */
 public abstract class ContactIteratingSystem extends IteratingSystem implements ContactSystem{
 
+    protected static final ComponentMapper<CleanComponent> CLEAN_MAPPER = ComponentMapper.getFor(CleanComponent.class);
+    protected static final ComponentMapper<ContactTypeComponent> TYPE_MAPPER = ComponentMapper.getFor(ContactTypeComponent.class);
+    protected static final ComponentMapper<ContactDataComponent> DATA_MAPPER = ComponentMapper.getFor(ContactDataComponent.class);
+
     private final ObjectEntityFilter filter;
 
+    private ContactEventQueue eventQueue;
+
+    /**
+     * Flyweight component, which is filled by data of every event of queue.
+     */
+    private final ContactDataComponent eventData = new ContactDataComponent();
+
     protected ContactIteratingSystem() {
         super(getDefaultFamily());
 
@@ -33,8 +49,72 @@ public abstract class ContactIteratingSystem extends IteratingSystem implements
         ).get();
     }
 
+    public ContactEventQueue getEventQueue() {
+        return eventQueue;
+    }
+
+    /**
+     * Sets the queue of contact events, which will be processed on every update in addition to contact entities.
+     * @param eventQueue queue (the same as in {@link map.creator.map.system.MapContactListener#setEventQueue(ContactEventQueue)}) or null.
+     */
+    public void setEventQueue(ContactEventQueue eventQueue) {
+        this.eventQueue = eventQueue;
+    }
+
+    /**
+     * Processes contact entities, then events of the queue: BEGIN and END events of the step, then STAY of the active pairs,
+     * which didn't begin in this step.
+     * @param deltaTime The time passed since last frame in seconds.
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        if (eventQueue == null) return;
+
+        for (int i = 0; i < eventQueue.sizeEvents(); i++) {
+            eventQueue.getEvent(i, eventData);
+            if (validateFilter(eventData)) processEvent(eventQueue.getEventType(i), eventData, deltaTime);
+        }
+
+        for (int i = 0; i < eventQueue.sizePairs(); i++) {
+            if (eventQueue.isPairBegun(i)) continue;
+
+            eventQueue.getPair(i, eventData);
+            if (validateFilter(eventData)) processEvent(ContactType.STAY, eventData, deltaTime);
+        }
+
+        eventData.reset();
+    }
+
+    /**
+     * Processes one event of the queue. Every event is given once, so results of the methods don't change anything.
+     * By default - calls the method of the type of event, systems supporting only some methods override it.
+     *
+     * @param type type of event
+     * @param component data of contact (flyweight - mustn't be kept)
+     * @param deltaTime The delta time between the last and current frame.
+     */
+    protected void processEvent(ContactType type, ContactDataComponent component, float deltaTime) {
+        switch (type) {
+            case BEGIN:
+                beginContact(component, deltaTime);
+                break;
+
+            case STAY:
+                stayContact(component, deltaTime);
+                break;
+
+            case END:
+                endContact(component, deltaTime);
+                break;
+        }
+    }
+
     protected boolean validateFilter(Entity entity) {
-        ContactDataComponent contactDataComponent = ComponentMapper.getFor(ContactDataComponent.class).get(entity);
+        return validateFilter(DATA_MAPPER.get(entity));
+    }
+
+    protected boolean validateFilter(ContactDataComponent contactDataComponent) {
         if (filter == null) return true;
 
         return filter.check(contactDataComponent.AEntity, contactDataComponent.BEntity);
@@ -1,7 +1,6 @@
 package map.creator.map.system.contact.impl;
 
 import com.badlogic.ashley.core.Entity;
-import map.creator.map.component.data.CleanComponent;
 import map.creator.map.component.data.ContactDataComponent;
 import map.creator.map.component.data.ContactType;
 import map.creator.map.component.data.ContactTypeComponent;
@@ -30,10 +29,10 @@ public abstract class ContactBeginEndIteratingSystem extends ContactIteratingSys
      */
     @Override
     protected void processEntity(Entity entity, float deltaTime) {
-        if (!validateFilter(entity)) return;
+        ContactDataComponent dataComponent = DATA_MAPPER.get(entity);
+        if (!validateFilter(dataComponent)) return;
 
-        ContactTypeComponent typeComponent = entity.getComponent(ContactTypeComponent.class);
-        ContactDataComponent dataComponent = entity.getComponent(ContactDataComponent.class);
+        ContactTypeComponent typeComponent = TYPE_MAPPER.get(entity);
 
         switch (typeComponent.type) {
             case BEGIN:
@@ -44,7 +43,7 @@ public abstract class ContactBeginEndIteratingSystem extends ContactIteratingSys
 
             case END:
                 if (endContact(dataComponent, deltaTime)) {
-                    entity.getComponent(CleanComponent.class).isMustBeDelete = true;
+                    CLEAN_MAPPER.get(entity).isMustBeDelete = true;
                     getEngine().removeEntity(entity);
                 }
                 break;
@@ -52,6 +51,14 @@ public abstract class ContactBeginEndIteratingSystem extends ContactIteratingSys
     }
 
 
+    /**
+     * Processes only BEGIN and END events of the queue.
+     */
+    @Override
+    protected void processEvent(ContactType type, ContactDataComponent component, float deltaTime) {
+        if (type != ContactType.STAY) super.processEvent(type, component, deltaTime);
+    }
+
     @Override
     public boolean stayContact(ContactDataComponent component, float deltaTime) {
         throw new UnexpectedBehaviorException("Mustn't call stayContact in ContactBeginEndIteratingSystem!");
@@ -1,7 +1,6 @@
 package map.creator.map.system.contact.impl;
 
 import com.badlogic.ashley.core.Entity;
-import map.creator.map.component.data.CleanComponent;
 import map.creator.map.component.data.ContactDataComponent;
 import map.creator.map.component.data.ContactType;
 import map.creator.map.component.data.ContactTypeComponent;
@@ -32,18 +31,26 @@ public abstract class ContactEndIteratingSystem extends ContactIteratingSystem {
      */
     @Override
     protected void processEntity(Entity entity, float deltaTime) {
-        if (!validateFilter(entity)) return;
+        ContactDataComponent dataComponent = DATA_MAPPER.get(entity);
+        if (!validateFilter(dataComponent)) return;
 
-        ContactTypeComponent typeComponent = entity.getComponent(ContactTypeComponent.class);
-        ContactDataComponent dataComponent = entity.getComponent(ContactDataComponent.class);
+        ContactTypeComponent typeComponent = TYPE_MAPPER.get(entity);
 
         if (Objects.requireNonNull(typeComponent.type) == ContactType.END && endContact(dataComponent, deltaTime)) {
-            entity.getComponent(CleanComponent.class).isMustBeDelete = true;
+            CLEAN_MAPPER.get(entity).isMustBeDelete = true;
             getEngine().removeEntity(entity);
         }
 
     }
 
+    /**
+     * Processes only END events of the queue.
+     */
+    @Override
+    protected void processEvent(ContactType type, ContactDataComponent component, float deltaTime) {
+        if (type == ContactType.END) super.processEvent(type, component, deltaTime);
+    }
+
     @Override
     public boolean beginContact(ContactDataComponent component, float deltaTime) {
         throw new UnexpectedBehaviorException("Mustn't call beginContact in ContactEndIteratingSystem!");
@@ -1,7 +1,6 @@
 package map.creator.map.system.contact.impl;
 
 import com.badlogic.ashley.core.Entity;
-import map.creator.map.component.data.CleanComponent;
 import map.creator.map.component.data.ContactDataComponent;
 import map.creator.map.component.data.ContactType;
 import map.creator.map.component.data.ContactTypeComponent;
@@ -28,10 +27,10 @@ public abstract class ContactFullIteratingSystem extends ContactIteratingSystem
      */
     @Override
     protected void processEntity(Entity entity, float deltaTime) {
-        if (!validateFilter(entity)) return;
+        ContactDataComponent dataComponent = DATA_MAPPER.get(entity);
+        if (!validateFilter(dataComponent)) return;
 
-        ContactTypeComponent typeComponent = entity.getComponent(ContactTypeComponent.class);
-        ContactDataComponent dataComponent = entity.getComponent(ContactDataComponent.class);
+        ContactTypeComponent typeComponent = TYPE_MAPPER.get(entity);
 
         switch (typeComponent.type) {
             case BEGIN:
@@ -48,7 +47,7 @@ public abstract class ContactFullIteratingSystem extends ContactIteratingSystem
 
             case END:
                 if (endContact(dataComponent, deltaTime)) {
-                    entity.getComponent(CleanComponent.class).isMustBeDelete = true;
+                    CLEAN_MAPPER.get(entity).isMustBeDelete = true;
                     getEngine().removeEntity(entity);
                 }
                 break;
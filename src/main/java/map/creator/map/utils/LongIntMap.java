@@ -0,0 +1,178 @@
+package map.creator.map.utils;
+
+import java.util.Arrays;
+
+/**
+ * Unordered map of primitive long keys to primitive int values, based on open addressing with linear probing.
+ * Neither keys nor values are boxed, so get, put and remove don't allocate (only growth of the table does).
+ *
+ * <p>Like {@link com.badlogic.gdx.utils.LongMap} - the key 0 is stored separately, because 0 marks free slots of the table.</p>
+ *
+ * @see map.creator.map.system.MapContactListener
+ */
+public class LongIntMap {
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    private boolean hasZeroValue;
+    private int zeroValue;
+
+    private final float loadFactor;
+    private int threshold;
+    private int mask;
+
+    /**
+     * Creates a new map with an initial capacity of 51 and a load factor of 0.8.
+     */
+    public LongIntMap() {
+        this(51, 0.8f);
+    }
+
+    /**
+     * @param initialCapacity count of entries before growth of the table.
+     * @param loadFactor part of table, which may be filled before growth (between 0 and 1).
+     * @throws IllegalArgumentException if initialCapacity is negative or loadFactor is not in (0, 1).
+     */
+    public LongIntMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0) throw new IllegalArgumentException("initialCapacity mustn't be negative!");
+        if (loadFactor <= 0f || loadFactor >= 1f) throw new IllegalArgumentException("loadFactor must be > 0 and < 1!");
+        this.loadFactor = loadFactor;
+
+        int tableSize = Integer.highestOneBit(Math.max(2, (int) Math.ceil(initialCapacity / loadFactor)) - 1) << 1;
+        keys = new long[tableSize];
+        values = new int[tableSize];
+        mask = tableSize - 1;
+        threshold = (int) (tableSize * loadFactor);
+    }
+
+    public int get(long key, int defaultValue) {
+        if (key == 0) return hasZeroValue ? zeroValue : defaultValue;
+
+        int index = locate(key);
+        return index < 0 ? defaultValue : values[index];
+    }
+
+    public void put(long key, int value) {
+        if (key == 0) {
+            if (!hasZeroValue) size++;
+            hasZeroValue = true;
+            zeroValue = value;
+            return;
+        }
+
+        int index = locate(key);
+        if (index >= 0) {
+            values[index] = value;
+            return;
+        }
+
+        index = -(index + 1);
+        keys[index] = key;
+        values[index] = value;
+        if (++size >= threshold) resize(keys.length << 1);
+    }
+
+    /**
+     * Adds increment to the value of key (if key doesn't exist - to defaultValue), and puts result in map.
+     * @return the value of key before increment (or defaultValue).
+     */
+    public int getAndIncrement(long key, int defaultValue, int increment) {
+        int value = get(key, defaultValue);
+        put(key, value + increment);
+
+        return value;
+    }
+
+    public boolean containsKey(long key) {
+        if (key == 0) return hasZeroValue;
+        return locate(key) >= 0;
+    }
+
+    /**
+     * @return the removed value, or defaultValue if key doesn't exist.
+     */
+    public int remove(long key, int defaultValue) {
+        if (key == 0) {
+            if (!hasZeroValue) return defaultValue;
+            hasZeroValue = false;
+            size--;
+            return zeroValue;
+        }
+
+        int index = locate(key);
+        if (index < 0) return defaultValue;
+
+        int value = values[index];
+
+        // backward shift - moves entries of the same probe sequence into the freed slot
+        int next = (index + 1) & mask;
+        while (keys[next] != 0) {
+            int placement = place(keys[next]);
+            if (((next - placement) & mask) > ((index - placement) & mask)) {
+                keys[index] = keys[next];
+                values[index] = values[next];
+                index = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[index] = 0;
+        size--;
+
+        return value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        if (size == 0) return;
+
+        Arrays.fill(keys, 0);
+        hasZeroValue = false;
+        size = 0;
+    }
+
+    /**
+     * @return index of key in table, or -(index of free slot + 1) if key doesn't exist.
+     */
+    private int locate(long key) {
+        for (int i = place(key); ; i = (i + 1) & mask) {
+            long other = keys[i];
+            if (other == 0) return -(i + 1);
+            if (other == key) return i;
+        }
+    }
+
+    /**
+     * @return start of probe sequence of key (Fibonacci hashing).
+     */
+    private int place(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private void resize(int newSize) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+
+        keys = new long[newSize];
+        values = new int[newSize];
+        mask = newSize - 1;
+        threshold = (int) (newSize * loadFactor);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key == 0) continue;
+
+            int index = -(locate(key) + 1);
+            keys[index] = key;
+            values[index] = oldValues[i];
+        }
+    }
+}
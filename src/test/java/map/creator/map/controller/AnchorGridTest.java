@@ -0,0 +1,180 @@
+package map.creator.map.controller;
+
+import com.badlogic.gdx.math.Circle;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Shape2D;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnchorGridTest {
+
+    /**
+     * Points are listed against the order of cells: the first point is in the last cell.
+     */
+    private static final float[] ANCHORS = {
+        90, 90,
+        5, 5,
+        50, 10,
+        10, 50,
+        20, 20,
+        100, 100
+    };
+
+    @Test
+    void resultsAreInOrderOfPoints() {
+        AnchorGrid grid = new AnchorGrid(ANCHORS, 6, 16);
+
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5}, query(grid, new Rectangle(0, 0, 100, 100)));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5}, queryRange(grid, 0, 0, 101, 101));
+    }
+
+    @Test
+    void sizeOfCellDoesNotChangeResults() {
+        Rectangle zone = new Rectangle(0, 0, 60, 60);
+        int[] expected = {1, 2, 3, 4};
+
+        for (float cellSize : new float[]{1, 7, 16, 50, 1000}) {
+            AnchorGrid grid = new AnchorGrid(ANCHORS, 6, cellSize);
+            assertArrayEquals(expected, query(grid, zone), "cell size " + cellSize);
+            assertArrayEquals(expected, queryRange(grid, 0, 0, 60, 60), "cell size " + cellSize);
+        }
+    }
+
+    @Test
+    void rangeIsHalfOpen() {
+        AnchorGrid grid = new AnchorGrid(ANCHORS, 6, 16);
+
+        // the point (20, 20) is on the left-bottom edge of one range and on the right-top edge of other
+        assertArrayEquals(new int[]{4}, queryRange(grid, 20, 20, 10, 10));
+        assertArrayEquals(new int[]{1}, queryRange(grid, 0, 0, 20, 20));
+
+        // the rectangle zone includes its edges
+        assertArrayEquals(new int[]{1, 4}, query(grid, new Rectangle(0, 0, 20, 20)));
+    }
+
+    @Test
+    void adjacentRangesDoNotRepeatPoints() {
+        AnchorGrid grid = new AnchorGrid(ANCHORS, 6, 16);
+        IntArray found = new IntArray();
+
+        for (int x = 0; x < 120; x += 30) {
+            for (int y = 0; y < 120; y += 30) {
+                grid.queryRange(x, y, 30, 30, found);
+            }
+        }
+
+        assertEquals(6, found.size);
+        found.sort();
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5}, found.toArray());
+    }
+
+    @Test
+    void zoneIsCheckedByItsShape() {
+        AnchorGrid grid = new AnchorGrid(ANCHORS, 6, 16);
+
+        // the bounding rectangle of circle contains (20, 20) and (5, 5), but the circle - only (20, 20)
+        assertArrayEquals(new int[]{4}, query(grid, new Circle(20, 20, 16)));
+    }
+
+    @Test
+    void unknownZoneIsCheckedForAllPoints() {
+        AnchorGrid grid = new AnchorGrid(ANCHORS, 6, 16);
+        Shape2D diagonal = new Shape2D() {
+            @Override
+            public boolean contains(Vector2 point) {
+                return contains(point.x, point.y);
+            }
+
+            @Override
+            public boolean contains(float x, float y) {
+                return x == y;
+            }
+        };
+
+        assertArrayEquals(new int[]{0, 1, 4, 5}, query(grid, diagonal));
+    }
+
+    @Test
+    void queriesAreAppended() {
+        AnchorGrid grid = new AnchorGrid(ANCHORS, 6, 16);
+        IntArray found = IntArray.with(42);
+
+        grid.query(new Rectangle(0, 0, 20, 20), found);
+
+        assertArrayEquals(new int[]{42, 1, 4}, found.toArray());
+    }
+
+    @Test
+    void emptyGridFindsNothing() {
+        AnchorGrid grid = new AnchorGrid(new float[0], 0, 16);
+
+        assertEquals(0, grid.size());
+        assertEquals(0, query(grid, new Rectangle(-100, -100, 200, 200)).length);
+        assertEquals(0, queryRange(grid, -100, -100, 200, 200).length);
+    }
+
+    @Test
+    void zoneOutsidePointsFindsNothing() {
+        AnchorGrid grid = new AnchorGrid(ANCHORS, 6, 16);
+
+        assertEquals(0, query(grid, new Rectangle(-50, -50, 10, 10)).length);
+        assertEquals(0, queryRange(grid, 500, 500, 10, 10).length);
+    }
+
+    @Test
+    void farPointGrowsCells() {
+        float[] anchors = {0, 0, 10, 10, 1_000_000, 1_000_000};
+        AnchorGrid grid = new AnchorGrid(anchors, 3, 16);
+
+        assertTrue(grid.getCellSize() > 16);
+        double cells = Math.ceil(1_000_000 / grid.getCellSize() + 1);
+        assertTrue(cells * cells <= AnchorGrid.CELLS_PER_POINT * 3 + 1);
+
+        assertArrayEquals(new int[]{0, 1}, queryRange(grid, 0, 0, 16, 16));
+        assertArrayEquals(new int[]{2}, query(grid, new Rectangle(999_999, 999_999, 2, 2)));
+    }
+
+    @Test
+    void extremePointsDoNotOverflowGrid() {
+        float[] anchors = {-Float.MAX_VALUE, -Float.MAX_VALUE, 0, 0, Float.MAX_VALUE, Float.MAX_VALUE};
+        AnchorGrid grid = new AnchorGrid(anchors, 3, 1);
+
+        assertArrayEquals(new int[]{1}, queryRange(grid, -1, -1, 2, 2));
+        assertArrayEquals(new int[]{0, 1}, query(grid, new Rectangle(-Float.MAX_VALUE, -Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE)));
+        assertArrayEquals(new int[]{2}, query(grid, new Rectangle(Float.MAX_VALUE, Float.MAX_VALUE, 0, 0)));
+    }
+
+    @Test
+    void nearPointsKeepRequestedCellSize() {
+        // 2 x 2 cells for 6 points
+        assertEquals(64f, new AnchorGrid(ANCHORS, 6, 64).getCellSize());
+    }
+
+    @Test
+    void boundsCoverAllPoints() {
+        float[] anchors = {-40, 10, 0, 0, 100, -20};
+
+        assertEquals(new Rectangle(-40, -20, 140, 30), new AnchorGrid(anchors, 3, 16).getBounds());
+        assertNull(new AnchorGrid(new float[0], 0, 16).getBounds());
+    }
+
+    @Test
+    void cellSizeMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new AnchorGrid(ANCHORS, 6, 0));
+    }
+
+    private static int[] query(AnchorGrid grid, Shape2D zone) {
+        IntArray found = new IntArray();
+        grid.query(zone, found);
+        return found.toArray();
+    }
+
+    private static int[] queryRange(AnchorGrid grid, float x, float y, float width, float height) {
+        IntArray found = new IntArray();
+        grid.queryRange(x, y, width, height, found);
+        return found.toArray();
+    }
+}
@@ -0,0 +1,203 @@
+package map.creator.map.controller;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.objects.EllipseMapObject;
+import com.badlogic.gdx.maps.objects.PolygonMapObject;
+import com.badlogic.gdx.maps.objects.PolylineMapObject;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.math.Ellipse;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Polyline;
+import com.badlogic.gdx.math.Rectangle;
+import map.creator.map.factory.body.FormBody;
+import map.creator.map.factory.object.MapCompiler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledMapTest {
+
+    private static final float EPSILON = 1e-4f;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripThroughMappedFile() throws IOException {
+        MapContainer source = createMap();
+
+        File file = directory.resolve("level.map").toFile();
+        new MapCompiler().compile(source, new FileHandle(file), "objects");
+
+        CompiledMap map = CompiledMap.load(new FileHandle(file));
+
+        assertEquals(16f, map.PPM);
+        assertEquals(1f / 16f, map.UNIT_SCALE, EPSILON);
+        assertEquals(20f, map.MAP_WIDTH_METERS);
+        assertEquals(10f, map.MAP_HEIGHT_METERS);
+        assertEquals(1, map.getNamesLayers().size());
+        assertTrue(map.getNamesLayers().contains("objects"));
+        assertEquals(4, map.getCountObjects("objects"));
+
+        List<CompiledMap.CompiledObject> dataObjects = map.getDataObjects("objects");
+        assertEquals(1, dataObjects.size());
+        assertEquals("spawn", dataObjects.get(0).name);
+        assertTrue(dataObjects.get(0).isData());
+        assertNull(dataObjects.get(0).bounds);
+        assertEquals(Boolean.TRUE, dataObjects.get(0).properties.get("data"));
+
+        List<CompiledMap.CompiledObject> objects = map.getObjects("objects", null);
+        assertEquals(4, objects.size());
+
+        CompiledMap.CompiledObject wall = objects.get(0);
+        assertEquals("wall", wall.name);
+        assertEquals("static", wall.type);
+        assertEquals(FormBody.RECTANGLE, wall.formBody);
+        assertEquals(32f, wall.anchorX);
+        assertEquals(48f, wall.anchorY);
+        assertEquals(new Rectangle(32, 48, 64, 16), wall.bounds);
+
+        MapProperties properties = wall.properties;
+        assertEquals("static", properties.get("type"));
+        assertEquals(Boolean.TRUE, properties.get("looping"));
+        assertEquals(7, properties.get("health"));
+        assertEquals(1.5f, properties.get("speed"));
+        assertEquals(123456789012L, properties.get("seed"));
+        assertEquals(0.25, properties.get("chance"));
+        assertEquals(Color.RED.toString(), properties.get("tint"));
+
+        CompiledMap.CompiledObject rock = objects.get(1);
+        assertEquals(FormBody.ELLIPSE, rock.formBody);
+        Ellipse ellipse = (Ellipse) rock.bounds;
+        assertEquals(100f, ellipse.x);
+        assertEquals(20f, ellipse.y);
+        assertEquals(30f, ellipse.width);
+        assertEquals(10f, ellipse.height);
+
+        CompiledMap.CompiledObject roof = objects.get(2);
+        assertEquals(FormBody.POLYGON, roof.formBody);
+        assertArrayEquals(createRoof().getTransformedVertices(), ((Polygon) roof.bounds).getTransformedVertices(), EPSILON);
+
+        CompiledMap.CompiledObject rail = objects.get(3);
+        assertEquals(FormBody.CHAIN, rail.formBody);
+        assertArrayEquals(new float[]{200, 100, 216, 100, 232, 116}, ((Polyline) rail.bounds).getTransformedVertices(), EPSILON);
+    }
+
+    @Test
+    void boundsStayInPixelsLikeSourceObjects() throws IOException {
+        CompiledMap map = compile(createMap());
+        MapObject source = createMap().getObjectOnNameInLayer("objects", "wall");
+
+        assertEquals(((RectangleMapObject) source).getRectangle(), map.getObjects("objects", null).get(0).bounds);
+    }
+
+    @Test
+    void zoneQueriesUseAnchorPoints() throws IOException {
+        CompiledMap map = compile(createMap());
+
+        List<CompiledMap.CompiledObject> found = map.getObjects("objects", new Rectangle(0, 0, 120, 60));
+        assertEquals(2, found.size());
+
+        // half-open range: the anchor of the wall (32, 48) is on the right edge
+        assertTrue(map.getObjectsInRange("objects", 0, 0, 32, 64).isEmpty());
+        assertEquals(1, map.getObjectsInRange("objects", 32, 0, 32, 64).size());
+    }
+
+    @Test
+    void rejectsWrongMagicAndVersion() throws IOException {
+        byte[] bytes = compileBytes(createMap());
+
+        ByteBuffer wrongMagic = ByteBuffer.wrap(bytes.clone());
+        wrongMagic.putInt(0, 0);
+        assertThrows(IllegalArgumentException.class, () -> new CompiledMap(wrongMagic));
+
+        ByteBuffer wrongVersion = ByteBuffer.wrap(bytes.clone());
+        wrongVersion.putInt(4, CompiledMap.VERSION + 1);
+        assertThrows(IllegalArgumentException.class, () -> new CompiledMap(wrongVersion));
+    }
+
+    @Test
+    void unknownLayerIsRejected() throws IOException {
+        CompiledMap map = compile(createMap());
+
+        assertThrows(IllegalArgumentException.class, () -> map.getObjects("missing", null));
+    }
+
+    private static CompiledMap compile(MapContainer map) throws IOException {
+        return new CompiledMap(ByteBuffer.wrap(compileBytes(map)));
+    }
+
+    private static byte[] compileBytes(MapContainer map) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new MapCompiler().compile(map, out, "objects");
+
+        return out.toByteArray();
+    }
+
+    private static MapContainer createMap() {
+        TiledMap tiledMap = new TiledMap();
+        tiledMap.getProperties().put("width", 20);
+        tiledMap.getProperties().put("height", 10);
+        tiledMap.getProperties().put("tilewidth", 16);
+        tiledMap.getProperties().put("tileheight", 16);
+
+        MapLayer layer = new MapLayer();
+        layer.setName("objects");
+
+        RectangleMapObject wall = new RectangleMapObject(32, 48, 64, 16);
+        wall.setName("wall");
+        wall.getProperties().put("type", "static");
+        wall.getProperties().put("looping", true);
+        wall.getProperties().put("health", 7);
+        wall.getProperties().put("speed", 1.5f);
+        wall.getProperties().put("seed", 123456789012L);
+        wall.getProperties().put("chance", 0.25);
+        wall.getProperties().put("tint", Color.RED);
+        layer.getObjects().add(wall);
+
+        EllipseMapObject rock = new EllipseMapObject(100, 20, 30, 10);
+        rock.setName("rock");
+        rock.getProperties().put("type", "static");
+        layer.getObjects().add(rock);
+
+        PolygonMapObject roof = new PolygonMapObject(createRoof());
+        roof.setName("roof");
+        roof.getProperties().put("type", "static");
+        layer.getObjects().add(roof);
+
+        PolylineMapObject rail = new PolylineMapObject(new float[]{0, 0, 16, 0, 32, 16});
+        rail.getPolyline().setPosition(200, 100);
+        rail.setName("rail");
+        rail.getProperties().put("type", "rail");
+        layer.getObjects().add(rail);
+
+        RectangleMapObject spawn = new RectangleMapObject(0, 0, 1, 1);
+        spawn.setName("spawn");
+        spawn.getProperties().put("data", true);
+        layer.getObjects().add(spawn);
+
+        tiledMap.getLayers().add(layer);
+        return new MapContainer(tiledMap);
+    }
+
+    private static Polygon createRoof() {
+        Polygon polygon = new Polygon(new float[]{0, 0, 32, 0, 16, 16});
+        polygon.setPosition(150, 150);
+        polygon.setRotation(90);
+
+        return polygon;
+    }
+}
@@ -0,0 +1,100 @@
+package map.creator.map.factory.body;
+
+import com.badlogic.gdx.math.EarClippingTriangulator;
+import com.badlogic.gdx.math.GeometryUtils;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.ShortArray;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConvexDecomposerTest {
+
+    private static final float EPSILON = 1e-3f;
+
+    private final ConvexDecomposer decomposer = new ConvexDecomposer();
+
+    @Test
+    void convexOutlineBecomesFewPieces() {
+        float[] vertices = createCircle(60, 10f);
+        ShortArray triangles = new EarClippingTriangulator().computeTriangles(vertices);
+        assertEquals(58 * 3, triangles.size);
+
+        List<float[]> pieces = decomposer.decompose(vertices, triangles);
+
+        // every piece of n vertices covers n - 2 triangles, so 58 triangles need at least 10 pieces of 8 vertices
+        assertEquals(10, pieces.size());
+        assertPiecesValid(pieces);
+        assertEquals(area(vertices), totalArea(pieces), EPSILON);
+    }
+
+    @Test
+    void concavePolygonGivesConvexPieces() {
+        // L-shape
+        float[] vertices = {0, 0, 4, 0, 4, 1, 1, 1, 1, 4, 0, 4};
+        List<float[]> pieces = decomposer.decompose(vertices, new EarClippingTriangulator().computeTriangles(vertices));
+
+        assertEquals(2, pieces.size());
+        assertPiecesValid(pieces);
+        assertEquals(7f, totalArea(pieces), EPSILON);
+    }
+
+    @Test
+    void clockwiseInputGivesCounterClockwisePieces() {
+        float[] vertices = {0, 0, 0, 2, 2, 2, 2, 0};
+        List<float[]> pieces = decomposer.decompose(vertices, new EarClippingTriangulator().computeTriangles(vertices));
+
+        assertEquals(1, pieces.size());
+        assertPiecesValid(pieces);
+        assertEquals(4f, totalArea(pieces), EPSILON);
+    }
+
+    @Test
+    void degenerateTrianglesAreSkipped() {
+        float[] vertices = {0, 0, 1, 0, 2, 0, 2, 2};
+        ShortArray triangles = new ShortArray(new short[]{0, 1, 2, 0, 2, 3});
+
+        List<float[]> pieces = decomposer.decompose(vertices, triangles);
+
+        assertEquals(1, pieces.size());
+        assertEquals(6, pieces.get(0).length);
+    }
+
+    private static void assertPiecesValid(List<float[]> pieces) {
+        for (float[] piece : pieces) {
+            int count = piece.length / 2;
+            assertTrue(count >= 3 && count <= ConvexDecomposer.MAX_VERTICES, "Piece has " + count + " vertices");
+
+            for (int i = 0; i < count; i++) {
+                int previous = (i + count - 1) % count, next = (i + 1) % count;
+                float cross = (piece[i * 2] - piece[previous * 2]) * (piece[next * 2 + 1] - piece[i * 2 + 1])
+                    - (piece[i * 2 + 1] - piece[previous * 2 + 1]) * (piece[next * 2] - piece[i * 2]);
+                assertTrue(cross >= -EPSILON, "Piece isn't convex or isn't counter-clockwise");
+            }
+        }
+    }
+
+    private static float totalArea(List<float[]> pieces) {
+        float area = 0;
+        for (float[] piece : pieces) {
+            area += area(piece);
+        }
+        return area;
+    }
+
+    private static float area(float[] vertices) {
+        return Math.abs(GeometryUtils.polygonArea(vertices, 0, vertices.length));
+    }
+
+    private static float[] createCircle(int segments, float radius) {
+        float[] vertices = new float[segments * 2];
+        for (int i = 0; i < segments; i++) {
+            float angle = MathUtils.PI2 * i / segments;
+            vertices[i * 2] = radius * MathUtils.cos(angle);
+            vertices[i * 2 + 1] = radius * MathUtils.sin(angle);
+        }
+        return vertices;
+    }
+}
@@ -0,0 +1,101 @@
+package map.creator.map.factory.body;
+
+import com.badlogic.gdx.math.Rectangle;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RectangleMergerTest {
+
+    private static final float TILE = 16;
+
+    private final RectangleMerger merger = new RectangleMerger();
+
+    @Test
+    void roomOutlineBecomesFourRectangles() {
+        // outline of a room of 100 x 10 tiles
+        List<Rectangle> tiles = new ArrayList<>();
+        for (int column = 0; column < 100; column++) {
+            for (int row = 0; row < 10; row++) {
+                if (column == 0 || column == 99 || row == 0 || row == 9) tiles.add(tile(column, row));
+            }
+        }
+        assertEquals(216, tiles.size());
+
+        List<Rectangle> merged = merger.merge(tiles);
+
+        assertEquals(4, merged.size());
+        assertTrue(merged.contains(new Rectangle(0, 0, 100 * TILE, TILE)));
+        assertTrue(merged.contains(new Rectangle(0, 9 * TILE, 100 * TILE, TILE)));
+        assertTrue(merged.contains(new Rectangle(0, TILE, TILE, 8 * TILE)));
+        assertTrue(merged.contains(new Rectangle(99 * TILE, TILE, TILE, 8 * TILE)));
+        assertEquals(area(tiles), area(merged), 1e-3f);
+    }
+
+    @Test
+    void solidBlockBecomesOneRectangle() {
+        List<Rectangle> tiles = new ArrayList<>();
+        for (int column = 0; column < 5; column++) {
+            for (int row = 0; row < 3; row++) {
+                tiles.add(tile(column, row));
+            }
+        }
+
+        assertEquals(Arrays.asList(new Rectangle(0, 0, 5 * TILE, 3 * TILE)), merger.merge(tiles));
+    }
+
+    @Test
+    void separatedRectanglesAreNotMerged() {
+        List<Rectangle> tiles = Arrays.asList(tile(0, 0), tile(2, 0), tile(0, 2));
+
+        assertEquals(3, merger.merge(tiles).size());
+    }
+
+    @Test
+    void rectanglesWithDifferentHeightAreNotMergedInRow() {
+        List<Rectangle> rectangles = Arrays.asList(new Rectangle(0, 0, 16, 16), new Rectangle(16, 0, 16, 8));
+
+        assertEquals(2, merger.merge(rectangles).size());
+    }
+
+    @Test
+    void overlappingRectanglesAreMerged() {
+        List<Rectangle> rectangles = Arrays.asList(new Rectangle(0, 0, 20, 16), new Rectangle(10, 0, 20, 16));
+
+        assertEquals(Arrays.asList(new Rectangle(0, 0, 30, 16)), merger.merge(rectangles));
+    }
+
+    @Test
+    void gapsSmallerThanEpsilonAreClosed() {
+        List<Rectangle> rectangles = Arrays.asList(new Rectangle(0, 0, 16, 16), new Rectangle(16.005f, 0, 16, 16));
+
+        assertEquals(1, merger.merge(rectangles).size());
+    }
+
+    @Test
+    void sourceRectanglesAreNotChanged() {
+        Rectangle first = tile(0, 0);
+        Rectangle second = tile(1, 0);
+
+        merger.merge(Arrays.asList(first, second));
+
+        assertEquals(tile(0, 0), first);
+        assertEquals(tile(1, 0), second);
+    }
+
+    private static Rectangle tile(int column, int row) {
+        return new Rectangle(column * TILE, row * TILE, TILE, TILE);
+    }
+
+    private static float area(List<Rectangle> rectangles) {
+        float area = 0;
+        for (Rectangle rectangle : rectangles) {
+            area += rectangle.area();
+        }
+        return area;
+    }
+}
@@ -0,0 +1,138 @@
+package map.creator.map.factory.body;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShapeCacheTest {
+
+    private static final float EPSILON = 1e-4f;
+
+    @Test
+    void geometryIsFoundByValues() {
+        ShapeCache cache = new ShapeCache();
+        ShapeCache.Geometry geometry = put(cache, 1, 2);
+
+        // the array of lookup may be bigger, than the key
+        assertSame(geometry, cache.get(FormBody.ELLIPSE, false, new float[]{1, 2, 99}, 2));
+        assertNull(cache.get(FormBody.ELLIPSE, true, new float[]{1, 2}, 2));
+        assertNull(cache.get(FormBody.POLYGON, false, new float[]{1, 2}, 2));
+        assertNull(cache.get(FormBody.ELLIPSE, false, new float[]{1, 3}, 2));
+    }
+
+    @Test
+    void valuesAreCopiedOnPut() {
+        ShapeCache cache = new ShapeCache();
+        float[] values = {1, 2};
+        ShapeCache.Geometry geometry = createGeometry();
+
+        cache.put(FormBody.ELLIPSE, false, values, 2, geometry);
+        values[0] = 5;
+
+        assertSame(geometry, cache.get(FormBody.ELLIPSE, false, new float[]{1, 2}, 2));
+    }
+
+    @Test
+    void leastRecentlyUsedGeometryIsRemoved() {
+        ShapeCache cache = new ShapeCache(2);
+        ShapeCache.Geometry first = put(cache, 1);
+        put(cache, 2);
+
+        // reading makes the first geometry recently used
+        assertSame(first, get(cache, 1));
+        ShapeCache.Geometry third = put(cache, 3);
+
+        assertEquals(2, cache.size());
+        assertSame(first, get(cache, 1));
+        assertNull(get(cache, 2));
+        assertSame(third, get(cache, 3));
+    }
+
+    @Test
+    void hitsAndMissesAreCounted() {
+        ShapeCache cache = new ShapeCache();
+        assertEquals(0f, cache.getHitRate());
+
+        put(cache, 1);
+        get(cache, 1);
+        get(cache, 1);
+        get(cache, 1);
+        get(cache, 2);
+
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.75f, cache.getHitRate(), EPSILON);
+    }
+
+    @Test
+    void keyIsAdmittedOnSecondMiss() {
+        ShapeCache cache = new ShapeCache();
+
+        assertNull(get(cache, 1));
+        assertFalse(cache.admit());
+        assertNull(get(cache, 2));
+        assertFalse(cache.admit());
+
+        assertNull(get(cache, 1));
+        assertTrue(cache.admit());
+        // the admitted key is forgotten, until it's missed again
+        assertNull(get(cache, 1));
+        assertFalse(cache.admit());
+    }
+
+    @Test
+    void rememberedMissesAreLimited() {
+        ShapeCache cache = new ShapeCache(1);
+
+        for (int i = 0; i < 4; i++) {
+            get(cache, i);
+            assertFalse(cache.admit());
+        }
+
+        // the fifth miss forgets the first four
+        get(cache, 4);
+        assertFalse(cache.admit());
+        get(cache, 0);
+        assertFalse(cache.admit());
+        get(cache, 4);
+        assertTrue(cache.admit());
+    }
+
+    @Test
+    void clearRemovesEverything() {
+        ShapeCache cache = new ShapeCache();
+        put(cache, 1);
+        get(cache, 1);
+        get(cache, 2);
+        cache.admit();
+
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+        assertNull(get(cache, 1));
+        get(cache, 2);
+        assertFalse(cache.admit());
+    }
+
+    @Test
+    void maxSizeMustBePositive() {
+        assertEquals(ShapeCache.DEFAULT_MAX_SIZE, new ShapeCache().getMaxSize());
+        assertThrows(IllegalArgumentException.class, () -> new ShapeCache(0));
+        assertThrows(IllegalArgumentException.class, () -> new ShapeCache(-1));
+    }
+
+    private static ShapeCache.Geometry put(ShapeCache cache, float... values) {
+        return cache.put(FormBody.ELLIPSE, false, values, values.length, createGeometry());
+    }
+
+    private static ShapeCache.Geometry get(ShapeCache cache, float... values) {
+        return cache.get(FormBody.ELLIPSE, false, values, values.length);
+    }
+
+    private static ShapeCache.Geometry createGeometry() {
+        float[] vertices = {0, 0, 1, 0, 0, 1};
+        return new ShapeCache.Geometry(vertices, new float[][]{vertices}, 1f);
+    }
+}
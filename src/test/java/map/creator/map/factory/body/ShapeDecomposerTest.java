@@ -0,0 +1,189 @@
+package map.creator.map.factory.body;
+
+import com.badlogic.gdx.math.Ellipse;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.ShortArray;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ShapeDecomposerTest {
+
+    private static final float EPSILON = 1e-4f;
+
+    /**
+     * Allowed allocation for the whole measured loop - a few objects of the measuring itself, not a shape.
+     */
+    private static final long ALLOCATION_LIMIT = 4 * 1024;
+
+    @Test
+    void polygonGeometryIsLocalToPosition() {
+        Polygon polygon = new Polygon(new float[]{0, 0, 32, 0, 32, 16, 16, 32, 0, 16});
+        polygon.setPosition(100, 200);
+
+        ShapeCache.Geometry geometry = new ShapeDecomposer().computeGeometry(polygon, 1 / 16f, false);
+
+        assertArrayEquals(new float[]{0, 0, 2, 0, 2, 1, 1, 2, 0, 1}, geometry.vertices, EPSILON);
+        assertEquals(3, geometry.pieces.length);
+        assertEquals(1 / 16f, geometry.unitScale);
+    }
+
+    @Test
+    void ellipseIsTriangulatedOrDividedOnConvexPieces() {
+        Ellipse ellipse = new Ellipse(10, 10, 64, 32);
+        ShapeDecomposer decomposer = new ShapeDecomposer();
+
+        ShapeCache.Geometry triangles = decomposer.computeGeometry(ellipse, 1f, false);
+        ShapeCache.Geometry pieces = decomposer.computeGeometry(ellipse, 1f, true);
+
+        int vertices = triangles.vertices.length / 2;
+        assertEquals(vertices - 2, triangles.pieces.length);
+        assertTrue(pieces.pieces.length < triangles.pieces.length);
+        for (float[] piece : pieces.pieces) assertTrue(piece.length <= ConvexDecomposer.MAX_VERTICES * 2);
+    }
+
+    @Test
+    void shapeIsCachedOnSecondMiss() {
+        ShapeCache cache = new ShapeCache();
+        ShapeDecomposer decomposer = new ShapeDecomposer(cache);
+        Ellipse ellipse = new Ellipse(0, 0, 40, 20);
+
+        assertNull(decomposer.findGeometry(ellipse, 1f, false));
+        assertEquals(0, cache.size());
+
+        ShapeCache.Geometry geometry = decomposer.findGeometry(ellipse, 1f, false);
+        assertNotNull(geometry);
+        assertEquals(1, cache.size());
+
+        // the same shape in other place
+        assertSame(geometry, decomposer.findGeometry(new Ellipse(300, 50, 40, 20), 1f, false));
+        assertNotSame(geometry, decomposer.computeGeometry(ellipse, 1f, true));
+    }
+
+    @Test
+    void cacheIsSharedByDecomposers() {
+        ShapeCache cache = new ShapeCache();
+        Ellipse ellipse = new Ellipse(0, 0, 40, 20);
+
+        // one shape in two batches, every batch has its own decomposer
+        assertNull(new ShapeDecomposer(cache).findGeometry(ellipse, 1f, false));
+        assertNotNull(new ShapeDecomposer(cache).findGeometry(ellipse, 1f, false));
+
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void cacheIsSharedByThreads() throws Exception {
+        ShapeCache cache = new ShapeCache();
+        int threads = 4, lookups = 2000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Future<?>[] futures = new Future<?>[threads];
+            for (int i = 0; i < threads; i++) {
+                futures[i] = executor.submit(() -> {
+                    ShapeDecomposer decomposer = new ShapeDecomposer(cache);
+                    for (int j = 0; j < lookups; j++) {
+                        Ellipse ellipse = new Ellipse(0, 0, 10 + j % 20, 10);
+                        ShapeCache.Geometry geometry = decomposer.computeGeometry(ellipse, 1f, false);
+                        assertEquals(decomposer.writeVertices(ellipse, 1f).size, geometry.vertices.length);
+                    }
+                });
+            }
+            for (Future<?> future : futures) future.get();
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(20, cache.size());
+        assertEquals(threads * lookups, cache.getHits() + cache.getMisses());
+        assertTrue(cache.getHitRate() > 0.9f);
+    }
+
+    @Test
+    void smallPolygonsAreNotCached() {
+        ShapeDecomposer decomposer = new ShapeDecomposer(new ShapeCache());
+        Polygon quad = new Polygon(new float[]{0, 0, 1, 0, 1, 1, 0, 1});
+
+        assertNull(decomposer.findGeometry(quad, 1f, false));
+        assertNull(decomposer.findGeometry(quad, 1f, false));
+
+        ShapeCache.Geometry geometry = decomposer.computeGeometry(quad, 1f, false);
+        assertEquals(1, geometry.pieces.length);
+        assertSame(geometry.vertices, geometry.pieces[0]);
+    }
+
+    @Test
+    void uniqueShapesDoNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled(), "Allocated memory of thread isn't measured");
+
+        ShapeDecomposer decomposer = new ShapeDecomposer(new ShapeCache(64));
+        Polygon[] warmUp = createUniquePolygons(1000, 0);
+        Polygon[] measured = createUniquePolygons(5000, 1000);
+
+        decomposeAll(decomposer, warmUp);
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        int count = decomposeAll(decomposer, measured);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(measured.length * 10, count);
+        assertTrue(allocated < ALLOCATION_LIMIT, "Decomposition of unique shapes allocated " + allocated + " bytes");
+    }
+
+    /**
+     * Does the work of the factory for shapes, which aren't cached: lookup, writing of vertices and triangulation.
+     *
+     * @return count of triangles
+     */
+    private static int decomposeAll(ShapeDecomposer decomposer, Polygon[] polygons) {
+        int count = 0;
+
+        for (Polygon polygon : polygons) {
+            assertNull(decomposer.findGeometry(polygon, 1 / 32f, false));
+
+            FloatArray vertices = decomposer.writeVertices(polygon, 1 / 32f);
+            ShortArray triangles = decomposer.triangulate(vertices.items, vertices.size);
+            count += triangles.size / 3;
+        }
+
+        return count;
+    }
+
+    /**
+     * Creates 12-gons with different sizes. Transformed vertices are computed at once,
+     * so the measured code doesn't allocate arrays of the polygons.
+     */
+    private static Polygon[] createUniquePolygons(int count, int seed) {
+        Polygon[] polygons = new Polygon[count];
+
+        for (int i = 0; i < count; i++) {
+            float radius = 10 + (seed + i) * 0.01f;
+
+            float[] vertices = new float[24];
+            for (int j = 0; j < 12; j++) {
+                double angle = Math.PI * 2 * j / 12;
+                vertices[j * 2] = (float) Math.cos(angle) * radius;
+                vertices[j * 2 + 1] = (float) Math.sin(angle) * radius;
+            }
+
+            polygons[i] = new Polygon(vertices);
+            polygons[i].setPosition(i, -i);
+            polygons[i].getTransformedVertices();
+        }
+
+        return polygons;
+    }
+}
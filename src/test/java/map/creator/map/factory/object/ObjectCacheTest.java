@@ -0,0 +1,184 @@
+package map.creator.map.factory.object;
+
+import com.badlogic.gdx.maps.MapProperties;
+import map.creator.map.entity.ObjectEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObjectCacheTest {
+
+    private final ObjectCache cache = new ObjectCache();
+
+    @Test
+    void freeNameIsReturnedAsIs() {
+        assertEquals("coin", cache.getFreeEntityName("coin"));
+    }
+
+    @Test
+    void takenNamesGetGrowingNumbers() {
+        put("coin");
+        assertEquals("coin0", put(cache.getFreeEntityName("coin")));
+        assertEquals("coin1", put(cache.getFreeEntityName("coin")));
+        assertEquals("coin2", cache.getFreeEntityName("coin"));
+    }
+
+    @Test
+    void numbersSkipNamesTakenByHand() {
+        put("coin");
+        put("coin0");
+        put("coin1");
+
+        assertEquals("coin2", cache.getFreeEntityName("coin"));
+    }
+
+    @Test
+    void numbersOfRemovedEntitiesAreNotReused() {
+        put("coin");
+        ObjectEntity first = cache.getEntityMap().get(put(cache.getFreeEntityName("coin")));
+        cache.remove(first);
+
+        assertEquals("coin1", cache.getFreeEntityName("coin"));
+    }
+
+    @Test
+    void dataObjectsHaveOwnCounters() {
+        cache.getDataObjects().put("spawn", new MapProperties());
+        put("spawn");
+
+        assertEquals("spawn0", cache.getFreeDataObjectName("spawn"));
+        cache.getDataObjects().put("spawn0", new MapProperties());
+        assertEquals("spawn1", cache.getFreeDataObjectName("spawn"));
+        assertEquals("spawn0", cache.getFreeEntityName("spawn"));
+    }
+
+    @Test
+    void clearResetsCounters() {
+        put("coin");
+        put(cache.getFreeEntityName("coin"));
+
+        cache.clear();
+        put("coin");
+
+        assertEquals("coin0", cache.getFreeEntityName("coin"));
+    }
+
+    @Test
+    void entitiesGetDenseIds() {
+        ObjectEntity first = new ObjectEntity("first", "coin");
+        ObjectEntity second = new ObjectEntity("second", "coin");
+
+        assertEquals(0, cache.put("first", first));
+        assertEquals(1, cache.put("second", second));
+        assertEquals(1, second.getId());
+        assertEquals(2, cache.getCapacityIds());
+
+        assertSame(second, cache.getEntity(1, cache.getGeneration(1)));
+        // putting again keeps the id
+        assertEquals(0, cache.put("first", first));
+    }
+
+    @Test
+    void removedIdIsReusedWithNewGeneration() {
+        ObjectEntity first = new ObjectEntity("first", "coin");
+        cache.put("first", first);
+        int generation = cache.getGeneration(0);
+
+        assertTrue(cache.remove(first));
+        assertEquals(-1, first.getId());
+        assertNull(cache.getEntity(0, generation));
+        assertFalse(cache.remove(first));
+
+        ObjectEntity second = new ObjectEntity("second", "coin");
+        assertEquals(0, cache.put("second", second));
+        assertNotEquals(generation, cache.getGeneration(0));
+        // the old id doesn't find the new entity
+        assertNull(cache.getEntity(0, generation));
+        assertSame(second, cache.getEntity(0, cache.getGeneration(0)));
+    }
+
+    @Test
+    void replacedEntityLosesId() {
+        ObjectEntity first = new ObjectEntity("coin", "coin");
+        ObjectEntity second = new ObjectEntity("coin", "coin");
+        cache.put("coin", first);
+
+        cache.put("coin", second);
+
+        assertEquals(-1, first.getId());
+        assertSame(second, cache.getEntityMap().get("coin"));
+        assertSame(second, cache.getEntity(second.getId(), cache.getGeneration(second.getId())));
+    }
+
+    @Test
+    void idsGotBeforeClearAreNotValid() {
+        ObjectEntity first = new ObjectEntity("first", "coin");
+        cache.put("first", first);
+        int generation = cache.getGeneration(0);
+
+        cache.clear();
+        ObjectEntity second = new ObjectEntity("second", "coin");
+        cache.put("second", second);
+
+        assertEquals(0, second.getId());
+        assertNull(cache.getEntity(0, generation));
+    }
+
+    @Test
+    void wrongIdsFindNothing() {
+        assertNull(cache.getEntity(-1, 0));
+        assertNull(cache.getEntity(5, 0));
+        assertEquals(-1, cache.getGeneration(5));
+    }
+
+    @Test
+    void removalListenersAreNotified() {
+        List<ObjectEntity> removed = new ArrayList<>();
+        ObjectCache.RemovalListener listener = removed::add;
+        cache.addRemovalListener(listener);
+
+        ObjectEntity first = new ObjectEntity("first", "coin");
+        ObjectEntity second = new ObjectEntity("second", "coin");
+        ObjectEntity third = new ObjectEntity("second", "coin");
+        cache.put("first", first);
+        cache.put("second", second);
+
+        cache.remove(first);
+        cache.put("second", third);
+        cache.clear();
+
+        assertEquals(3, removed.size());
+        assertSame(first, removed.get(0));
+        assertSame(second, removed.get(1));
+        assertSame(third, removed.get(2));
+
+        cache.removeRemovalListener(listener);
+        cache.put("first", first);
+        cache.remove(first);
+        assertEquals(3, removed.size());
+    }
+
+    @Test
+    void nameIdsLiveUntilClear() {
+        int player = cache.getNameId("player");
+        int wall = cache.getNameId("static");
+
+        assertTrue(player > 0);
+        assertNotEquals(player, wall);
+        assertEquals(player, cache.getNameId("player"));
+
+        int generation = cache.getNameIdsGeneration();
+        cache.clear();
+
+        assertNotEquals(generation, cache.getNameIdsGeneration());
+        assertEquals(1, cache.getNameId("static"));
+    }
+
+    private String put(String name) {
+        cache.put(name, new ObjectEntity(name, "coin"));
+        return name;
+    }
+}
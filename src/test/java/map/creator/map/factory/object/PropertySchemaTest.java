@@ -0,0 +1,104 @@
+package map.creator.map.factory.object;
+
+import com.badlogic.gdx.maps.MapProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PropertySchemaTest {
+
+    @Test
+    void valuesAreReadBySlots() {
+        PropertySchema schema = new PropertySchema();
+        int looping = schema.addBoolean("looping", false);
+        int health = schema.addInt("health", 100);
+        int speed = schema.addFloat("speed", 1f);
+        int weapon = schema.addString("weapon", "sword");
+
+        MapProperties properties = new MapProperties();
+        properties.put("looping", true);
+        properties.put("health", 7);
+        properties.put("speed", 2.5f);
+        properties.put("weapon", "axe");
+
+        PropertyRecord record = schema.read(properties, schema.newRecord());
+
+        assertTrue(record.getBoolean(looping));
+        assertEquals(7, record.getInt(health));
+        assertEquals(2.5f, record.getFloat(speed));
+        assertEquals("axe", record.getString(weapon));
+    }
+
+    @Test
+    void missingAndWrongValuesGiveDefaults() {
+        PropertySchema schema = new PropertySchema();
+        int convex = schema.addBoolean("convex", true);
+        int health = schema.addInt("health", 100);
+        int form = schema.addString("form", null);
+
+        MapProperties properties = new MapProperties();
+        properties.put("convex", "yes");
+        properties.put("health", "many");
+
+        PropertyRecord record = schema.read(properties, schema.newRecord());
+
+        assertTrue(record.getBoolean(convex));
+        assertEquals(100, record.getInt(health));
+        assertNull(record.getString(form));
+    }
+
+    @Test
+    void numbersAndStringsAreConverted() {
+        PropertySchema schema = new PropertySchema();
+        int count = schema.addInt("count", 0);
+        int scale = schema.addFloat("scale", 0f);
+        int label = schema.addString("label", null);
+
+        MapProperties properties = new MapProperties();
+        properties.put("count", 3.9f);
+        properties.put("scale", 2);
+        properties.put("label", 42);
+
+        PropertyRecord record = schema.read(properties, schema.newRecord());
+
+        assertEquals(3, record.getInt(count));
+        assertEquals(2f, record.getFloat(scale));
+        assertEquals("42", record.getString(label));
+    }
+
+    @Test
+    void reusedRecordDoesNotKeepValuesOfPreviousObject() {
+        PropertySchema schema = new PropertySchema();
+        int data = schema.addBoolean("data", false);
+        int type = schema.addString("type", null);
+        PropertyRecord record = schema.newRecord();
+
+        MapProperties spawn = new MapProperties();
+        spawn.put("data", true);
+        spawn.put("type", "spawn");
+        schema.read(spawn, record);
+
+        schema.read(new MapProperties(), record);
+
+        assertFalse(record.getBoolean(data));
+        assertNull(record.getString(type));
+    }
+
+    @Test
+    void keysAreLockedAfterFirstRecord() {
+        PropertySchema schema = new PropertySchema();
+        schema.addBoolean("data", false);
+        schema.newRecord();
+
+        assertThrows(IllegalStateException.class, () -> schema.addInt("health", 0));
+        assertThrows(IllegalArgumentException.class, () -> new PropertySchema().addFloat(null, 0f));
+    }
+
+    @Test
+    void recordOfOtherSchemaIsRejected() {
+        PropertySchema schema = new PropertySchema();
+        PropertyRecord other = new PropertySchema().newRecord();
+
+        assertThrows(IllegalArgumentException.class, () -> schema.read(new MapProperties(), other));
+    }
+}
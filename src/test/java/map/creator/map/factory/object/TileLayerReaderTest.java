@@ -0,0 +1,239 @@
+package map.creator.map.factory.object;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.objects.EllipseMapObject;
+import com.badlogic.gdx.maps.objects.PolygonMapObject;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.math.Ellipse;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Rectangle;
+import map.creator.map.factory.body.FormBody;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TileLayerReaderTest {
+
+    private static final float EPSILON = 1e-4f;
+
+    private int lastTileId;
+
+    @Test
+    void fullWidthRectanglesAreCoalescedInRow() {
+        TiledMapTileLayer layer = new TiledMapTileLayer(5, 2, 16, 16);
+        StaticTiledMapTile wall = createTile(new RectangleMapObject(0, 0, 16, 8));
+        // the gap in column 3 breaks the run
+        setCells(layer, 0, wall, 0, 1, 2, 4);
+        setCells(layer, 1, wall, 0, 1);
+
+        TileLayerReader reader = read(layer);
+
+        assertEquals(List.of(
+            new Rectangle(0, 0, 48, 8),
+            new Rectangle(64, 0, 16, 8),
+            new Rectangle(0, 16, 32, 8)
+        ), getBounds(reader.rectangles));
+        assertTrue(reader.shapes.isEmpty());
+    }
+
+    @Test
+    void runsAreCoalescedOnlyWithSameName() {
+        TiledMapTileLayer layer = new TiledMapTileLayer(3, 1, 16, 16);
+        RectangleMapObject spikes = new RectangleMapObject(0, 0, 16, 4);
+        spikes.setName("spikes");
+        setCells(layer, 0, createTile(new RectangleMapObject(0, 0, 16, 4)), 0, 2);
+        setCells(layer, 0, createTile(spikes), 1);
+
+        TileLayerReader reader = read(layer);
+
+        assertEquals(3, reader.rectangles.size());
+        assertEquals("spikes", findByBounds(reader.rectangles, new Rectangle(16, 0, 16, 4)).name);
+        assertEquals("static", findByBounds(reader.rectangles, new Rectangle(0, 0, 16, 4)).name);
+        for (ObjectBatch.PreparedObject rectangle : reader.rectangles) {
+            assertEquals("static", rectangle.type);
+            assertEquals(FormBody.RECTANGLE, rectangle.formBody);
+        }
+    }
+
+    @Test
+    void narrowRectanglesAreNotCoalesced() {
+        TiledMapTileLayer layer = new TiledMapTileLayer(2, 1, 16, 16);
+        setCells(layer, 0, createTile(new RectangleMapObject(4, 0, 8, 8)), 0, 1);
+
+        assertEquals(List.of(new Rectangle(4, 0, 8, 8), new Rectangle(20, 0, 8, 8)), getBounds(read(layer).rectangles));
+    }
+
+    @Test
+    void rectangleIsFlippedThenRotated() {
+        TiledMapTileLayer layer = new TiledMapTileLayer(2, 2, 16, 16);
+        Cell cell = createCell(createTile(new RectangleMapObject(0, 0, 4, 8)));
+        cell.setFlipHorizontally(true);
+        cell.setRotation(Cell.ROTATE_90);
+        layer.setCell(1, 1, cell);
+
+        // flip: (12, 0, 4, 8), rotation: (16 - 8, 12, 8, 4)
+        assertEquals(List.of(new Rectangle(24, 28, 8, 4)), getBounds(read(layer).rectangles));
+    }
+
+    @Test
+    void rectangleIsRotatedInCellOfNotSquareTile() {
+        TiledMapTileLayer layer = new TiledMapTileLayer(1, 1, 32, 16);
+        Cell cell = createCell(createTile(new RectangleMapObject(0, 0, 8, 16)));
+        cell.setRotation(Cell.ROTATE_90);
+        layer.setCell(0, 0, cell);
+
+        // the left quarter of tile becomes the bottom quarter
+        assertEquals(List.of(new Rectangle(0, 0, 32, 4)), getBounds(read(layer).rectangles));
+    }
+
+    @Test
+    void fullRotationKeepsRectangle() {
+        for (float tileHeight : new float[]{16, 8}) {
+            TiledMapTileLayer layer = new TiledMapTileLayer(1, 1, 16, (int) tileHeight);
+            Cell cell = createCell(createTile(new RectangleMapObject(2, 1, 4, 3)));
+            cell.setRotation(Cell.ROTATE_180);
+            layer.setCell(0, 0, cell);
+
+            Rectangle rotated = (Rectangle) read(layer).rectangles.get(0).bounds;
+            assertEquals(16 - 2 - 4, rotated.x, EPSILON);
+            assertEquals(tileHeight - 1 - 3, rotated.y, EPSILON);
+            assertEquals(4, rotated.width, EPSILON);
+            assertEquals(3, rotated.height, EPSILON);
+        }
+    }
+
+    @Test
+    void polygonIsFlippedThenRotated() {
+        TiledMapTileLayer layer = new TiledMapTileLayer(2, 1, 16, 16);
+        Cell cell = createCell(createTile(new PolygonMapObject(new float[]{0, 0, 4, 0, 0, 4})));
+        cell.setFlipHorizontally(true);
+        cell.setRotation(Cell.ROTATE_90);
+        layer.setCell(1, 0, cell);
+
+        TileLayerReader reader = read(layer);
+
+        assertEquals(1, reader.shapes.size());
+        ObjectBatch.PreparedObject shape = reader.shapes.get(0);
+        assertEquals(FormBody.POLYGON, shape.formBody);
+        // flip: (16, 0), (12, 0), (16, 4), rotation: (16 - y, x)
+        assertArrayEquals(new float[]{32, 16, 32, 12, 28, 16}, ((Polygon) shape.bounds).getTransformedVertices(), EPSILON);
+    }
+
+    @Test
+    void polygonIsRotatedInCellOfNotSquareTile() {
+        TiledMapTileLayer layer = new TiledMapTileLayer(1, 1, 32, 16);
+        Cell cell = createCell(createTile(new PolygonMapObject(new float[]{0, 0, 8, 0, 0, 4})));
+        cell.setRotation(Cell.ROTATE_90);
+        layer.setCell(0, 0, cell);
+
+        Polygon polygon = (Polygon) read(layer).shapes.get(0).bounds;
+
+        assertArrayEquals(new float[]{32, 0, 32, 4, 24, 0}, polygon.getTransformedVertices(), EPSILON);
+    }
+
+    @Test
+    void polygonWithPositionIsRotatedAroundCenterOfTile() {
+        TiledMapTileLayer layer = new TiledMapTileLayer(1, 1, 16, 16);
+        PolygonMapObject object = new PolygonMapObject(new float[]{0, 0, 2, 0, 0, 2});
+        object.getPolygon().setPosition(4, 2);
+        Cell cell = createCell(createTile(object));
+        cell.setRotation(Cell.ROTATE_270);
+        layer.setCell(0, 0, cell);
+
+        // rotation clockwise: (x, y) -> (y, 16 - x)
+        Polygon polygon = (Polygon) read(layer).shapes.get(0).bounds;
+        assertArrayEquals(new float[]{2, 12, 2, 10, 4, 12}, polygon.getTransformedVertices(), EPSILON);
+    }
+
+    @Test
+    void ellipseIsFlippedAndRotated() {
+        TiledMapTileLayer layer = new TiledMapTileLayer(1, 1, 16, 16);
+        Cell cell = createCell(createTile(new EllipseMapObject(0, 0, 4, 8)));
+        cell.setFlipHorizontally(true);
+        cell.setRotation(Cell.ROTATE_90);
+        layer.setCell(0, 0, cell);
+
+        ObjectBatch.PreparedObject shape = read(layer).shapes.get(0);
+        Ellipse ellipse = (Ellipse) shape.bounds;
+
+        assertEquals(FormBody.ELLIPSE, shape.formBody);
+        assertEquals(new Ellipse(8, 12, 8, 4), ellipse);
+    }
+
+    @Test
+    void offsetOfLayerMovesShapes() {
+        TiledMapTileLayer layer = new TiledMapTileLayer(1, 1, 16, 16);
+        layer.setOffsetX(5);
+        layer.setOffsetY(3);
+        setCells(layer, 0, createTile(new RectangleMapObject(0, 0, 16, 8), new PolygonMapObject(new float[]{0, 0, 4, 0, 0, 4})), 0);
+
+        TileLayerReader reader = read(layer);
+
+        // offset y of Tiled is directed down
+        assertEquals(List.of(new Rectangle(5, -3, 16, 8)), getBounds(reader.rectangles));
+        assertArrayEquals(new float[]{5, -3, 9, -3, 5, 1}, ((Polygon) reader.shapes.get(0).bounds).getTransformedVertices(), EPSILON);
+    }
+
+    @Test
+    void emptyCellsAndTilesWithoutObjectsAreSkipped() {
+        TiledMapTileLayer layer = new TiledMapTileLayer(3, 1, 16, 16);
+        setCells(layer, 0, createTile(), 1);
+
+        TileLayerReader reader = read(layer);
+
+        assertTrue(reader.rectangles.isEmpty());
+        assertTrue(reader.shapes.isEmpty());
+    }
+
+    private static TileLayerReader read(TiledMapTileLayer layer) {
+        TileLayerReader reader = new TileLayerReader();
+        reader.read(layer);
+        return reader;
+    }
+
+    private StaticTiledMapTile createTile(MapObject... objects) {
+        StaticTiledMapTile tile = new StaticTiledMapTile(new TextureRegion());
+        tile.setId(++lastTileId);
+        for (MapObject object : objects) {
+            tile.getObjects().add(object);
+        }
+
+        return tile;
+    }
+
+    private static Cell createCell(StaticTiledMapTile tile) {
+        Cell cell = new Cell();
+        cell.setTile(tile);
+        return cell;
+    }
+
+    private static void setCells(TiledMapTileLayer layer, int row, StaticTiledMapTile tile, int... columns) {
+        for (int column : columns) {
+            layer.setCell(column, row, createCell(tile));
+        }
+    }
+
+    private static List<Rectangle> getBounds(List<ObjectBatch.PreparedObject> objects) {
+        List<Rectangle> bounds = new ArrayList<>();
+        for (ObjectBatch.PreparedObject object : objects) {
+            bounds.add((Rectangle) object.bounds);
+        }
+
+        return bounds;
+    }
+
+    private static ObjectBatch.PreparedObject findByBounds(List<ObjectBatch.PreparedObject> objects, Rectangle bounds) {
+        for (ObjectBatch.PreparedObject object : objects) {
+            if (object.bounds.equals(bounds)) return object;
+        }
+
+        return fail("There is no rectangle " + bounds);
+    }
+}
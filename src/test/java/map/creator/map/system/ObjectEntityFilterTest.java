@@ -0,0 +1,80 @@
+package map.creator.map.system;
+
+import map.creator.map.entity.EntityTypeRegistry;
+import map.creator.map.entity.ObjectEntity;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObjectEntityFilterTest {
+
+    @Test
+    void bothEntitiesMustHaveSupportedTypes() {
+        ObjectEntityFilter filter = new ObjectEntityFilter("player", "enemy");
+
+        assertTrue(filter.check(entity("player"), entity("enemy")));
+        assertTrue(filter.check(entity("enemy"), entity("enemy")));
+        assertFalse(filter.check(entity("player"), entity("coin")));
+        assertFalse(filter.check(entity("coin"), entity("enemy")));
+    }
+
+    @Test
+    void pairRulesMatchInBothOrders() {
+        ObjectEntityFilter filter = ObjectEntityFilter.pair("player", "enemy").addPair("bullet", "enemy");
+
+        assertTrue(filter.check(entity("player"), entity("enemy")));
+        assertTrue(filter.check(entity("enemy"), entity("player")));
+        assertTrue(filter.check(entity("enemy"), entity("bullet")));
+
+        assertFalse(filter.check(entity("player"), entity("bullet")));
+        assertFalse(filter.check(entity("player"), entity("player")));
+        assertFalse(filter.check(entity("enemy"), entity("enemy")));
+    }
+
+    @Test
+    void typesWithoutBitAreComparedByStrings() {
+        String overflow = registerAllBits();
+        assertEquals(0, entity(overflow).getTypeBit());
+
+        ObjectEntityFilter filter = new ObjectEntityFilter(overflow, "player");
+        assertTrue(filter.check(entity(overflow), entity("player")));
+        assertTrue(filter.check(entity("player"), entity(overflow)));
+        assertFalse(filter.check(entity(overflow), entity("coin")));
+
+        ObjectEntityFilter pair = ObjectEntityFilter.pair("player", overflow);
+        assertTrue(pair.check(entity(overflow), entity("player")));
+        assertTrue(pair.check(entity("player"), entity(overflow)));
+        assertFalse(pair.check(entity(overflow), entity(overflow)));
+    }
+
+    @Test
+    void typesCannotBeChanged() {
+        ObjectEntityFilter filter = new ObjectEntityFilter("player");
+
+        assertThrows(UnsupportedOperationException.class, () -> filter.entityTypes.add("npc"));
+        assertThrows(UnsupportedOperationException.class, () -> ObjectEntityFilter.pair("a", "b").entityTypes.add("npc"));
+    }
+
+    @Test
+    void wrongArgumentsAreRejected() {
+        assertThrows(IllegalArgumentException.class, ObjectEntityFilter::new);
+        assertThrows(IllegalArgumentException.class, () -> ObjectEntityFilter.pair("player", null));
+    }
+
+    /**
+     * Registers types until the registry runs out of bits (the registry is global, so other tests may have taken some).
+     * @return type without bit
+     */
+    private static String registerAllBits() {
+        for (int i = 0; i <= EntityTypeRegistry.MAX_TYPES; i++) {
+            String type = "filterTestType" + i;
+            if (EntityTypeRegistry.getBit(type) == 0) return type;
+        }
+
+        return fail("Registry gives bits to more than " + EntityTypeRegistry.MAX_TYPES + " types");
+    }
+
+    private static ObjectEntity entity(String type) {
+        return new ObjectEntity(type, type);
+    }
+}
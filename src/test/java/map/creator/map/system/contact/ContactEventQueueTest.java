@@ -0,0 +1,151 @@
+package map.creator.map.system.contact;
+
+import map.creator.map.component.data.ContactDataComponent;
+import map.creator.map.component.data.ContactType;
+import map.creator.map.entity.ObjectEntity;
+import map.creator.map.factory.body.UserData;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactEventQueueTest {
+
+    private final ObjectEntity player = new ObjectEntity("player", "player");
+    private final ObjectEntity door = new ObjectEntity("door", "door");
+    private final ObjectEntity coin = new ObjectEntity("coin", "coin");
+
+    private final UserData playerData = new UserData("player", "body", null);
+    private final UserData doorData = new UserData("door", "trigger", null);
+    private final UserData coinData = new UserData("coin", "trigger", null);
+
+    private final ContactDataComponent data = new ContactDataComponent();
+
+    @Test
+    void beginAndEndAreReadUntilFlush() {
+        ContactEventQueue queue = new ContactEventQueue();
+
+        queue.begin(1L, player, door, playerData, doorData);
+        assertEquals(1, queue.sizeEvents());
+        assertEquals(ContactType.BEGIN, queue.getEventType(0));
+        assertSame(door, queue.getEvent(0, data).BEntity);
+        assertEquals(1, queue.sizePairs());
+        assertTrue(queue.isPairBegun(0));
+
+        queue.flush();
+        assertEquals(0, queue.sizePendingEvents());
+        // the pair stays active and gives STAY
+        assertEquals(1, queue.sizePairs());
+        assertFalse(queue.isPairBegun(0));
+
+        queue.end(1L);
+        assertEquals(1, queue.sizeEvents());
+        assertEquals(ContactType.END, queue.getEventType(0));
+        assertSame(doorData, queue.getEvent(0, data).BFixtureData);
+        assertEquals(0, queue.sizePairs());
+    }
+
+    @Test
+    void eventsWrittenAfterReadAreKeptForNextUpdate() {
+        ContactEventQueue queue = new ContactEventQueue();
+
+        queue.begin(1L, player, door, playerData, doorData);
+        assertEquals(1, queue.sizeEvents());
+
+        // the world is stepped after systems have read the queue
+        queue.begin(2L, player, coin, playerData, coinData);
+        assertEquals(1, queue.sizeEvents());
+        assertEquals(2, queue.sizePendingEvents());
+
+        queue.flush();
+
+        assertEquals(1, queue.sizeEvents());
+        assertSame(coin, queue.getEvent(0, data).BEntity);
+        // BEGIN of the late pair isn't read yet, so it mustn't give STAY
+        assertTrue(queue.isPairBegun(pairIndex(queue, coin)));
+        assertFalse(queue.isPairBegun(pairIndex(queue, door)));
+    }
+
+    @Test
+    void flushWithoutReadForgetsAllEvents() {
+        ContactEventQueue queue = new ContactEventQueue();
+
+        queue.begin(1L, player, door, playerData, doorData);
+        queue.begin(2L, player, coin, playerData, coinData);
+        queue.flush();
+
+        assertEquals(0, queue.sizePendingEvents());
+        assertEquals(2, queue.sizePairs());
+    }
+
+    @Test
+    void endOfLastPairKeepsOtherPairs() {
+        ContactEventQueue queue = new ContactEventQueue();
+
+        queue.begin(1L, player, door, playerData, doorData);
+        queue.begin(2L, player, coin, playerData, coinData);
+        queue.flush();
+
+        queue.end(1L);
+        queue.end(1L);
+
+        assertEquals(1, queue.sizeEvents());
+        assertEquals(1, queue.sizePairs());
+        assertSame(coin, queue.getPair(0, data).BEntity);
+
+        queue.end(2L);
+        assertEquals(0, queue.sizePairs());
+    }
+
+    @Test
+    void ringGrowsAndKeepsOrderOfEvents() {
+        ContactEventQueue queue = new ContactEventQueue(2, 1);
+
+        for (long key = 1; key <= 10; key++) {
+            queue.begin(key, player, key % 2 == 0 ? door : coin, playerData, coinData);
+        }
+        for (long key = 1; key <= 10; key++) {
+            queue.end(key);
+        }
+
+        assertEquals(20, queue.sizeEvents());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i < 10 ? ContactType.BEGIN : ContactType.END, queue.getEventType(i));
+        }
+        assertSame(coin, queue.getEvent(0, data).BEntity);
+        assertSame(door, queue.getEvent(1, data).BEntity);
+        assertEquals(0, queue.sizePairs());
+    }
+
+    @Test
+    void notFlushedQueueIsBounded() {
+        ContactEventQueue queue = new ContactEventQueue();
+
+        for (int i = 0; i < ContactEventQueue.MAX_EVENTS / 2; i++) {
+            queue.begin(1L, player, door, playerData, doorData);
+            queue.end(1L);
+        }
+
+        assertThrows(IllegalStateException.class, () -> queue.begin(1L, player, door, playerData, doorData));
+    }
+
+    @Test
+    void clearForgetsEventsAndPairs() {
+        ContactEventQueue queue = new ContactEventQueue();
+
+        queue.begin(1L, player, door, playerData, doorData);
+        assertEquals(1, queue.sizeEvents());
+        queue.begin(2L, player, coin, playerData, coinData);
+        queue.clear();
+
+        assertEquals(0, queue.sizePendingEvents());
+        assertEquals(0, queue.sizePairs());
+    }
+
+    private int pairIndex(ContactEventQueue queue, ObjectEntity entity) {
+        for (int i = 0; i < queue.sizePairs(); i++) {
+            if (queue.getPair(i, data).BEntity == entity) return i;
+        }
+
+        return fail("Pair isn't active");
+    }
+}
@@ -0,0 +1,171 @@
+package map.creator.map.system.contact.impl;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import map.creator.map.component.data.CleanComponent;
+import map.creator.map.component.data.ContactDataComponent;
+import map.creator.map.component.data.ContactType;
+import map.creator.map.component.data.ContactTypeComponent;
+import map.creator.map.entity.ObjectEntity;
+import map.creator.map.system.ObjectEntityFilter;
+import map.creator.map.system.contact.ContactIteratingSystem;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark of {@link ContactFullIteratingSystem#update(float)} against the system before mappers and type bits
+ * ({@link BaselineSystem} - a copy of the old processing: {@code getComponent} for every component
+ * and the filter by strings). Both systems process the same contact entities of one Engine.
+ *
+ * <p>It measures time, so it isn't run by {@code gradle test} - only by {@code gradle benchmark}.</p>
+ */
+@Tag("benchmark")
+class ContactFullIteratingSystemBenchmarkTest {
+
+    private static final int COUNT_ENTITIES = 10_000;
+    private static final int COUNT_ROUNDS = 30;
+    private static final int UPDATES_PER_ROUND = 20;
+
+    private static final String[] TYPES = {"player", "enemy", "bullet", "coin"};
+
+    @Test
+    void updateIsFasterThanBaseline(TestReporter reporter) {
+        Engine engine = new Engine();
+        CountingSystem system = new CountingSystem(new ObjectEntityFilter("player", "enemy", "bullet"));
+        BaselineSystem baseline = new BaselineSystem("player", "enemy", "bullet");
+        engine.addSystem(system);
+        engine.addSystem(baseline);
+        addContactEntities(engine);
+
+        long bestSystem = Long.MAX_VALUE, bestBaseline = Long.MAX_VALUE;
+        for (int round = 0; round < COUNT_ROUNDS; round++) {
+            bestSystem = Math.min(bestSystem, measure(system));
+            bestBaseline = Math.min(bestBaseline, measure(baseline));
+        }
+
+        assertEquals(baseline.count, system.count);
+        assertTrue(system.count > 0);
+
+        reporter.publishEntry("ContactFullIteratingSystem.update, ms", String.valueOf(bestSystem / 1e6));
+        reporter.publishEntry("baseline update, ms", String.valueOf(bestBaseline / 1e6));
+        assertTrue(bestSystem < bestBaseline, "System took " + bestSystem + " ns, baseline took " + bestBaseline + " ns");
+    }
+
+    /**
+     * @return time of {@link #UPDATES_PER_ROUND} updates in nanoseconds
+     */
+    private static long measure(ContactIteratingSystem system) {
+        long start = System.nanoTime();
+        for (int i = 0; i < UPDATES_PER_ROUND; i++) {
+            system.update(1 / 60f);
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Adds contacts in STAY, so systems don't change or remove them, and every round processes the same entities.
+     */
+    private static void addContactEntities(Engine engine) {
+        for (int i = 0; i < COUNT_ENTITIES; i++) {
+            ObjectEntity AEntity = new ObjectEntity("a" + i, TYPES[i % TYPES.length]);
+            ObjectEntity BEntity = new ObjectEntity("b" + i, TYPES[(i / TYPES.length) % TYPES.length]);
+
+            engine.addEntity(new Entity()
+                .add(new CleanComponent())
+                .add(new ContactTypeComponent(ContactType.STAY))
+                .add(new ContactDataComponent(null, AEntity, BEntity, null, null)));
+        }
+    }
+
+    private static class CountingSystem extends ContactFullIteratingSystem {
+
+        private long count;
+
+        private CountingSystem(ObjectEntityFilter filter) {
+            super(filter);
+            setProcessing(false);
+        }
+
+        @Override
+        public boolean beginContact(ContactDataComponent component, float deltaTime) {
+            return false;
+        }
+
+        @Override
+        public boolean stayContact(ContactDataComponent component, float deltaTime) {
+            count++;
+            return false;
+        }
+
+        @Override
+        public boolean endContact(ContactDataComponent component, float deltaTime) {
+            return false;
+        }
+    }
+
+    /**
+     * Processing of contact entities before mappers: components are found by class on every call,
+     * the mapper of the filter is taken from the map of mappers, types are compared by strings.
+     */
+    private static class BaselineSystem extends ContactIteratingSystem {
+
+        private final Set<String> entityTypes;
+        private long count;
+
+        private BaselineSystem(String... entityTypes) {
+            this.entityTypes = new HashSet<>(Arrays.asList(entityTypes));
+            setProcessing(false);
+        }
+
+        @Override
+        protected void processEntity(Entity entity, float deltaTime) {
+            ContactDataComponent filterData = ComponentMapper.getFor(ContactDataComponent.class).get(entity);
+            if (!entityTypes.contains(filterData.AEntity.getType()) || !entityTypes.contains(filterData.BEntity.getType())) return;
+
+            ContactTypeComponent typeComponent = entity.getComponent(ContactTypeComponent.class);
+            ContactDataComponent dataComponent = entity.getComponent(ContactDataComponent.class);
+
+            switch (typeComponent.type) {
+                case BEGIN:
+                    if (beginContact(dataComponent, deltaTime)) typeComponent.type = ContactType.STAY;
+                    break;
+
+                case STAY:
+                    stayContact(dataComponent, deltaTime);
+                    break;
+
+                case END:
+                    if (endContact(dataComponent, deltaTime)) {
+                        entity.getComponent(CleanComponent.class).isMustBeDelete = true;
+                        getEngine().removeEntity(entity);
+                    }
+                    break;
+            }
+        }
+
+        @Override
+        public boolean beginContact(ContactDataComponent component, float deltaTime) {
+            return false;
+        }
+
+        @Override
+        public boolean stayContact(ContactDataComponent component, float deltaTime) {
+            count++;
+            return false;
+        }
+
+        @Override
+        public boolean endContact(ContactDataComponent component, float deltaTime) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package map.creator.map.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongIntMapTest {
+
+    @Test
+    void putGetAndRemove() {
+        LongIntMap map = new LongIntMap();
+
+        map.put(5L, 1);
+        map.put(-7L, 2);
+        map.put(5L, 3);
+
+        assertEquals(2, map.size());
+        assertEquals(3, map.get(5L, -1));
+        assertEquals(2, map.get(-7L, -1));
+        assertEquals(-1, map.get(6L, -1));
+
+        assertEquals(3, map.remove(5L, -1));
+        assertEquals(-1, map.remove(5L, -1));
+        assertFalse(map.containsKey(5L));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void zeroKeyIsStoredSeparately() {
+        LongIntMap map = new LongIntMap();
+
+        assertFalse(map.containsKey(0L));
+        map.put(0L, 9);
+        assertTrue(map.containsKey(0L));
+        assertEquals(9, map.get(0L, -1));
+        assertEquals(1, map.size());
+
+        assertEquals(9, map.remove(0L, -1));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void getAndIncrementCountsPairs() {
+        LongIntMap map = new LongIntMap();
+        long key = (2L << 32) | 1L;
+
+        assertEquals(0, map.getAndIncrement(key, 0, 1));
+        assertEquals(1, map.getAndIncrement(key, 0, 1));
+        assertEquals(2, map.getAndIncrement(key, 0, -1));
+        assertEquals(1, map.get(key, 0));
+    }
+
+    @Test
+    void matchesHashMapAfterGrowthAndRemoving() {
+        LongIntMap map = new LongIntMap(4, 0.8f);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20000; i++) {
+            // small range of keys, so collisions of probe sequences and removing in their middle are frequent
+            long key = random.nextInt(512) - 256;
+
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? -1 : removed, map.remove(key, -1));
+            } else {
+                expected.put(key, i);
+                map.put(key, i);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = -256; key < 256; key++) {
+            Integer value = expected.get(key);
+            assertEquals(value == null ? -1 : value, map.get(key, -1));
+            assertEquals(value != null, map.containsKey(key));
+        }
+    }
+
+    @Test
+    void clearRemovesAll() {
+        LongIntMap map = new LongIntMap();
+        for (long key = 0; key < 100; key++) {
+            map.put(key, (int) key);
+        }
+
+        map.clear();
+
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(0L));
+        assertFalse(map.containsKey(50L));
+        map.put(50L, 1);
+        assertEquals(1, map.get(50L, -1));
+    }
+
+    @Test
+    void wrongParametersAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new LongIntMap(-1, 0.5f));
+        assertThrows(IllegalArgumentException.class, () -> new LongIntMap(16, 1f));
+        assertThrows(IllegalArgumentException.class, () -> new LongIntMap(16, 0f));
+    }
+}